@@ -0,0 +1,145 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.experiment.log.ConsoleMessageLogger;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.anchoranalysis.launcher.run.ParseArgumentsAndRunExperiment;
+import org.anchoranalysis.launcher.run.tasks.HelloWorld;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link ParseArgumentsAndRunExperiment#parseAndRun} takes to execute the {@link
+ * HelloWorld} task on a few small inputs, in a freshly forked JVM, as when {@code anchor} is
+ * launched.
+ *
+ * <p>This requires the default experiment of an Anchor distribution, specified with {@code -p
+ * defaultExperiment=<path>}, as its configuration directory is also used.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(5)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class ParseAndRunBenchmark {
+
+    private static final int NUMBER_INPUTS = 4;
+
+    /** BeanXML for a task that executes {@link HelloWorld}. */
+    private static final String TASK_XML =
+            String.format(
+                    "<?xml version=\"1.0\" encoding=\"ISO-8859-1\" ?>%n"
+                            + "<config>%n<bean config-class=\"%s\"/>%n</config>%n",
+                    HelloWorld.class.getName());
+
+    /** The path to {@code defaultExperiment.xml} in the config directory of a distribution. */
+    @Param("")
+    public String defaultExperiment;
+
+    private Path directory;
+
+    private String[] arguments;
+
+    /**
+     * Creates the inputs and task.
+     *
+     * @throws IOException if the files cannot be written.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        if (defaultExperiment.isEmpty()) {
+            throw new IllegalStateException(
+                    "Specify the default experiment of an Anchor distribution with -p"
+                            + " defaultExperiment=<path to config/defaultExperiment.xml>.");
+        }
+        directory = Files.createTempDirectory("anchorParseAndRunBenchmark");
+        Files.createDirectories(directory.resolve("input"));
+        for (int i = 0; i < NUMBER_INPUTS; i++) {
+            Files.writeString(
+                    directory.resolve("input").resolve(String.format("input%02d.txt", i)),
+                    "A synthetic input.");
+        }
+        Path task = directory.resolve("helloWorld.xml");
+        Files.writeString(task, TASK_XML, StandardCharsets.UTF_8);
+
+        arguments =
+                new String[] {
+                    "-" + CommandLineOptions.SHORT_OPTION_INPUT,
+                    directory.resolve("input").resolve("*.txt").toString(),
+                    "-" + CommandLineOptions.SHORT_OPTION_TASK,
+                    task.toString(),
+                    "-" + CommandLineOptions.SHORT_OPTION_OUTPUT,
+                    directory.resolve("output").toString() + "/",
+                    "-" + CommandLineOptions.SHORT_OPTION_OUTPUT_CONSOLE_ONLY
+                };
+    }
+
+    /** Deletes the inputs, task and outputs. */
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    /**
+     * Parses the arguments and executes the experiment, as {@link Launch} does.
+     *
+     * @return true if the experiment succeeded.
+     */
+    @Benchmark
+    public boolean parseAndRun() {
+        Logger logger = new Logger(new ConsoleMessageLogger());
+        DirtyInitializer.dirtyInitialization();
+        boolean succeeded =
+                new ParseArgumentsAndRunExperiment(logger, Optional.of(Path.of(defaultExperiment)))
+                        .parseAndRun(arguments, new LauncherConfigCommandLine());
+        if (!succeeded) {
+            throw new IllegalStateException("The experiment failed. See the output above.");
+        }
+        return succeeded;
+    }
+}
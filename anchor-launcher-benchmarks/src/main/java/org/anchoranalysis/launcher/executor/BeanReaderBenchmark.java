@@ -0,0 +1,96 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link BeanReader#readExperimentFromXML} takes to read the experiments in the test
+ * resources of {@code anchor-launcher}.
+ *
+ * <p>These experiments each contain a deliberate error, detected only after the BeanXML (and any
+ * included files) are parsed, so this measures parsing and the construction of the error message.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class BeanReaderBenchmark {
+
+    /** The test resources of {@code anchor-launcher}, containing the experiments. */
+    @Param(BenchmarkResources.DEFAULT_DIRECTORY)
+    public String testResources;
+
+    /** The name of the experiment, a subdirectory of {@code erroredConfig}. */
+    @Param({"missingRequiredBeanField", "nonExistingBeanField", "includeFileOverflow"})
+    public String experiment;
+
+    private Path path;
+
+    /**
+     * Registers bean-factories, as in the unit tests, and locates the experiment.
+     *
+     * @throws ExperimentExecutionException if initialization fails.
+     */
+    @Setup
+    public void setUp() throws ExperimentExecutionException {
+        Path root = BenchmarkResources.resolve(testResources);
+        ExperimentExecutorAfter.initializeIfNecessary(root, false, false);
+        path = root.resolve("erroredConfig").resolve(experiment).resolve("config.xml");
+    }
+
+    /**
+     * Reads the experiment.
+     *
+     * @return the exception describing the error in the experiment, or the experiment, if it
+     *     unexpectedly contains no error.
+     */
+    @Benchmark
+    public Object readExperimentFromXML() {
+        try {
+            return BeanReader.readExperimentFromXML(path);
+        } catch (ExperimentExecutionException e) {
+            return e;
+        }
+    }
+}
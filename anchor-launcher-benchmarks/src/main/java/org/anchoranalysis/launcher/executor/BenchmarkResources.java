@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.nio.file.Path;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Locates the test resources of {@code anchor-launcher}, which the benchmarks reuse.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BenchmarkResources {
+
+    /**
+     * The default location of the test resources, relative to the {@code
+     * anchor-launcher-benchmarks} directory, from which the benchmarks are normally run.
+     */
+    public static final String DEFAULT_DIRECTORY = "../anchor-launcher/src/test/resources";
+
+    /**
+     * Resolves the test resources directory.
+     *
+     * @param directory the directory, as a possibly relative path.
+     * @return the absolute path to the directory.
+     * @throws IllegalStateException if the directory does not exist.
+     */
+    public static Path resolve(String directory) {
+        Path path = Path.of(directory).toAbsolutePath().normalize();
+        if (!path.toFile().isDirectory()) {
+            throw new IllegalStateException(
+                    String.format(
+                            "The test resources of anchor-launcher do not exist at %s. Run from the"
+                                    + " anchor-launcher-benchmarks directory, or specify -p"
+                                    + " testResources=<directory>.",
+                            path));
+        }
+        return path;
+    }
+}
@@ -0,0 +1,81 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link ExperimentExecutorAfter#initializeIfNecessary} takes to register bean-factories
+ * and load the default configuration.
+ *
+ * <p>Initialization only occurs once per JVM, so each measurement is the first and only call in a
+ * freshly forked JVM.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(10)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class InitializationBenchmark {
+
+    /** The test resources of {@code anchor-launcher}, containing a configuration directory. */
+    @Param(BenchmarkResources.DEFAULT_DIRECTORY)
+    public String testResources;
+
+    private Path configDirectory;
+
+    /** Locates the configuration directory. */
+    @Setup
+    public void setUp() {
+        configDirectory = BenchmarkResources.resolve(testResources).resolve("config");
+    }
+
+    /**
+     * Initializes, including default instances.
+     *
+     * @throws ExperimentExecutionException if initialization fails.
+     */
+    @Benchmark
+    public void initializeIfNecessary() throws ExperimentExecutionException {
+        ExperimentExecutorAfter.initializeIfNecessary(configDirectory, true, false);
+    }
+}
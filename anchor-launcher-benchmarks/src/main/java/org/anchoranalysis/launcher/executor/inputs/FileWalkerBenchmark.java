@@ -0,0 +1,154 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link SequentialFileWalker} and {@link ParallelFileWalker} take to search a large
+ * synthetic directory tree.
+ *
+ * <p>The tree has 100 files per directory, in directories nested two levels deep. It is created in
+ * {@code parent}, which should be on the filesystem of interest e.g. a network mount.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@State(Scope.Benchmark)
+public class FileWalkerBenchmark {
+
+    private static final int FILES_PER_DIRECTORY = 100;
+
+    private static final int DIRECTORIES_PER_LEVEL = 100;
+
+    /** The number of files in the tree. */
+    @Param({"100000", "1000000"})
+    public int numberFiles;
+
+    /** The directory to create the tree in, or the temporary directory, if empty. */
+    @Param({""})
+    public String parent;
+
+    /**
+     * The number of threads for the parallel walker, or if zero, 4 times the number of processors,
+     * as listing directories on a network filesystem is latency- rather than CPU-bound.
+     */
+    @Param({"0"})
+    public int threads;
+
+    private Path tree;
+
+    private InputFilter filter;
+
+    /**
+     * Creates the tree.
+     *
+     * @throws IOException if the tree cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        Path parentDirectory =
+                parent.isEmpty() ? Path.of(System.getProperty("java.io.tmpdir")) : Path.of(parent);
+        tree = Files.createTempDirectory(parentDirectory, "anchorFileWalkerBenchmark");
+        createTree(tree, numberFiles);
+        filter = new InputFilter(Optional.of("*.tif"), Optional.empty());
+    }
+
+    /** Deletes the tree. */
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(tree.toFile());
+    }
+
+    /**
+     * Searches the tree with a single thread.
+     *
+     * @return the number of files found.
+     * @throws IOException if the tree cannot be searched.
+     * @throws InterruptedException if interrupted while searching.
+     */
+    @Benchmark
+    public long sequential() throws IOException, InterruptedException {
+        return walk(new SequentialFileWalker());
+    }
+
+    /**
+     * Searches the tree with multiple threads.
+     *
+     * @return the number of files found.
+     * @throws IOException if the tree cannot be searched.
+     * @throws InterruptedException if interrupted while searching.
+     */
+    @Benchmark
+    public long parallel() throws IOException, InterruptedException {
+        int numberThreads = threads > 0 ? threads : 4 * Runtime.getRuntime().availableProcessors();
+        return walk(new ParallelFileWalker(numberThreads));
+    }
+
+    private long walk(FileWalker walker) throws IOException, InterruptedException {
+        AtomicLong count = new AtomicLong();
+        walker.walk(tree, filter, path -> count.incrementAndGet());
+        return count.get();
+    }
+
+    private static void createTree(Path tree, int numberFiles) throws IOException {
+        int created = 0;
+        for (int outer = 0; created < numberFiles; outer++) {
+            for (int inner = 0; inner < DIRECTORIES_PER_LEVEL && created < numberFiles; inner++) {
+                Path directory =
+                        tree.resolve(String.format("d%03d", outer))
+                                .resolve(String.format("d%03d", inner));
+                Files.createDirectories(directory);
+                for (int file = 0; file < FILES_PER_DIRECTORY && created < numberFiles; file++) {
+                    Files.createFile(directory.resolve(String.format("f%03d.tif", file)));
+                    created++;
+                }
+            }
+        }
+    }
+}
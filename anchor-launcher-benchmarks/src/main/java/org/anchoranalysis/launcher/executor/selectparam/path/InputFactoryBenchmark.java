@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.selectparam.path;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
+import org.anchoranalysis.launcher.executor.selectparam.path.convert.InvalidPathArgumentException;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link InputFactory#pathOrDirectoryOrGlobOrExtension} takes to interpret each form of
+ * argument to {@code -i}.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class InputFactoryBenchmark {
+
+    private static final int NUMBER_FILES = 10;
+
+    /** Which form of argument: a directory, a glob, file-extensions, or a list of files. */
+    @Param({"directory", "glob", "extensions", "files"})
+    public String form;
+
+    private Path directory;
+
+    private String[] arguments;
+
+    /**
+     * Creates a directory of files, and the arguments referring to them.
+     *
+     * @throws IOException if the files cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("anchorInputFactoryBenchmark");
+        String[] files = new String[NUMBER_FILES];
+        for (int i = 0; i < NUMBER_FILES; i++) {
+            Path file = directory.resolve(String.format("image%02d.tif", i));
+            Files.createFile(file);
+            files[i] = file.toString();
+        }
+        switch (form) {
+            case "directory":
+                arguments = new String[] {directory.toString()};
+                break;
+            case "glob":
+                arguments = new String[] {directory.resolve("*.tif").toString()};
+                break;
+            case "extensions":
+                arguments = new String[] {".tif", ".png"};
+                break;
+            case "files":
+                arguments = files;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown form: " + form);
+        }
+    }
+
+    /** Deletes the directory of files. */
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    /**
+     * Interprets the arguments.
+     *
+     * @return the interpretation.
+     * @throws InvalidPathArgumentException if the arguments are invalid.
+     */
+    @Benchmark
+    public SelectParam<Optional<Path>> pathOrDirectoryOrGlobOrExtension()
+            throws InvalidPathArgumentException {
+        return InputFactory.pathOrDirectoryOrGlobOrExtension(arguments);
+    }
+}
@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.selectparam.path.convert;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link PrettyPathConverter#prettyPath} takes to describe paths in, or outside, the
+ * working and home directories.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class PrettyPathConverterBenchmark {
+
+    /** Where the path is located: in the working directory, the home directory, or elsewhere. */
+    @Param({"workingDirectory", "homeDirectory", "elsewhere"})
+    public String location;
+
+    private Path path;
+
+    /** Creates a path in the location. */
+    @Setup
+    public void setUp() {
+        switch (location) {
+            case "workingDirectory":
+                path = Path.of("").toAbsolutePath().resolve("input").resolve("image.tif");
+                break;
+            case "homeDirectory":
+                path = Path.of(System.getProperty("user.home"), "images", "image.tif");
+                break;
+            case "elsewhere":
+                path = Path.of("/anchorBenchmark", "elsewhere", "image.tif").toAbsolutePath();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown location: " + location);
+        }
+    }
+
+    /**
+     * Describes the path.
+     *
+     * @return the description.
+     */
+    @Benchmark
+    public String prettyPath() {
+        return PrettyPathConverter.prettyPath(path);
+    }
+}
@@ -0,0 +1,114 @@
+/*-
+ * #%L
+ * anchor-launcher-benchmarks
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.tasks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.io.input.InputReadFailedException;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * How long {@link FindTasks#taskNames} takes to find the tasks in a large synthetic tasks
+ * directory.
+ *
+ * <p>The tasks are spread across subdirectories, each with 50 tasks, and an {@code include}
+ * subdirectory of equal size, whose files are ignored.
+ *
+ * @author Owen Feehan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+public class FindTasksBenchmark {
+
+    private static final int TASKS_PER_DIRECTORY = 50;
+
+    private static final String TASK_XML =
+            "<?xml version=\"1.0\" encoding=\"ISO-8859-1\" ?>\n<config>\n</config>\n";
+
+    /** The number of tasks in the directory. */
+    @Param({"1000", "10000"})
+    public int numberTasks;
+
+    private Path directory;
+
+    /**
+     * Creates the tasks directory.
+     *
+     * @throws IOException if the directory cannot be created.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("anchorFindTasksBenchmark");
+        for (int i = 0; i < numberTasks; i++) {
+            Path subdirectory =
+                    directory.resolve(String.format("group%04d", i / TASKS_PER_DIRECTORY));
+            writeTask(subdirectory, String.format("task%05d.xml", i));
+        }
+        for (int i = 0; i < TASKS_PER_DIRECTORY; i++) {
+            writeTask(directory.resolve("include"), String.format("included%05d.xml", i));
+        }
+    }
+
+    /** Deletes the tasks directory. */
+    @TearDown
+    public void tearDown() {
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    /**
+     * Finds the names of all tasks.
+     *
+     * @return the number of tasks found.
+     * @throws InputReadFailedException if the directory cannot be read.
+     */
+    @Benchmark
+    public long taskNames() throws InputReadFailedException {
+        return FindTasks.taskNames(directory).count();
+    }
+
+    private static void writeTask(Path subdirectory, String fileName) throws IOException {
+        Files.createDirectories(subdirectory);
+        Files.writeString(subdirectory.resolve(fileName), TASK_XML);
+    }
+}
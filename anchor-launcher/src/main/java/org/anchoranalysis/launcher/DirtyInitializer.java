@@ -4,7 +4,6 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
-import org.anchoranalysis.io.bioformats.ConfigureBioformatsLogging;
 
 /*
  * #%L
@@ -44,9 +43,11 @@ class DirtyInitializer {
     /**
      * Dirty initialization work done that must be done every time we initialise an application that
      * will use the Anchor platform
+     *
+     * <p>Logging of Bio-Formats is not configured here, but only when an experiment is executed,
+     * as it loads many classes, which is unnecessary e.g. when showing help.
      */
     public static void dirtyInitialization() {
-        ConfigureBioformatsLogging.instance().makeSureConfigured();
         disableAccessWarnings();
     }
 
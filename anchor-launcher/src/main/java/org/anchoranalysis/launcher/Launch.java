@@ -33,6 +33,9 @@ import lombok.NoArgsConstructor;
 import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.experiment.log.ConsoleMessageLogger;
 import org.anchoranalysis.launcher.config.LauncherConfig;
+import org.anchoranalysis.launcher.instrumentation.StartupProfiler;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.anchoranalysis.launcher.run.InformationalCommand;
 import org.anchoranalysis.launcher.run.ParseArgumentsAndRunExperiment;
 
 /**
@@ -49,10 +52,14 @@ public class Launch {
      * <p>The output-folder may open in the desktop, depending on the arguments passed, and whether
      * it is supported by the local operating-system.
      *
+     * <p>The process exits with a non-zero status, if an error occurs.
+     *
      * @param args command line arguments
      */
     public static void main(String[] args) {
-        runCommandLineApplication(args, Optional.empty());
+        if (!runCommandLineApplication(args, Optional.empty())) {
+            System.exit(1);
+        }
     }
 
     /**
@@ -64,25 +71,48 @@ public class Launch {
      * <p>The output-folder does not open in the desktop, as it is presumed this method is being
      * called for testing purposes.
      *
+     * <p>Unlike {@link #main(String[])}, the process does not exit if an error occurs, so a
+     * calling test can continue, and instead false is returned.
+     *
      * @param args command line arguments
      * @param defaultExperiment the path to the default-experiment, if it is known, or empty if
      *     unknown
+     * @return true if successful, false if an error occurred.
      */
-    public static void mainDefaultExperiment(String[] args, Path defaultExperiment) {
-        runCommandLineApplication(args, Optional.of(defaultExperiment));
+    public static boolean mainDefaultExperiment(String[] args, Path defaultExperiment) {
+        return runCommandLineApplication(args, Optional.of(defaultExperiment));
     }
 
     /**
      * Runs a command-line application, by parsing arguments, and then executing an experiment.
      *
+     * <p>Informational commands (help, version and showing tasks) are served first, before any
+     * heavier initialization occurs.
+     *
      * @param args arguments from command-line application
      * @param defaultExperiment the path to the default-experiment, if it is known, or empty if
      *     unknown
+     * @return true if successful, false if an error occurred.
      */
-    private static void runCommandLineApplication(String[] args, Optional<Path> defaultExperiment) {
-        Logger logger = new Logger(new ConsoleMessageLogger());
+    private static boolean runCommandLineApplication(
+            String[] args, Optional<Path> defaultExperiment) {
+        StartupProfiler.enableIfRequested(
+                args,
+                CommandLineOptions.SHORT_OPTION_PROFILE_STARTUP,
+                CommandLineOptions.LONG_OPTION_PROFILE_STARTUP);
         LauncherConfig config = new LauncherConfigCommandLine();
-        DirtyInitializer.dirtyInitialization();
-        new ParseArgumentsAndRunExperiment(logger, defaultExperiment).parseAndRun(args, config);
+        if (InformationalCommand.maybeServe(args, config, defaultExperiment)) {
+            return true;
+        }
+        Logger logger = new Logger(new ConsoleMessageLogger());
+        try (StartupProfiler.Phase phase = StartupProfiler.start("DirtyInitializer")) {
+            DirtyInitializer.dirtyInitialization();
+        }
+        boolean succeeded =
+                new ParseArgumentsAndRunExperiment(logger, defaultExperiment)
+                        .parseAndRun(args, config);
+        // In case start-up ended before an experiment began executing
+        StartupProfiler.printIfEnabled(logger.messageLogger());
+        return succeeded;
     }
 }
@@ -26,15 +26,21 @@
 
 package org.anchoranalysis.launcher;
 
+import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.launcher.config.HelpConfig;
 import org.anchoranalysis.launcher.config.LauncherConfig;
 import org.anchoranalysis.launcher.executor.ExperimentExecutor;
+import org.anchoranalysis.launcher.executor.MemoryBudget;
+import org.anchoranalysis.launcher.executor.ProcessorBounds;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParamFactory;
 import org.anchoranalysis.launcher.options.CommandLineExtracter;
 import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.anchoranalysis.launcher.options.process.AddInputEnumerationOptions;
 import org.anchoranalysis.launcher.options.process.AddInputOptions;
 import org.anchoranalysis.launcher.options.process.AddOutputOptions;
 import org.anchoranalysis.launcher.resources.Resources;
@@ -73,6 +79,16 @@ class LauncherConfigCommandLine extends LauncherConfig {
     /** A path relative to the current JAR where a properties file can be found */
     private static final String PATH_RELATIVE_PROPERTIES = "anchor.properties";
 
+    /**
+     * With {@code -tp auto} but without a batch-size, each batch has this many inputs for each of
+     * the maximum number of processors, so the number is adapted several times, even for fewer
+     * inputs than the default batch-size.
+     */
+    private static final int AUTO_BATCH_SIZE_MULTIPLE = 4;
+
+    /** The file-name of the timing report, when written to the output directory. */
+    private static final String DEFAULT_TIMING_REPORT_FILENAME = "timingReport.csv";
+
     /** a string is printed in the description if the default-experiment is used. */
     private static final String BEHAVIOUR_MESSAGE_FOR_DEFAULT_EXPERIMENT =
             "Searching recursively for image files. CTRL+C cancels";
@@ -105,7 +121,12 @@ class LauncherConfigCommandLine extends LauncherConfig {
 
         extract.ifPresentSingle(
                 CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
-                arguments.task()::assignMaxNumberProcessors);
+                processors -> {
+                    // Otherwise, assigned for each batch, as per maybeAdaptProcessors
+                    if (!ProcessorBounds.isAuto(processors)) {
+                        arguments.task().assignMaxNumberProcessors(processors);
+                    }
+                });
 
         extract.ifPresentSingle(
                 CommandLineOptions.SHORT_OPTION_TASK_SIZE, arguments.task()::assignSize);
@@ -113,7 +134,13 @@ class LauncherConfigCommandLine extends LauncherConfig {
         extract.ifPresentSingle(
                 CommandLineOptions.SHORT_OPTION_GROUP, arguments.task()::assignGroup);
 
-        AddInputOptions.addFrom(extract, arguments.input());
+        // When the launcher searches for inputs, and is to sample them, it does so in a single pass
+        InputEnumerationOptions enumeration = new InputEnumerationOptions();
+        AddInputEnumerationOptions.addFrom(extract, enumeration);
+        boolean launcherSamples =
+                enumeration.getSample().isPresent()
+                        && SelectParamFactory.inputSelectParam(line).inputSearch().isPresent();
+        AddInputOptions.addFrom(extract, arguments.input(), launcherSamples);
         AddOutputOptions.addFrom(extract, arguments.output());
 
         return arguments;
@@ -149,7 +176,18 @@ class LauncherConfigCommandLine extends LauncherConfig {
                         line, CommandLineOptions.SHORT_OPTION_TASK, executor.taskDirectory()));
         executor.setDefaultBehaviourString(Optional.of(BEHAVIOUR_MESSAGE_FOR_DEFAULT_EXPERIMENT));
 
+        AddInputEnumerationOptions.addFrom(
+                new CommandLineExtracter(line), executor.getInputEnumeration());
+
         maybeShowInDesktop(executor, line);
+        maybeReportTiming(executor, line);
+        maybeServeMetrics(executor, line);
+        maybeAdaptProcessors(executor, line);
+        maybeBudgetMemory(executor, line);
+        checkNotLimitedPerBatch(
+                line, executor.getInputEnumeration(), executor.getMemoryBudget().isPresent());
+        checkMetricsInBatches(
+                line, executor.getInputEnumeration(), executor.getMemoryBudget().isPresent());
     }
 
     private static void maybeShowInDesktop(ExperimentExecutor executor, CommandLine line) {
@@ -157,4 +195,213 @@ class LauncherConfigCommandLine extends LauncherConfig {
                 !line.hasOption(CommandLineOptions.SHORT_OPTION_OUTPUT_CONSOLE_ONLY);
         executor.setOpenInDesktop(showInDesktop);
     }
+
+    private static void maybeReportTiming(ExperimentExecutor executor, CommandLine line)
+            throws ExperimentExecutionException {
+        CommandLineExtracter extract = new CommandLineExtracter(line);
+        extract.ifPresentSingle(
+                CommandLineOptions.SHORT_OPTION_REPORT_TIMING,
+                path -> executor.setTimingReport(Optional.of(timingReportPath(executor, path))));
+    }
+
+    private static void maybeServeMetrics(ExperimentExecutor executor, CommandLine line)
+            throws ExperimentExecutionException {
+        CommandLineExtracter extract = new CommandLineExtracter(line);
+        extract.ifPresentSingle(
+                CommandLineOptions.SHORT_OPTION_METRICS_PORT,
+                port -> executor.setMetricsPort(Optional.of(parsePort(port))));
+    }
+
+    /**
+     * Adapts the number of processors for each batch, if {@code -tp auto} is specified.
+     *
+     * <p>This requires inputs to be executed in batches, as the number of processors is fixed for
+     * each execution of the experiment. Unless a batch-size is specified with {@code -ib}, each
+     * batch has {@value #AUTO_BATCH_SIZE_MULTIPLE} inputs for each of the maximum number of
+     * processors, as with the default batch-size, fewer inputs would be executed in a single batch,
+     * with nothing adapted.
+     */
+    private static void maybeAdaptProcessors(ExperimentExecutor executor, CommandLine line)
+            throws ExperimentExecutionException {
+        CommandLineExtracter extract = new CommandLineExtracter(line);
+        extract.ifPresentSingle(
+                CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
+                processors -> {
+                    if (ProcessorBounds.isAuto(processors)) {
+                        ProcessorBounds bounds = parseProcessorBounds(processors);
+                        executor.setAdaptiveProcessors(Optional.of(bounds));
+                        InputEnumerationOptions inputs = executor.getInputEnumeration();
+                        if (!inputs.isStreaming()) {
+                            inputs.setStreaming(true);
+                            inputs.setBatchSize(AUTO_BATCH_SIZE_MULTIPLE * bounds.getMax());
+                        }
+                    }
+                });
+    }
+
+    /**
+     * Splits each batch of inputs into groups within a memory budget, if {@code -mb} is specified.
+     *
+     * <p>The maximum number of processors for a group is any fixed number specified by {@code -tp},
+     * otherwise all available processors.
+     */
+    private static void maybeBudgetMemory(ExperimentExecutor executor, CommandLine line)
+            throws ExperimentExecutionException {
+        CommandLineExtracter extract = new CommandLineExtracter(line);
+        extract.ifPresentSingle(
+                CommandLineOptions.SHORT_OPTION_TASK_MEMORY_BUDGET,
+                budget ->
+                        executor.setMemoryBudget(
+                                Optional.of(parseMemoryBudget(budget, maxProcessors(line)))));
+    }
+
+    /**
+     * Rejects {@code -il} and {@code -is} when inputs are executed in several batches.
+     *
+     * <p>The input-manager would otherwise limit or shuffle the inputs of each batch separately,
+     * rather than all inputs, so e.g. {@code -il 100 -ib 10} would impose no limit at all. Inputs
+     * are executed in several batches with {@code -ib}, {@code -iq}, {@code -mb} or {@code -tp
+     * auto}. {@code -ir} instead samples across all inputs in these cases.
+     *
+     * @param line the command-line.
+     * @param inputs how the launcher searches for inputs, after all options are applied.
+     * @param memoryBudget whether a memory budget is specified.
+     * @throws ExperimentExecutionException if {@code -il} or {@code -is} is specified, and inputs
+     *     are executed in several batches.
+     */
+    static void checkNotLimitedPerBatch(
+            CommandLine line, InputEnumerationOptions inputs, boolean memoryBudget)
+            throws ExperimentExecutionException {
+        if (!isInSeveralBatches(inputs, memoryBudget)) {
+            return;
+        }
+        for (String option :
+                List.of(
+                        CommandLineOptions.SHORT_OPTION_INPUT_LIMIT,
+                        CommandLineOptions.SHORT_OPTION_INPUT_SHUFFLE)) {
+            if (line.hasOption(option)) {
+                throw new ExperimentExecutionException(
+                        String.format(
+                                "The -%s option cannot be combined with executing inputs in several batches (-%s, -%s, -%s or -%s %s), as it would apply to each batch separately. Consider -%s instead.",
+                                option,
+                                CommandLineOptions.SHORT_OPTION_INPUT_BATCHES,
+                                CommandLineOptions.SHORT_OPTION_INPUT_QUEUE,
+                                CommandLineOptions.SHORT_OPTION_TASK_MEMORY_BUDGET,
+                                CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
+                                ProcessorBounds.AUTO,
+                                CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE));
+            }
+        }
+    }
+
+    /**
+     * Rejects {@code -mp} unless inputs are executed in batches.
+     *
+     * <p>The metrics are only updated as each batch completes, so when the experiment executes all
+     * inputs at once, they would remain zero until it ends.
+     *
+     * @param line the command-line.
+     * @param inputs how the launcher searches for inputs, after all options are applied.
+     * @param memoryBudget whether a memory budget is specified.
+     * @throws ExperimentExecutionException if {@code -mp} is specified, and inputs are not executed
+     *     in batches.
+     */
+    static void checkMetricsInBatches(
+            CommandLine line, InputEnumerationOptions inputs, boolean memoryBudget)
+            throws ExperimentExecutionException {
+        if (line.hasOption(CommandLineOptions.SHORT_OPTION_METRICS_PORT)
+                && !isInSeveralBatches(inputs, memoryBudget)) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option requires inputs to be executed in batches (-%s, -%s, -%s or -%s %s), as its metrics are updated only as each batch completes.",
+                            CommandLineOptions.SHORT_OPTION_METRICS_PORT,
+                            CommandLineOptions.SHORT_OPTION_INPUT_BATCHES,
+                            CommandLineOptions.SHORT_OPTION_INPUT_QUEUE,
+                            CommandLineOptions.SHORT_OPTION_TASK_MEMORY_BUDGET,
+                            CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
+                            ProcessorBounds.AUTO));
+        }
+    }
+
+    /** Whether inputs are executed in several batches, each a separate execution. */
+    private static boolean isInSeveralBatches(
+            InputEnumerationOptions inputs, boolean memoryBudget) {
+        return inputs.isStreaming() || inputs.getQueueDirectory().isPresent() || memoryBudget;
+    }
+
+    private static MemoryBudget parseMemoryBudget(String argument, int maxProcessors)
+            throws ExperimentExecutionException {
+        try {
+            return MemoryBudget.parse(argument, maxProcessors);
+        } catch (IllegalArgumentException e) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option is invalid: %s",
+                            CommandLineOptions.SHORT_OPTION_TASK_MEMORY_BUDGET, e.getMessage()));
+        }
+    }
+
+    /**
+     * Any fixed number of processors specified by {@code -tp}, otherwise all available.
+     *
+     * @param line the command-line.
+     * @return the maximum number of processors, at least one.
+     */
+    static int maxProcessors(CommandLine line) {
+        String processors =
+                line.getOptionValue(CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS, "");
+        try {
+            if (!processors.isEmpty() && !ProcessorBounds.isAuto(processors)) {
+                return Math.max(1, Integer.parseInt(processors));
+            }
+        } catch (NumberFormatException e) {
+            // Otherwise, the task reports the invalid number
+        }
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private static ProcessorBounds parseProcessorBounds(String argument)
+            throws ExperimentExecutionException {
+        try {
+            return ProcessorBounds.parse(argument, Runtime.getRuntime().availableProcessors());
+        } catch (IllegalArgumentException e) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option is invalid: %s",
+                            CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
+                            e.getMessage()));
+        }
+    }
+
+    private static int parsePort(String argument) throws ExperimentExecutionException {
+        try {
+            int port = Integer.parseInt(argument);
+            if (port >= 0 && port <= 65535) {
+                return port;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below
+        }
+        throw new ExperimentExecutionException(
+                String.format(
+                        "The -%s option must be an integer from 0 to 65535, but is %s",
+                        CommandLineOptions.SHORT_OPTION_METRICS_PORT, argument));
+    }
+
+    /** The path to write the timing report to, defaulting to the output directory. */
+    private static Path timingReportPath(ExperimentExecutor executor, String argument)
+            throws ExperimentExecutionException {
+        if (!argument.isEmpty()) {
+            return Path.of(argument);
+        }
+        Optional<Path> outputDirectory = executor.getOutput().outputDirectory();
+        if (!outputDirectory.isPresent()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "A timing report (-%s) requires either a path, or an output directory specified with -%s.",
+                            CommandLineOptions.SHORT_OPTION_REPORT_TIMING,
+                            CommandLineOptions.SHORT_OPTION_OUTPUT));
+        }
+        return outputDirectory.get().resolve(DEFAULT_TIMING_REPORT_FILENAME);
+    }
 }
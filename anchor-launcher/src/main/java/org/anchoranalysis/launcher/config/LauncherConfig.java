@@ -33,6 +33,7 @@ import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.launcher.executor.ExperimentExecutor;
 import org.anchoranalysis.launcher.executor.ExperimentExecutorFactory;
+import org.anchoranalysis.launcher.instrumentation.StartupProfiler;
 import org.anchoranalysis.launcher.resources.Resources;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.Options;
@@ -95,17 +96,27 @@ public abstract class LauncherConfig {
     public ExperimentExecutor createExperimentExecutor(
             CommandLine line, Optional<Path> defaultExperiment)
             throws ExperimentExecutionException {
-
-        // If a path is supplied use it, or else infer where the default-experiment is from a
-        // properties file.
-        Path path =
-                OptionalUtilities.orElseGet(
-                        defaultExperiment, this::inferPathDefaultExperimentFromProperties);
+        Path path = pathDefaultExperiment(defaultExperiment);
 
         // Assumes config-dir is always the directory of defaultExperiment.xml
         return ExperimentExecutorFactory.create(line, path, path.getParent());
     }
 
+    /**
+     * The directory containing the predefined tasks, without creating an experiment executor.
+     *
+     * @param defaultExperiment if known, a path to where the default experiment is located.
+     * @return the same directory as {@link ExperimentExecutor#taskDirectory}.
+     * @throws ExperimentExecutionException if the path to the default experiment cannot be
+     *     determined.
+     */
+    public Path taskDirectory(Optional<Path> defaultExperiment)
+            throws ExperimentExecutionException {
+        return pathDefaultExperiment(defaultExperiment)
+                .getParent()
+                .resolve(ExperimentExecutor.TASKS_SUBDIRECTORY_NAME);
+    }
+
     /**
      * Customizes the experiment executor with additional configuration.
      *
@@ -132,6 +143,15 @@ public abstract class LauncherConfig {
      */
     protected abstract Class<?> classInCurrentJar();
 
+    /**
+     * The path to the default experiment, if supplied, or else as inferred from a properties file.
+     */
+    private Path pathDefaultExperiment(Optional<Path> defaultExperiment)
+            throws ExperimentExecutionException {
+        return OptionalUtilities.orElseGet(
+                defaultExperiment, this::inferPathDefaultExperimentFromProperties);
+    }
+
     /**
      * Infer the path to the default experiment from a properties file.
      *
@@ -142,8 +162,10 @@ public abstract class LauncherConfig {
      */
     private Path inferPathDefaultExperimentFromProperties() throws ExperimentExecutionException {
 
-        Path pathCurrentJARDir = PathCurrentJarHelper.pathCurrentJAR(classInCurrentJar());
+        try (StartupProfiler.Phase phase = StartupProfiler.start("default-experiment path")) {
+            Path pathCurrentJARDir = PathCurrentJarHelper.pathCurrentJAR(classInCurrentJar());
 
-        return PathDeriver.pathDefaultExperiment(pathCurrentJARDir, pathRelativeProperties());
+            return PathDeriver.pathDefaultExperiment(pathCurrentJARDir, pathRelativeProperties());
+        }
     }
 }
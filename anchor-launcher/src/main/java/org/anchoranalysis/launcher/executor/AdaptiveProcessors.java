@@ -0,0 +1,193 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import org.anchoranalysis.core.log.MessageLogger;
+
+/**
+ * Adapts the number of processors used for each batch of inputs, from the heap headroom, time
+ * spent in garbage-collection and CPU utilization observed in the previous batch.
+ *
+ * <p>The number of processors is fixed for each execution of the experiment, so it can only change
+ * between batches. It is adapted like congestion-control: it is halved if the heap was nearly full
+ * after garbage-collection, or much time was spent in garbage-collection, as more concurrent jobs
+ * would then risk exhausting memory. Otherwise, it grows by a quarter (at least one), if the CPU
+ * was not saturated. It always remains within the user-given bounds.
+ *
+ * @author Owen Feehan
+ */
+class AdaptiveProcessors {
+
+    /** The number of processors is reduced, if more than this fraction of the heap remains used. */
+    static final double HEAP_USED_HIGH = 0.85;
+
+    /** The number of processors is reduced, if more than this fraction of time is spent in GC. */
+    static final double GC_TIME_HIGH = 0.10;
+
+    /** The number of processors is not increased, if CPU utilization is above this fraction. */
+    static final double CPU_SATURATED = 0.90;
+
+    /** The bounds within which the number of processors is adapted. */
+    private final ProcessorBounds bounds;
+
+    /** Where to report each change in the number of processors. */
+    private final MessageLogger logger;
+
+    /** The number of available processors, against which CPU utilization is measured. */
+    private final int availableProcessors;
+
+    private final OperatingSystemMXBean operatingSystemBean =
+            ManagementFactory.getOperatingSystemMXBean();
+
+    /** The number of processors to use for the current batch. */
+    private int current;
+
+    // START: Sampled when a batch starts
+    private long startNanos;
+    private long startGcMillis;
+    private long startCpuNanos;
+    // END: Sampled when a batch starts
+
+    /**
+     * Creates with bounds, initially using half the available processors, within the bounds.
+     *
+     * @param bounds the bounds within which the number of processors is adapted.
+     * @param logger where to report each change in the number of processors.
+     */
+    public AdaptiveProcessors(ProcessorBounds bounds, MessageLogger logger) {
+        this.bounds = bounds;
+        this.logger = logger;
+        this.availableProcessors = Runtime.getRuntime().availableProcessors();
+        this.current = bounds.clamp(availableProcessors / 2);
+        logger.logFormatted(
+                "Adapting the number of processors between %s, starting with %d.%n",
+                bounds, current);
+    }
+
+    /**
+     * Called as a batch starts, to sample the resources used.
+     *
+     * @return the number of processors to use for the batch.
+     */
+    public int batchStarted() {
+        startNanos = System.nanoTime();
+        startGcMillis = gcMillis();
+        startCpuNanos = processCpuNanos();
+        return current;
+    }
+
+    /** Called after a batch completes, to adapt the number of processors for the next batch. */
+    public void batchCompleted() {
+        long wallNanos = Math.max(1, System.nanoTime() - startNanos);
+        double gcFraction = (gcMillis() - startGcMillis) * 1e6 / wallNanos;
+        double cpuUtilization =
+                (processCpuNanos() - startCpuNanos) / ((double) wallNanos * availableProcessors);
+        double heapUsed = heapUsedAfterGc();
+
+        int next = decide(current, bounds, heapUsed, gcFraction, cpuUtilization);
+        if (next != current) {
+            logger.logFormatted(
+                    "Adapting from %d to %d processors (heap %.0f%% used after GC, %.0f%% of time in GC, CPU %.0f%% utilized).%n",
+                    current, next, heapUsed * 100, gcFraction * 100, cpuUtilization * 100);
+            current = next;
+        }
+    }
+
+    /**
+     * Decides the number of processors for the next batch.
+     *
+     * @param current the number of processors used for the previous batch.
+     * @param bounds the bounds within which the number of processors is adapted.
+     * @param heapUsed the fraction of the maximum heap used after garbage-collection.
+     * @param gcFraction the fraction of time spent in garbage-collection.
+     * @param cpuUtilization the fraction of the available processors' time used by this process.
+     * @return the number of processors for the next batch.
+     */
+    static int decide(
+            int current,
+            ProcessorBounds bounds,
+            double heapUsed,
+            double gcFraction,
+            double cpuUtilization) {
+        if (heapUsed > HEAP_USED_HIGH || gcFraction > GC_TIME_HIGH) {
+            return bounds.clamp(current / 2);
+        } else if (cpuUtilization < CPU_SATURATED) {
+            return bounds.clamp(current + Math.max(1, current / 4));
+        } else {
+            return bounds.clamp(current);
+        }
+    }
+
+    /** The total time spent in garbage-collection by all collectors, in milliseconds. */
+    private static long gcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            // -1 if undefined for a collector
+            total += Math.max(0, collector.getCollectionTime());
+        }
+        return total;
+    }
+
+    /**
+     * The fraction of the maximum heap used after the most recent garbage-collection.
+     *
+     * <p>This excludes garbage, unlike the current heap usage. If unavailable, the current heap
+     * usage is used instead.
+     */
+    private static double heapUsedAfterGc() {
+        long used = 0;
+        long max = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage afterGc = pool.getCollectionUsage();
+            if (pool.getType() == MemoryType.HEAP && afterGc != null && afterGc.getMax() > 0) {
+                used += afterGc.getUsed();
+                max += afterGc.getMax();
+            }
+        }
+        if (max == 0) {
+            MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+            used = heap.getUsed();
+            max = heap.getMax() > 0 ? heap.getMax() : heap.getCommitted();
+        }
+        return (double) used / max;
+    }
+
+    /** CPU time used by the whole process, or zero if unsupported. */
+    private long processCpuNanos() {
+        if (operatingSystemBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystemBean)
+                    .getProcessCpuTime();
+        } else {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.experiment.arguments.ExecutionArguments;
+import org.anchoranalysis.experiment.bean.Experiment;
+import org.anchoranalysis.launcher.executor.inputs.CompletionJournal;
+import org.anchoranalysis.launcher.executor.inputs.InputPrefetcher;
+import org.anchoranalysis.launcher.instrumentation.LaunchMetrics;
+import org.anchoranalysis.launcher.instrumentation.PhaseRecorder;
+
+/**
+ * Executes an experiment on successive batches of inputs, each as a separate execution.
+ *
+ * <p>The time and resources used to execute each batch are recorded as a phase named {@code
+ * batch} followed by its number.
+ *
+ * <p>If prefetching, the upcoming inputs are read ahead of their jobs, from when each execution
+ * starts, skipping the inputs opened by the first job on each processor. If adapting the number of
+ * processors, it is chosen as each batch starts.
+ *
+ * <p>If a memory budget applies, each batch is split into groups by the estimated size of its
+ * inputs, and each group is a separate execution, with as many processors as the budget admits.
+ * The phase for each group is then suffixed by its number in the batch.
+ *
+ * <p>If outputs are separated, each execution writes its outputs to its own subdirectory of the
+ * output directory, so outputs that aggregate across inputs are not overwritten by a later
+ * execution. See {@link ExecutionOutputs}.
+ *
+ * @author Owen Feehan
+ */
+class BatchExecution {
+
+    /** Executes the experiment. */
+    private final ExperimentExecutorAfter delegate;
+
+    /** Loads the experiment afresh, for each batch after the first. */
+    private final CheckedSupplier<Experiment, ExperimentExecutionException> experimentLoader;
+
+    /** The arguments for the experiment, whose input paths are replaced with each batch. */
+    private final ExecutionArguments arguments;
+
+    /** If defined, a replacement output-manager. */
+    private final Optional<Path> pathOutput;
+
+    /** If defined, a replacement task. */
+    private final Optional<Path> pathTask;
+
+    /** If present, the inputs of each batch are recorded here, once executed. */
+    private final Optional<CompletionJournal> journal;
+
+    /** Records the time and resources used by each batch. */
+    private final PhaseRecorder phases;
+
+    /** Counts the batches and inputs that complete or fail. */
+    private final LaunchMetrics metrics;
+
+    /** If present, reads the upcoming inputs ahead of their jobs, as each batch starts. */
+    private final Optional<InputPrefetcher> prefetcher;
+
+    /** If present, chooses the number of processors for each batch. */
+    private final Optional<AdaptiveProcessors> processors;
+
+    /** If present, splits each batch into groups within a memory budget. */
+    private final Optional<MemoryAdmission> admission;
+
+    /** If present, each execution writes its outputs to its own subdirectory. */
+    private final Optional<ExecutionOutputs> outputs;
+
+    /** The experiment to execute for the first batch, which is then cleared. */
+    private Optional<Experiment> first;
+
+    /** How many batches have been executed. */
+    private int numberExecuted = 0;
+
+    /**
+     * Creates for a particular experiment.
+     *
+     * @param delegate executes the experiment.
+     * @param experiment the experiment to execute for the first batch.
+     * @param experimentLoader loads the experiment afresh, for each subsequent batch.
+     * @param arguments the arguments for the experiment, whose input paths are replaced with each
+     *     batch.
+     * @param pathOutput if defined, a replacement output-manager as per {@link
+     *     ExperimentExecutorAfter#executeExperiment}.
+     * @param pathTask if defined, a replacement task as per {@link
+     *     ExperimentExecutorAfter#executeExperiment}.
+     * @param journal if present, the inputs of each batch are recorded here, once the experiment
+     *     completes on the batch.
+     * @param phases records the time and resources used by each batch.
+     * @param metrics counts the batches and inputs that complete or fail.
+     * @param prefetcher if present, reads the upcoming inputs ahead of their jobs, from when each
+     *     execution starts.
+     * @param processors if present, chooses the number of processors for each batch.
+     * @param admission if present, splits each batch into groups within a memory budget.
+     * @param outputs if present, each execution writes its outputs to its own subdirectory.
+     */
+    public BatchExecution(
+            ExperimentExecutorAfter delegate,
+            Experiment experiment,
+            CheckedSupplier<Experiment, ExperimentExecutionException> experimentLoader,
+            ExecutionArguments arguments,
+            Optional<Path> pathOutput,
+            Optional<Path> pathTask,
+            Optional<CompletionJournal> journal,
+            PhaseRecorder phases,
+            LaunchMetrics metrics,
+            Optional<InputPrefetcher> prefetcher,
+            Optional<AdaptiveProcessors> processors,
+            Optional<MemoryAdmission> admission,
+            Optional<ExecutionOutputs> outputs) {
+        this.delegate = delegate;
+        this.first = Optional.of(experiment);
+        this.experimentLoader = experimentLoader;
+        this.arguments = arguments;
+        this.pathOutput = pathOutput;
+        this.pathTask = pathTask;
+        this.journal = journal;
+        this.phases = phases;
+        this.metrics = metrics;
+        this.prefetcher = prefetcher;
+        this.processors = processors;
+        this.admission = admission;
+        this.outputs = outputs;
+    }
+
+    /**
+     * Executes the experiment on a batch of inputs.
+     *
+     * @param batch the inputs.
+     * @throws ExperimentExecutionException if the experiment fails, or the inputs cannot be
+     *     recorded in the journal.
+     */
+    public void execute(List<Path> batch) throws ExperimentExecutionException {
+        execute(batch, List.of());
+    }
+
+    /**
+     * Executes the experiment on a batch of inputs, when the inputs of the following batch are
+     * partly known.
+     *
+     * @param batch the inputs.
+     * @param following inputs known to follow {@code batch}, which are read ahead after those in
+     *     {@code batch}, if prefetching.
+     * @throws ExperimentExecutionException if the experiment fails, or the inputs cannot be
+     *     recorded in the journal.
+     */
+    public void execute(List<Path> batch, List<Path> following)
+            throws ExperimentExecutionException {
+        execute(batch, following, Optional.empty());
+    }
+
+    /**
+     * Executes the experiment on a batch of inputs, with a name that is unique among all
+     * executions writing to the same output directory, such as a batch claimed from a queue.
+     *
+     * @param batch the inputs.
+     * @param name the unique name, which names the subdirectory for its outputs, if separated.
+     * @throws ExperimentExecutionException if the experiment fails, or the inputs cannot be
+     *     recorded in the journal.
+     */
+    public void executeNamed(List<Path> batch, String name) throws ExperimentExecutionException {
+        execute(batch, List.of(), Optional.of(name));
+    }
+
+    private void execute(List<Path> batch, List<Path> following, Optional<String> name)
+            throws ExperimentExecutionException {
+        String phaseName = "batch" + (numberExecuted + 1);
+        Optional<Integer> numberProcessors = processors.map(AdaptiveProcessors::batchStarted);
+        if (admission.isPresent()) {
+            int maxProcessors = numberProcessors.orElse(Integer.MAX_VALUE);
+            List<MemoryAdmission.Group> groups = admission.get().partition(batch, maxProcessors);
+            for (int i = 0; i < groups.size(); i++) {
+                MemoryAdmission.Group group = groups.get(i);
+                String suffix = groups.size() > 1 ? "-" + (i + 1) : "";
+                List<Path> upcoming = new ArrayList<>();
+                for (MemoryAdmission.Group later : groups.subList(i, groups.size())) {
+                    upcoming.addAll(later.getInputs());
+                }
+                upcoming.addAll(following);
+                prefetch(upcoming, Optional.of(group.getProcessors()));
+                executeOnce(
+                        phaseName + suffix,
+                        group.getInputs(),
+                        Optional.of(group.getProcessors()),
+                        name.map(named -> named + suffix));
+            }
+        } else {
+            List<Path> upcoming = batch;
+            if (!following.isEmpty()) {
+                upcoming = new ArrayList<>(batch);
+                upcoming.addAll(following);
+            }
+            prefetch(upcoming, numberProcessors);
+            executeOnce(phaseName, batch, numberProcessors, name);
+        }
+        numberExecuted++;
+        processors.ifPresent(AdaptiveProcessors::batchCompleted);
+    }
+
+    /**
+     * How many batches have been executed.
+     *
+     * @return the number of batches.
+     */
+    public int numberExecuted() {
+        return numberExecuted;
+    }
+
+    /**
+     * Reads ahead the upcoming inputs, if prefetching, skipping those the jobs open as soon as the
+     * execution starts, as there is one job per processor.
+     */
+    private void prefetch(List<Path> upcoming, Optional<Integer> numberProcessors) {
+        if (prefetcher.isPresent()) {
+            int numberSkipped =
+                    numberProcessors.orElseGet(() -> Runtime.getRuntime().availableProcessors());
+            prefetcher.get().prefetch(upcoming, numberSkipped);
+        }
+    }
+
+    /** Executes the experiment once, on some inputs, with a particular number of processors. */
+    private void executeOnce(
+            String phaseName,
+            List<Path> inputs,
+            Optional<Integer> numberProcessors,
+            Optional<String> name)
+            throws ExperimentExecutionException {
+        // A failed batch is recorded as a phase with no inputs processed
+        try (PhaseRecorder.Started phase = phases.start(phaseName)) {
+            Experiment experiment = first.isPresent() ? first.get() : experimentLoader.get();
+            first = Optional.empty();
+
+            arguments.inputContextParameters().assignPaths(inputs);
+            if (numberProcessors.isPresent()) {
+                arguments
+                        .task()
+                        .assignMaxNumberProcessors(Integer.toString(numberProcessors.get()));
+            }
+            if (outputs.isPresent()) {
+                Path directory =
+                        name.isPresent() ? outputs.get().named(name.get()) : outputs.get().next();
+                arguments.output().getPrefixer().assignOutputDirectory(directory);
+            }
+            try {
+                delegate.executeExperiment(
+                        experiment, arguments, Optional.empty(), pathOutput, pathTask);
+            } catch (ExperimentExecutionException e) {
+                metrics.recordBatchFailed(inputs.size());
+                throw e;
+            }
+            phase.end(inputs.size());
+        }
+        metrics.recordBatchCompleted(inputs.size());
+
+        if (journal.isPresent()) {
+            try {
+                journal.get().recordCompleted(inputs);
+            } catch (IOException e) {
+                throw new ExperimentExecutionException(
+                        String.format(
+                                "Cannot record completed inputs in %s", journal.get().getPath()),
+                        e);
+            }
+        }
+    }
+}
@@ -88,10 +88,18 @@ class BeanReader {
         }
 
         try {
+            Path path = configPath; // Effectively-final, for use in the lambda
             if (associateXml) {
-                return BeanXMLLoader.loadBeanAssociatedXml(configPath, xmlPath);
+                // Not cached, as the associated XML is not retained when a bean is duplicated
+                return LazyBeanFactories.load(
+                        path, () -> BeanXMLLoader.loadBeanAssociatedXml(path, xmlPath));
             } else {
-                return BeanXMLLoader.loadBean(configPath, xmlPath);
+                return BeanXMLCache.getOrLoad(
+                        path,
+                        xmlPath,
+                        () ->
+                                LazyBeanFactories.load(
+                                        path, () -> BeanXMLLoader.loadBean(path, xmlPath)));
             }
 
         } catch (BeanXMLException e) {
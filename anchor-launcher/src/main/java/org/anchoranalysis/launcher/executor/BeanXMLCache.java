@@ -0,0 +1,180 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.bean.AnchorBean;
+import org.anchoranalysis.bean.xml.exception.BeanXMLException;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+
+/**
+ * Caches beans loaded from BeanXML, keyed by a hash of the contents of the file and all files it
+ * (transitively) includes.
+ *
+ * <p>The cache is held in memory, and benefits every launch after the first in the same process,
+ * as occurs with the daemon or a batch. It is disabled until {@link #enable} is called, as a single
+ * launch would only pay the cost of deriving keys and duplicating beans. Beans are live
+ * object-graphs that cannot be serialized, so they cannot be cached on disk.
+ *
+ * <p>A duplicate of the cached bean is always returned, as beans may be altered after loading. The
+ * least-recently used entry is evicted when the cache is full.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class BeanXMLCache {
+
+    /** The maximum number of beans to cache. */
+    private static final int MAX_ENTRIES = 64;
+
+    /** Algorithm used to derive the key. */
+    private static final String KEY_ALGORITHM = "SHA-256";
+
+    /** The cached beans, in access-order, so the first entry is the least-recently used. */
+    private static final Map<String, AnchorBean<?>> CACHE =
+            new LinkedHashMap<String, AnchorBean<?>>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, AnchorBean<?>> eldest) {
+                    return size() > MAX_ENTRIES;
+                }
+            };
+
+    /** Whether beans are cached, otherwise they are always loaded. */
+    private static volatile boolean enabled = false;
+
+    private static int hits = 0;
+
+    private static int misses = 0;
+
+    /**
+     * Enables caching, for a process that executes several experiments, such as the daemon or a
+     * batch.
+     */
+    public static void enable() {
+        enabled = true;
+    }
+
+    /**
+     * Gets a bean from the cache, or otherwise loads it, and adds it to the cache.
+     *
+     * <p>If caching is not enabled, or a key cannot be derived e.g. as an included file cannot be
+     * read, the bean is loaded without using the cache.
+     *
+     * @param <T> the type of bean.
+     * @param path the path to the BeanXML.
+     * @param xmlPath the xpath inside the BeanXML specifying the root-element.
+     * @param loader loads the bean from {@code path}.
+     * @return the bean, newly loaded or duplicated from the cache.
+     * @throws BeanXMLException if thrown by {@code loader}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T getOrLoad(
+            Path path, String xmlPath, CheckedSupplier<T, BeanXMLException> loader)
+            throws BeanXMLException {
+        if (!enabled) {
+            return loader.get();
+        }
+        Optional<String> key = computeKey(path, xmlPath);
+        if (!key.isPresent()) {
+            return loader.get();
+        }
+
+        synchronized (CACHE) {
+            AnchorBean<?> existing = CACHE.get(key.get());
+            if (existing != null) {
+                hits++;
+                return (T) existing.duplicateBean();
+            }
+            misses++;
+        }
+
+        T loaded = loader.get();
+        if (loaded instanceof AnchorBean<?> bean) {
+            synchronized (CACHE) {
+                CACHE.put(key.get(), bean.duplicateBean());
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Describes how often the cache has been used.
+     *
+     * @return a single line describing the number of hits and misses, or {@link Optional#empty}
+     *     if caching is not enabled.
+     */
+    public static Optional<String> describeUsage() {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        synchronized (CACHE) {
+            return Optional.of(
+                    String.format(
+                            "BeanXML cache: %d hits, %d misses (since the process started)",
+                            hits, misses));
+        }
+    }
+
+    /**
+     * Derives a key from the contents of the BeanXML and all files it includes.
+     *
+     * @return the key, or {@link Optional#empty} if it cannot be derived.
+     */
+    private static Optional<String> computeKey(Path path, String xmlPath) {
+        Optional<BeanXMLReferences> references = BeanXMLReferences.scan(path);
+        if (!references.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance(KEY_ALGORITHM);
+            digest.update(xmlPath.getBytes(StandardCharsets.UTF_8));
+            // Sorted, so that the key is independent of the order of scanning
+            SortedSet<Path> files = new TreeSet<>(references.get().getFiles());
+            for (Path file : files) {
+                digest.update(file.toString().getBytes(StandardCharsets.UTF_8));
+                digest.update(Files.readAllBytes(file));
+            }
+            return Optional.of(HexFormat.of().formatHex(digest.digest()));
+        } catch (NoSuchAlgorithmException | IOException e) {
+            return Optional.empty();
+        }
+    }
+}
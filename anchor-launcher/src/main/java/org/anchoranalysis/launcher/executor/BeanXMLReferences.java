@@ -0,0 +1,137 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The bean-factories and classes referenced in BeanXML, and in any files it includes.
+ *
+ * <p>The XML is only scanned for attributes, without creating any beans, so it is much cheaper than
+ * loading the beans.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class BeanXMLReferences {
+
+    private static final String ATTRIBUTE_FACTORY = "config-factory";
+    private static final String ATTRIBUTE_CLASS = "config-class";
+    private static final String ATTRIBUTE_INCLUDE_PATH = "filePath";
+
+    /** The name of the factory that includes another file. */
+    private static final String FACTORY_INCLUDE = "include";
+
+    /** Names of the bean-factories referenced via {@code config-factory}. */
+    private final Set<String> factories;
+
+    /** Names of the classes referenced via {@code config-class}. */
+    private final Set<String> classes;
+
+    /** The files that were scanned, including any (transitively) included files. */
+    @Getter private final Set<Path> files;
+
+    /**
+     * Scans a BeanXML file and any files it (transitively) includes.
+     *
+     * @param path the BeanXML file.
+     * @return the references, or {@link Optional#empty} if any file cannot be read or parsed.
+     */
+    public static Optional<BeanXMLReferences> scan(Path path) {
+        BeanXMLReferences references =
+                new BeanXMLReferences(new HashSet<>(), new HashSet<>(), new HashSet<>());
+        try {
+            references.scanFile(path.toAbsolutePath().normalize());
+            return Optional.of(references);
+        } catch (IOException | XMLStreamException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether a name containing {@code substring} is referenced, either as a factory or class.
+     *
+     * @param substring the substring, compared case-insensitively.
+     * @return true if at least one factory or class name contains {@code substring}.
+     */
+    public boolean referencesName(String substring) {
+        String lower = substring.toLowerCase(Locale.ROOT);
+        return factories.stream().anyMatch(name -> name.toLowerCase(Locale.ROOT).contains(lower))
+                || classes.stream().anyMatch(name -> name.toLowerCase(Locale.ROOT).contains(lower));
+    }
+
+    private void scanFile(Path path) throws IOException, XMLStreamException {
+        if (!files.add(path)) {
+            // Already scanned, so avoid cycles
+            return;
+        }
+
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        try (InputStream stream = Files.newInputStream(path)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(stream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        scanElement(reader, path);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        }
+    }
+
+    private void scanElement(XMLStreamReader reader, Path path)
+            throws IOException, XMLStreamException {
+        String factory = reader.getAttributeValue(null, ATTRIBUTE_FACTORY);
+        String className = reader.getAttributeValue(null, ATTRIBUTE_CLASS);
+        if (className != null) {
+            classes.add(className);
+        }
+        if (factory != null) {
+            factories.add(factory);
+            String includePath = reader.getAttributeValue(null, ATTRIBUTE_INCLUDE_PATH);
+            if (factory.equals(FACTORY_INCLUDE) && includePath != null) {
+                scanFile(path.resolveSibling(includePath).normalize());
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Chooses a separate output directory for each execution of an experiment, when inputs are
+ * executed in several executions.
+ *
+ * <p>Each execution writes to its own subdirectory of the output directory, so outputs that
+ * aggregate across inputs are not overwritten by a later execution. Subdirectories are numbered
+ * consecutively, e.g. {@code batch0001}, {@code batch0002}, continuing after any already present,
+ * so a resumed execution does not overwrite the outputs of an earlier one.
+ *
+ * @author Owen Feehan
+ */
+class ExecutionOutputs {
+
+    /** The prefix of the name of each subdirectory. */
+    static final String PREFIX = "batch";
+
+    private static final Pattern NUMBERED = Pattern.compile(PREFIX + "(\\d+)(-\\d+)?");
+
+    /** The output directory, in which subdirectories are created. */
+    private final Path directory;
+
+    /** The number of the next subdirectory. */
+    private int nextNumber;
+
+    /**
+     * Creates for an output directory, numbering after any subdirectories already present.
+     *
+     * @param directory the output directory.
+     * @throws IOException if the output directory exists, but cannot be listed.
+     */
+    public ExecutionOutputs(Path directory) throws IOException {
+        this.directory = directory;
+        this.nextNumber = highestNumber(directory) + 1;
+    }
+
+    /**
+     * The subdirectory for the next execution, consecutively numbered.
+     *
+     * @return the subdirectory, which is not created.
+     */
+    public Path next() {
+        return directory.resolve(String.format("%s%04d", PREFIX, nextNumber++));
+    }
+
+    /**
+     * The subdirectory for an execution with a unique name, such as a batch claimed from a queue.
+     *
+     * @param name the unique name.
+     * @return the subdirectory, which is not created.
+     */
+    public Path named(String name) {
+        return directory.resolve(PREFIX + name);
+    }
+
+    private static int highestNumber(Path directory) throws IOException {
+        if (!directory.toFile().isDirectory()) {
+            return 0;
+        }
+        int highest = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = NUMBERED.matcher(file.getFileName().toString());
+                if (matcher.matches() && matcher.group(1).length() < 10) {
+                    highest = Math.max(highest, Integer.parseInt(matcher.group(1)));
+                }
+            }
+        }
+        return highest;
+    }
+}
@@ -26,6 +26,7 @@ package org.anchoranalysis.launcher.executor;
  * #L%
  */
 
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -37,8 +38,16 @@ import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.experiment.bean.Experiment;
+import org.anchoranalysis.io.bioformats.ConfigureBioformatsLogging;
+import org.anchoranalysis.launcher.executor.inputs.CompletionJournal;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParamFactory;
+import org.anchoranalysis.launcher.instrumentation.LaunchMetrics;
+import org.anchoranalysis.launcher.instrumentation.MetricsServer;
+import org.anchoranalysis.launcher.instrumentation.PhaseRecorder;
+import org.anchoranalysis.launcher.instrumentation.StartupProfiler;
 import org.anchoranalysis.launcher.options.CommandLineOptions;
 
 /**
@@ -49,7 +58,8 @@ import org.anchoranalysis.launcher.options.CommandLineOptions;
 @RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public class ExperimentExecutor {
 
-    private static final String TASKS_SUBDIRECTORY_NAME = "tasks";
+    /** The name of the subdirectory, in the configuration directory, containing tasks. */
+    public static final String TASKS_SUBDIRECTORY_NAME = "tasks";
 
     /** The experiment to run. */
     private final SelectParam<Path> experiment;
@@ -66,6 +76,10 @@ public class ExperimentExecutor {
     /** The task selection parameter. */
     @Getter @Setter private SelectParam<Optional<Path>> task = SelectParamFactory.useDefault();
 
+    /** How the launcher itself searches for inputs, if at all. */
+    @Getter @Setter
+    private InputEnumerationOptions inputEnumeration = new InputEnumerationOptions();
+
     /**
      * Whether to open the output directory in the desktop GUI after execution (if supported on the
      * O/S).
@@ -78,6 +92,30 @@ public class ExperimentExecutor {
      */
     @Setter private Optional<String> defaultBehaviourString = Optional.empty();
 
+    /**
+     * If present, the time and resources used by each phase of execution are written to a CSV
+     * file at this path.
+     */
+    @Getter @Setter private Optional<Path> timingReport = Optional.empty();
+
+    /**
+     * If present, metrics describing the progress of execution are served over HTTP on this port,
+     * for the duration of the execution.
+     */
+    @Getter @Setter private Optional<Integer> metricsPort = Optional.empty();
+
+    /**
+     * If present, the number of processors is adapted between these bounds, for each batch of
+     * inputs, rather than being fixed.
+     */
+    @Getter @Setter private Optional<ProcessorBounds> adaptiveProcessors = Optional.empty();
+
+    /**
+     * If present, each batch of inputs is split into groups, so the estimated size of the inputs
+     * of concurrent jobs remains within this budget.
+     */
+    @Getter @Setter private Optional<MemoryBudget> memoryBudget = Optional.empty();
+
     /**
      * Executes an experiment after finding a single experiment XML file, and reading the experiment
      * from this file.
@@ -92,6 +130,53 @@ public class ExperimentExecutor {
             boolean alwaysShowExperimentArguments,
             Logger logger)
             throws ExperimentExecutionException {
+        PhaseRecorder phases = new PhaseRecorder();
+        LaunchMetrics metrics = new LaunchMetrics();
+        Optional<MetricsServer> server = startMetricsServer(metrics, logger);
+        try {
+            executeMeasured(
+                    executionArguments, alwaysShowExperimentArguments, logger, phases, metrics);
+        } finally {
+            server.ifPresent(MetricsServer::close);
+            if (timingReport.isPresent()) {
+                writeTimingReport(phases, timingReport.get(), logger);
+            }
+        }
+    }
+
+    /**
+     * Registers bean-factories, loads the default configuration and configures the logging of image
+     * readers, if not already done.
+     *
+     * <p>This otherwise occurs when an experiment is first executed, but can be called earlier, so
+     * that later experiments execute more quickly. As several experiments are then expected to
+     * execute in this process, beans loaded from BeanXML are also cached from now on.
+     *
+     * @throws ExperimentExecutionException if initialization fails.
+     */
+    public void initialize() throws ExperimentExecutionException {
+        BeanXMLCache.enable();
+        ExperimentExecutorAfter.initializeIfNecessary(configDirectory, true, true);
+        configureImageReaderLogging();
+    }
+
+    /**
+     * Gets the path to the task directory.
+     *
+     * @return the {@link Path} to the task directory
+     */
+    public Path taskDirectory() {
+        return configDirectory.resolve(TASKS_SUBDIRECTORY_NAME);
+    }
+
+    /** Executes the experiment, recording the time and resources used by each phase. */
+    private void executeMeasured(
+            ExecutionArguments executionArguments,
+            boolean alwaysShowExperimentArguments,
+            Logger logger,
+            PhaseRecorder phases,
+            LaunchMetrics metrics)
+            throws ExperimentExecutionException {
 
         if (openInDesktop) {
             Consumer<Path> desktopOpener =
@@ -99,7 +184,10 @@ public class ExperimentExecutor {
             executionArguments.input().assignCallUponDirectoryCreation(desktopOpener);
         }
 
-        ExperimentExecutorAfter delegate = new ExperimentExecutorAfter(configDirectory);
+        ExperimentExecutorAfter delegate;
+        try (PhaseRecorder.Started phase = phases.start("initialization")) {
+            delegate = new ExperimentExecutorAfter(configDirectory);
+        }
 
         if (defaultBehaviourString.isPresent() && areAllDefault()) {
             // Special behaviour if everything has defaults
@@ -110,29 +198,142 @@ public class ExperimentExecutor {
                             CommandLineOptions.SHORT_OPTION_HELP);
         }
 
-        Experiment experimentLoaded = loadExperimentFromPath(executionArguments);
+        // Also measured by the start-up profile, if enabled
+        Experiment experimentLoaded;
+        try (PhaseRecorder.Started phase = phases.start("loadExperiment")) {
+            experimentLoaded = loadExperimentFromPath(executionArguments);
+        }
 
-        if (alwaysShowExperimentArguments || experimentLoaded.useDetailedLogging()) {
+        boolean detailedLogging =
+                alwaysShowExperimentArguments || experimentLoaded.useDetailedLogging();
+        if (detailedLogging) {
             logger.messageLogger().log(describe());
         }
 
         setupModelDirectory(configDirectory, executionArguments);
 
-        delegate.executeExperiment(
-                experimentLoaded,
-                executionArguments,
-                getInput().select(executionArguments),
-                getOutput().select(executionArguments),
-                getTask().select(executionArguments));
+        Optional<InputSearch> search = Optional.empty();
+        Optional<Path> pathInput = Optional.empty();
+        try (StartupProfiler.Phase phase = StartupProfiler.start("input selection")) {
+            // A memory budget needs the inputs, to estimate their sizes
+            if (inputEnumeration.isLauncherSearching() || memoryBudget.isPresent()) {
+                search = input.inputSearch();
+            }
+            if (!search.isPresent()) {
+                pathInput = getInput().select(executionArguments);
+            }
+        }
+        configureImageReaderLogging();
+        StartupProfiler.printIfEnabled(logger.messageLogger());
+
+        if (search.isPresent()) {
+            new InputBatchExecutor(
+                            delegate,
+                            inputEnumeration,
+                            adaptiveProcessors,
+                            memoryBudget,
+                            logger,
+                            detailedLogging,
+                            phases,
+                            metrics)
+                    .execute(
+                            search.get(),
+                            openJournalIfResuming(),
+                            experimentLoaded,
+                            () -> loadExperimentFromPath(executionArguments),
+                            executionArguments,
+                            getOutput().select(executionArguments),
+                            getTask().select(executionArguments),
+                            output.outputDirectory());
+        } else {
+            checkLauncherNotSearching(
+                    inputEnumeration, adaptiveProcessors.isPresent(), memoryBudget.isPresent());
+            // The input-manager searches for inputs, so the search is included in this phase
+            try (PhaseRecorder.Started phase = phases.start("execution")) {
+                delegate.executeExperiment(
+                        experimentLoaded,
+                        executionArguments,
+                        pathInput,
+                        getOutput().select(executionArguments),
+                        getTask().select(executionArguments));
+            }
+        }
     }
 
     /**
-     * Gets the path to the task directory.
+     * Checks that no option requires the launcher to search for inputs, as the inputs are not a
+     * directory, glob or file-extensions, so the option would otherwise be silently ignored.
      *
-     * @return the {@link Path} to the task directory
+     * @param options how the launcher searches for inputs.
+     * @param adaptive whether the number of processors is adapted for each batch.
+     * @param budget whether a memory budget is specified.
+     * @throws ExperimentExecutionException naming the option, if any option requires a search.
      */
-    public Path taskDirectory() {
-        return configDirectory.resolve(TASKS_SUBDIRECTORY_NAME);
+    static void checkLauncherNotSearching(
+            InputEnumerationOptions options, boolean adaptive, boolean budget)
+            throws ExperimentExecutionException {
+        if (options.isResume()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Resuming (-%s) requires inputs to be a directory, glob or file-extensions.",
+                            CommandLineOptions.SHORT_OPTION_INPUT_RESUME));
+        }
+        if (adaptive) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Adapting processors (-%s %s) requires inputs to be a directory, glob or file-extensions.",
+                            CommandLineOptions.SHORT_OPTION_TASK_NUMBER_PROCESSORS,
+                            ProcessorBounds.AUTO));
+        }
+        if (budget) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "A memory budget (-%s) requires inputs to be a directory, glob or file-extensions.",
+                            CommandLineOptions.SHORT_OPTION_TASK_MEMORY_BUDGET));
+        }
+        Optional<String> searching = launcherSearchingOption(options);
+        if (searching.isPresent()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option requires inputs to be a directory, glob or file-extensions.",
+                            searching.get()));
+        }
+    }
+
+    /** The short-name of the first option that requires the launcher to search, if any. */
+    private static Optional<String> launcherSearchingOption(InputEnumerationOptions options) {
+        if (options.isStreaming()) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_BATCHES);
+        } else if (options.getSearchThreads() > 1) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_SEARCH_THREADS);
+        } else if (options.isIndexed()) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_INDEX);
+        } else if (options.getShard().isPresent()) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_SHARD);
+        } else if (options.getQueueDirectory().isPresent()) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_QUEUE);
+        } else if (options.getPrefetchDepth() > 0) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH);
+        } else if (options.getOrder().isPresent()) {
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_ORDER);
+        } else if (options.getSample().isPresent()) {
+            // Otherwise, the input-manager samples, so the seed is the cause
+            return Optional.of(CommandLineOptions.SHORT_OPTION_INPUT_SEED);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Configures the logging of Bio-Formats, if not already done.
+     *
+     * <p>This is deferred until an experiment is about to execute, the earliest an image may be
+     * read, as it loads many classes (Bio-Formats and logback) that are otherwise unneeded.
+     */
+    private static void configureImageReaderLogging() {
+        try (StartupProfiler.Phase phase = StartupProfiler.start("Bio-Formats logging")) {
+            ConfigureBioformatsLogging.instance().makeSureConfigured();
+        }
     }
 
     /**
@@ -153,6 +354,78 @@ public class ExperimentExecutor {
                                 .toAbsolutePath());
     }
 
+    /**
+     * Opens the journal of completed inputs in the output directory, if resuming.
+     *
+     * <p>The journal only applies to an identical selection of experiment, inputs, outputs and
+     * task.
+     *
+     * @return the journal, or {@link Optional#empty} if not resuming.
+     * @throws ExperimentExecutionException if no output directory is specified, or the journal
+     *     cannot be opened.
+     */
+    private Optional<CompletionJournal> openJournalIfResuming()
+            throws ExperimentExecutionException {
+        if (!inputEnumeration.isResume()) {
+            return Optional.empty();
+        }
+        Optional<Path> directory = output.outputDirectory();
+        if (!directory.isPresent()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Resuming (-%s) requires an output directory, specified with -%s.",
+                            CommandLineOptions.SHORT_OPTION_INPUT_RESUME,
+                            CommandLineOptions.SHORT_OPTION_OUTPUT));
+        }
+        String run = describeExperiment() + SelectPathDescriber.describe(input, output, task);
+        try {
+            return Optional.of(CompletionJournal.open(directory.get(), run));
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    String.format("Cannot open the completion journal in %s", directory.get()),
+                    e);
+        }
+    }
+
+    /**
+     * Starts serving metrics over HTTP, if a port is specified.
+     *
+     * @return the started server, or {@link Optional#empty} if no port is specified.
+     * @throws ExperimentExecutionException if the server cannot be started.
+     */
+    private Optional<MetricsServer> startMetricsServer(LaunchMetrics metrics, Logger logger)
+            throws ExperimentExecutionException {
+        if (!metricsPort.isPresent()) {
+            return Optional.empty();
+        }
+        try {
+            MetricsServer server = new MetricsServer(metrics, metricsPort.get());
+            logger.messageLogger()
+                    .logFormatted(
+                            "Serving metrics at http://localhost:%d%s%n",
+                            server.getPort(), MetricsServer.PATH);
+            return Optional.of(server);
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    String.format("Cannot serve metrics on port %d", metricsPort.get()), e);
+        }
+    }
+
+    /**
+     * Writes the time and resources used by each phase to a CSV file.
+     *
+     * <p>A failure to write is logged, rather than thrown, so it never hides the outcome of the
+     * experiment.
+     */
+    private static void writeTimingReport(PhaseRecorder phases, Path path, Logger logger) {
+        try {
+            phases.writeCsv(path);
+            logger.messageLogger().logFormatted("Wrote timing report to %s%n", path);
+        } catch (IOException e) {
+            logger.errorReporter().recordError(ExperimentExecutor.class, e);
+        }
+    }
+
     /**
      * Constructs a summary string to describe how the experiment is being executed.
      *
@@ -160,8 +433,15 @@ public class ExperimentExecutor {
      * @throws ExperimentExecutionException if an error occurs while describing the experiment
      */
     private String describe() throws ExperimentExecutionException {
+        String cacheUsage =
+                BeanXMLCache.describeUsage()
+                        .map(usage -> usage + System.lineSeparator())
+                        .orElse("");
         return String.format(
-                "%s%s%n", describeExperiment(), SelectPathDescriber.describe(input, output, task));
+                "%s%s%n%s",
+                describeExperiment(),
+                SelectPathDescriber.describe(input, output, task),
+                cacheUsage);
     }
 
     /**
@@ -14,10 +14,10 @@ import org.anchoranalysis.experiment.bean.task.Task;
 import org.anchoranalysis.experiment.io.ReplaceInputManager;
 import org.anchoranalysis.experiment.io.ReplaceOutputManager;
 import org.anchoranalysis.experiment.io.ReplaceTask;
-import org.anchoranalysis.feature.bean.RegisterFeatureBeanFactories;
 import org.anchoranalysis.io.input.InputFromManager;
 import org.anchoranalysis.io.input.bean.InputManager;
 import org.anchoranalysis.io.output.bean.OutputManager;
+import org.anchoranalysis.launcher.instrumentation.StartupProfiler;
 
 /*
  * #%L
@@ -66,11 +66,11 @@ class ExperimentExecutorAfter {
      */
     public ExperimentExecutorAfter(Path pathConfigurationDirectory)
             throws ExperimentExecutionException {
-        initializeIfNecessary(pathConfigurationDirectory, true, true);
+        initializeIfNecessary(pathConfigurationDirectory, true, true, true);
     }
 
     /**
-     * Initializes our factories if not already done.
+     * Initializes our factories if not already done, including all feature bean-factories.
      *
      * @param pathConfigurationDirectory a {@link Path} where configuration files are stored.
      * @param includeDefaultInstances if true, default instances are included.
@@ -82,35 +82,81 @@ class ExperimentExecutorAfter {
             boolean includeDefaultInstances,
             boolean includeRootPaths)
             throws ExperimentExecutionException {
+        initializeIfNecessary(
+                pathConfigurationDirectory, includeDefaultInstances, includeRootPaths, false);
+    }
+
+    /**
+     * Initializes our factories if not already done.
+     *
+     * @param pathConfigurationDirectory a {@link Path} where configuration files are stored.
+     * @param includeDefaultInstances if true, default instances are included.
+     * @param includeRootPaths if true, a root bank is sought among the configurations and loaded.
+     * @param lazyFeatureFactories if true, the feature bean-factories are only registered when
+     *     BeanXML is loaded that needs them, as per {@link LazyBeanFactories}. If false, they are
+     *     registered immediately.
+     * @throws ExperimentExecutionException if initialization fails
+     */
+    static void initializeIfNecessary(
+            Path pathConfigurationDirectory,
+            boolean includeDefaultInstances,
+            boolean includeRootPaths,
+            boolean lazyFeatureFactories)
+            throws ExperimentExecutionException {
         if (!RegisterBeanFactories.isCalledRegisterAllPackage()) {
 
             // We first register all bean-factories without any default instances, so we can load
             //  the default-instances from beans in a config-file
-            AnchorDefaultBeanFactory defaultFactory =
-                    RegisterBeanFactories.registerAllPackageBeanFactories();
-            RegisterFeatureBeanFactories.registerBeanFactories();
+            AnchorDefaultBeanFactory defaultFactory;
+            try (StartupProfiler.Phase phase = StartupProfiler.start("bean-factory registration")) {
+                defaultFactory = RegisterBeanFactories.registerAllPackageBeanFactories();
+            }
+
+            if (!lazyFeatureFactories) {
+                try (StartupProfiler.Phase phase =
+                        StartupProfiler.start("feature bean-factory registration")) {
+                    LazyBeanFactories.registerFeatureFactories();
+                }
+            }
 
             if (includeDefaultInstances) {
-                // After loading the defaults, we add them to the factory
-                defaultFactory
-                        .getDefaultInstances()
-                        .addFrom(
-                                HelperLoadAdditionalConfig.loadDefaultInstances(
-                                        pathConfigurationDirectory));
+                try (StartupProfiler.Phase phase =
+                        StartupProfiler.start("default-instance loading")) {
+                    // After loading the defaults, we add them to the factory
+                    defaultFactory
+                            .getDefaultInstances()
+                            .addFrom(
+                                    HelperLoadAdditionalConfig.loadDefaultInstances(
+                                            pathConfigurationDirectory));
+                }
             }
 
             if (includeRootPaths) {
-                HelperLoadAdditionalConfig.loadRootPaths(pathConfigurationDirectory);
+                try (StartupProfiler.Phase phase = StartupProfiler.start("root-path loading")) {
+                    HelperLoadAdditionalConfig.loadRootPaths(pathConfigurationDirectory);
+                }
             }
 
             if (!defaultExtensions.isPresent()) {
-                defaultExtensions =
-                        HelperLoadAdditionalConfig.loadDefaultExtensions(
-                                pathConfigurationDirectory);
+                try (StartupProfiler.Phase phase = StartupProfiler.start("extension loading")) {
+                    defaultExtensions =
+                            HelperLoadAdditionalConfig.loadDefaultExtensions(
+                                    pathConfigurationDirectory);
+                }
             }
         }
     }
 
+    /**
+     * The default file extensions for input filtering.
+     *
+     * @return the extensions, or {@link Optional#empty} if no defaults are defined, or they are not
+     *     yet loaded.
+     */
+    static Optional<StringSetTrie> defaultExtensions() {
+        return defaultExtensions;
+    }
+
     /**
      * Executes an experiment, possibly replacing the input and output manager
      *
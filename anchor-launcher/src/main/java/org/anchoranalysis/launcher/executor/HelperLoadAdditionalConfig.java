@@ -56,6 +56,9 @@ class HelperLoadAdditionalConfig {
     /** Filename (relative to anchor root) for default extensions. */
     private static final String DEFAULT_EXTENSIONS_FILENAME = "defaultInputExtensions.xml";
 
+    /** Directory (relative to anchor user subdirectory) for indices of searched inputs. */
+    private static final String INPUT_INDEX_DIRECTORY = "cache/inputIndex";
+
     /** Filename (relative to anchor root) for root path map. */
     private static final String ROOT_PATH_MAP_FILENAME = "rootPaths.xml";
 
@@ -124,7 +127,8 @@ class HelperLoadAdditionalConfig {
             throws ExperimentExecutionException {
         if (path.toFile().exists()) {
             try {
-                List<NamedBean<?>> listDefaults = BeanXMLLoader.loadBean(path, "bean");
+                List<NamedBean<?>> listDefaults =
+                        LazyBeanFactories.load(path, () -> BeanXMLLoader.loadBean(path, "bean"));
                 addToMap.addFrom(listDefaults);
 
             } catch (BeanXMLException | BeanMisconfiguredException e) {
@@ -178,6 +182,15 @@ class HelperLoadAdditionalConfig {
         }
     }
 
+    /**
+     * The default directory in which to store indices of searched input directories.
+     *
+     * @return the {@link Path} to the directory, which may not yet exist.
+     */
+    public static Path defaultInputIndexDirectory() {
+        return getAnchorUserDir().resolve(INPUT_INDEX_DIRECTORY);
+    }
+
     /**
      * Gets the Anchor user directory.
      *
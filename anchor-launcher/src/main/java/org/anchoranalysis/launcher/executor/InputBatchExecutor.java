@@ -0,0 +1,434 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.collection.StringSetTrie;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.experiment.arguments.ExecutionArguments;
+import org.anchoranalysis.experiment.bean.Experiment;
+import org.anchoranalysis.io.input.InputContextParameters;
+import org.anchoranalysis.launcher.executor.inputs.CompletionJournal;
+import org.anchoranalysis.launcher.executor.inputs.FileWalker;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputPrefetcher;
+import org.anchoranalysis.launcher.executor.inputs.InputSampler;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
+import org.anchoranalysis.launcher.executor.inputs.InputStreamer;
+import org.anchoranalysis.launcher.executor.inputs.MeasuredFileWalker;
+import org.anchoranalysis.launcher.executor.inputs.ShardSelector;
+import org.anchoranalysis.launcher.instrumentation.LaunchMetrics;
+import org.anchoranalysis.launcher.instrumentation.PhaseRecorder;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+
+/**
+ * Executes an experiment on inputs found by the launcher's own search, rather than the
+ * input-manager's.
+ *
+ * <p>The found inputs are assigned as explicit paths to the experiment. When streaming, the
+ * experiment is executed once for each batch of inputs, as soon as the batch is found. Each batch
+ * is therefore a separate execution of the experiment, and any outputs that aggregate across
+ * inputs are produced per batch.
+ *
+ * <p>Whenever the inputs may be executed in several executions (when streaming, resuming,
+ * queueing or within a memory budget), each execution writes its outputs to its own numbered
+ * subdirectory of the output directory, so none is overwritten. Without an output directory,
+ * this is not possible, and a warning is logged instead. See {@link ExecutionOutputs}.
+ *
+ * <p>When sharding, only inputs in the shard are executed, and how many are kept is logged as soon
+ * as the search completes.
+ *
+ * <p>When resuming, inputs are recorded as completed per batch, once the experiment completes on
+ * the batch without an exception. Errors that the experiment reports for an individual input,
+ * without failing the experiment, do not prevent the input being recorded.
+ *
+ * <p>When randomly sampling a ratio of inputs, each found input is kept or not as it is found. When
+ * sampling a fixed number, every found input is offered to a reservoir of bounded size, and the
+ * sample is executed once the search ends, in batches if streaming. Inputs already completed (when
+ * resuming) are removed only after sampling, so a resumed execution has the same sample. See
+ * {@link InputSampler}.
+ *
+ * <p>When a queue directory is specified, batches are instead shared with other processes via
+ * {@link QueuedBatchExecutor}.
+ *
+ * <p>When adapting the number of processors, it is chosen afresh for each batch, from the
+ * resources used by the previous batch. See {@link AdaptiveProcessors}.
+ *
+ * <p>When a memory budget applies, each batch is split into groups by the estimated size of its
+ * inputs, so large inputs are executed with fewer processors. See {@link MemoryAdmission}.
+ *
+ * <p>When an order is specified, the inputs of each batch are sorted into it, before executing the
+ * batch. Only when not streaming, is this the order across all inputs.
+ *
+ * <p>When prefetching, the inputs of each batch (and those already found for the following batch)
+ * are read ahead of their jobs, beyond those the jobs open as the batch starts. See {@link
+ * InputPrefetcher}.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+class InputBatchExecutor {
+
+    /** Executes the experiment for each batch. */
+    private final ExperimentExecutorAfter delegate;
+
+    /** How to search for inputs. */
+    private final InputEnumerationOptions options;
+
+    /** If present, the number of processors is adapted between these bounds, for each batch. */
+    private final Optional<ProcessorBounds> adaptiveProcessors;
+
+    /** If present, each batch is split into groups within this memory budget. */
+    private final Optional<MemoryBudget> memoryBudget;
+
+    /** Reports the progress of batches. */
+    private final Logger logger;
+
+    /** Whether to describe how the search used any cached information, once it completes. */
+    private final boolean detailedLogging;
+
+    /** Records the time and resources used by the search, and by each batch. */
+    private final PhaseRecorder phases;
+
+    /** Counts the batches and inputs that complete or fail, and those waiting. */
+    private final LaunchMetrics metrics;
+
+    /**
+     * Searches for inputs, and executes the experiment on them.
+     *
+     * @param search the search to perform.
+     * @param journal if present, inputs it records as completed are skipped, and the inputs of
+     *     each batch are recorded, once the experiment completes on the batch.
+     * @param experiment the experiment to execute for the first batch.
+     * @param experimentLoader loads the experiment afresh, for each subsequent batch.
+     * @param arguments the arguments for the experiment, whose input paths are replaced with each
+     *     batch.
+     * @param pathOutput if defined, a replacement output-manager as per {@link
+     *     ExperimentExecutorAfter#executeExperiment}.
+     * @param pathTask if defined, a replacement task as per {@link
+     *     ExperimentExecutorAfter#executeExperiment}.
+     * @param outputDirectory if present, the output directory specified on the command-line.
+     * @throws ExperimentExecutionException if the search fails, no inputs are found, or the
+     *     experiment fails.
+     */
+    public void execute(
+            InputSearch search,
+            Optional<CompletionJournal> journal,
+            Experiment experiment,
+            CheckedSupplier<Experiment, ExperimentExecutionException> experimentLoader,
+            ExecutionArguments arguments,
+            Optional<Path> pathOutput,
+            Optional<Path> pathTask,
+            Optional<Path> outputDirectory)
+            throws ExperimentExecutionException {
+
+        InputContextParameters parameters = arguments.inputContextParameters();
+        parameters.assignInputDirectory(Optional.of(search.getDirectory()));
+        // An empty set, means no filter check is applied, as the launcher has already filtered
+        parameters.assignInputFilterExtensions(new StringSetTrie());
+
+        if (journal.isPresent() && journal.get().numberCompleted() > 0) {
+            logger.messageLogger()
+                    .logFormatted(
+                            "Resuming: skipping %d inputs already completed, as recorded in %s%n",
+                            journal.get().numberCompleted(), journal.get().getPath());
+        }
+
+        Optional<ShardSelector> shard =
+                options.getShard()
+                        .map(selected -> new ShardSelector(search.getDirectory(), selected));
+
+        Optional<InputSampler> sampler =
+                options.getSample()
+                        .map(sample -> new InputSampler(search.getDirectory(), sample));
+        Optional<InputSampler> reservoir = sampler.filter(InputSampler::isFixedCount);
+        if (reservoir.isPresent() && options.getQueueDirectory().isPresent()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Sampling a number of inputs (-%s) cannot be combined with a queue (-%s), but a ratio of inputs can be sampled.",
+                            CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE,
+                            CommandLineOptions.SHORT_OPTION_INPUT_QUEUE));
+        }
+
+        Optional<InputPrefetcher> prefetcher = options.createPrefetcher();
+        BatchExecution execution =
+                new BatchExecution(
+                        delegate,
+                        experiment,
+                        experimentLoader,
+                        arguments,
+                        pathOutput,
+                        pathTask,
+                        journal,
+                        phases,
+                        metrics,
+                        prefetcher,
+                        adaptiveProcessors.map(
+                                bounds ->
+                                        new AdaptiveProcessors(bounds, logger.messageLogger())),
+                        memoryBudget.map(
+                                budget -> new MemoryAdmission(budget, logger.messageLogger())),
+                        separateOutputs(outputDirectory));
+
+        FileWalker walker =
+                options.createWalker(HelperLoadAdditionalConfig.defaultInputIndexDirectory());
+        FileWalker measured = new MeasuredFileWalker(walker, phases);
+
+        // Creates a streamer, which immediately starts searching
+        CheckedSupplier<InputStreamer, IOException> streamer =
+                () ->
+                        new InputStreamer(
+                                measured,
+                                search.getDirectory(),
+                                search.filter(ExperimentExecutorAfter.defaultExtensions()),
+                                createInclude(shard, journal, sampler),
+                                options.getQueueCapacity());
+        try {
+            if (options.getQueueDirectory().isPresent()) {
+                new QueuedBatchExecutor(options, logger, metrics)
+                        .execute(
+                                options.getQueueDirectory().get(),
+                                search.getDirectory(),
+                                streamer,
+                                execution::executeNamed,
+                                () -> logBalance(shard));
+            } else {
+                executeStreamed(search, streamer, execution, shard, journal, reservoir);
+            }
+            sampler.ifPresent(selected -> logger.messageLogger().log(selected.describeSample()));
+
+            if (detailedLogging) {
+                walker.describeUsage().ifPresent(logger.messageLogger()::log);
+                prefetcher.ifPresent(
+                        prefetch -> logger.messageLogger().log(prefetch.describeUsage()));
+            }
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    String.format("Cannot search for inputs in %s", search.getDirectory()), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExperimentExecutionException("Interrupted while searching for inputs", e);
+        } finally {
+            prefetcher.ifPresent(InputPrefetcher::close);
+        }
+    }
+
+    /**
+     * Where each execution writes its outputs, if the inputs may be executed in several
+     * executions.
+     */
+    private Optional<ExecutionOutputs> separateOutputs(Optional<Path> outputDirectory)
+            throws ExperimentExecutionException {
+        boolean severalExecutions =
+                options.isStreaming()
+                        || options.isResume()
+                        || options.getQueueDirectory().isPresent()
+                        || memoryBudget.isPresent();
+        if (!severalExecutions) {
+            return Optional.empty();
+        }
+        if (!outputDirectory.isPresent()) {
+            logger.messageLogger()
+                    .logFormatted(
+                            "WARNING: inputs may be executed in several separate executions of the experiment, and any outputs that aggregate across inputs are then produced (and possibly overwritten) for each execution. Specify an output directory with -%s, so that each execution writes to its own subdirectory.%n",
+                            CommandLineOptions.SHORT_OPTION_OUTPUT);
+            return Optional.empty();
+        }
+        try {
+            ExecutionOutputs outputs = new ExecutionOutputs(outputDirectory.get());
+            logger.messageLogger()
+                    .logFormatted(
+                            "Each execution of the experiment writes its outputs to its own subdirectory of %s, named %s followed by a number.%n",
+                            outputDirectory.get(), ExecutionOutputs.PREFIX);
+            return Optional.of(outputs);
+        } catch (IOException e) {
+            throw new ExperimentExecutionException(
+                    String.format("Cannot list the output directory %s", outputDirectory.get()),
+                    e);
+        }
+    }
+
+    /** Executes batches as they are found by a search in this process. */
+    private void executeStreamed(
+            InputSearch search,
+            CheckedSupplier<InputStreamer, IOException> createStreamer,
+            BatchExecution execution,
+            Optional<ShardSelector> shard,
+            Optional<CompletionJournal> journal,
+            Optional<InputSampler> reservoir)
+            throws ExperimentExecutionException, IOException, InterruptedException {
+
+        int batchSize = options.isStreaming() ? options.getBatchSize() : Integer.MAX_VALUE;
+        long lingerMillis = options.isStreaming() ? options.getLingerMillis() : Long.MAX_VALUE;
+
+        try (InputStreamer streamer = createStreamer.get()) {
+            metrics.assignInputsWaiting(streamer::numberBuffered);
+
+            // When sampling a fixed number, the sample is divided into batches once the search ends
+            Optional<Deque<List<Path>>> sampled = Optional.empty();
+            if (reservoir.isPresent()) {
+                sampled =
+                        Optional.of(sampleReservoir(streamer, reservoir.get(), journal, batchSize));
+            }
+            Optional<List<Path>> batch = nextBatch(streamer, sampled, batchSize, lingerMillis);
+            boolean balanceLogged = false;
+            if (!batch.isPresent()) {
+                logBalance(shard);
+                if (shard.isPresent()
+                        || (journal.isPresent() && journal.get().numberCompleted() > 0)) {
+                    // Not an error, as inputs may exist, but belong to other shards or be completed
+                    logger.messageLogger().log("No inputs remain to be executed.");
+                    return;
+                }
+                throw new ExperimentExecutionException(
+                        String.format("No inputs were found in %s", search.getDirectory()));
+            }
+
+            while (batch.isPresent()) {
+                if (!balanceLogged && streamer.isSearchEnded()) {
+                    // Logged as soon as known, which is before execution, unless streaming
+                    logBalance(shard);
+                    balanceLogged = true;
+                }
+                if (options.isStreaming()) {
+                    logger.messageLogger()
+                            .logFormatted(
+                                    "Executing batch %d with %d inputs.%n",
+                                    execution.numberExecuted() + 1, batch.get().size());
+                } else {
+                    // The entire search is a single batch, so it can be in a consistent order,
+                    // even if the search found files in no particular order.
+                    Collections.sort(batch.get());
+                }
+                if (options.getOrder().isPresent()) {
+                    options.getOrder().get().sort(batch.get());
+                }
+                // Inputs already found for the next batch may also be read ahead
+                execution.execute(
+                        batch.get(), streamer.peekBuffered(options.getPrefetchDepth()));
+                batch = nextBatch(streamer, sampled, batchSize, lingerMillis);
+            }
+
+            if (!balanceLogged) {
+                logBalance(shard);
+            }
+        }
+    }
+
+    /** The next batch, from the sample if sampling a fixed number, otherwise from the search. */
+    private static Optional<List<Path>> nextBatch(
+            InputStreamer streamer,
+            Optional<Deque<List<Path>>> sampled,
+            int batchSize,
+            long lingerMillis)
+            throws IOException, InterruptedException {
+        if (sampled.isPresent()) {
+            return Optional.ofNullable(sampled.get().pollFirst());
+        } else {
+            return streamer.nextBatch(batchSize, lingerMillis);
+        }
+    }
+
+    /**
+     * Offers every found input to a reservoir, and then takes the sample, without any inputs
+     * already completed, divided into batches.
+     *
+     * <p>Found inputs are taken as soon as they are available, at most as many as the streamer
+     * buffers, so memory is bounded by the sample size, not the number of inputs.
+     *
+     * <p>The sample is sorted by path before it is divided, so the batches are the same, whenever
+     * the same sample is taken.
+     */
+    private Deque<List<Path>> sampleReservoir(
+            InputStreamer streamer,
+            InputSampler reservoir,
+            Optional<CompletionJournal> journal,
+            int batchSize)
+            throws IOException, InterruptedException {
+        int maxSize = options.getQueueCapacity();
+        Optional<List<Path>> found = streamer.nextBatch(maxSize, 0);
+        while (found.isPresent()) {
+            found.get().forEach(reservoir::offer);
+            found = streamer.nextBatch(maxSize, 0);
+        }
+        List<Path> sample = reservoir.takeReservoir();
+        if (journal.isPresent()) {
+            sample.removeIf(journal.get()::isCompleted);
+        }
+        Collections.sort(sample);
+
+        Deque<List<Path>> batches = new ArrayDeque<>();
+        int start = 0;
+        while (start < sample.size()) {
+            // Without streaming, the batch-size is the maximum integer, so cannot be added
+            int end = start + Math.min(batchSize, sample.size() - start);
+            batches.add(new ArrayList<>(sample.subList(start, end)));
+            start = end;
+        }
+        return batches;
+    }
+
+    /**
+     * Which found inputs to execute, as per any shard, journal or sample of a ratio.
+     *
+     * <p>When sampling a fixed number, completed inputs are instead removed after sampling.
+     */
+    private static Predicate<Path> createInclude(
+            Optional<ShardSelector> shard,
+            Optional<CompletionJournal> journal,
+            Optional<InputSampler> sampler) {
+        Predicate<Path> include = path -> true;
+        if (shard.isPresent()) {
+            include = include.and(shard.get());
+        }
+        if (sampler.isPresent()) {
+            if (sampler.get().isFixedCount()) {
+                return include;
+            }
+            include = include.and(sampler.get());
+        }
+        if (journal.isPresent()) {
+            include = include.and(path -> !journal.get().isCompleted(path));
+        }
+        return include;
+    }
+
+    /** Logs how many inputs the shard kept, if sharding. */
+    private void logBalance(Optional<ShardSelector> shard) {
+        shard.ifPresent(selector -> logger.messageLogger().log(selector.describeBalance()));
+    }
+}
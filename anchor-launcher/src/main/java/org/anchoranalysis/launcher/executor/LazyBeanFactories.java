@@ -0,0 +1,148 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.bean.xml.exception.BeanXMLException;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.anchoranalysis.feature.bean.RegisterFeatureBeanFactories;
+
+/**
+ * Registers the feature bean-factories only when BeanXML is loaded that needs them.
+ *
+ * <p>The package bean-factories are always registered, as they are needed for any {@code
+ * config-class}, but many tasks (e.g. {@code summarize/paths}) never reference a feature.
+ *
+ * <p>Before BeanXML is loaded, it (and its includes) is scanned for references to features. If any
+ * exist, or the scan fails, the feature bean-factories are registered. If loading nevertheless
+ * fails due to an unknown bean-factory, they are registered and loading is attempted a second
+ * time. Any other failure is reported as it occurred, without loading again.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+class LazyBeanFactories {
+
+    /** A factory or class whose name contains this string, is assumed to need feature factories. */
+    private static final String FEATURE_NAME = "feature";
+
+    /**
+     * The start of the message, when BeanXML references a bean-factory that is not registered.
+     *
+     * <p>This is the message of the {@code ConfigurationRuntimeException} thrown by Apache Commons
+     * Configuration, which is wrapped in the {@link BeanXMLException}.
+     */
+    private static final String UNKNOWN_FACTORY_MESSAGE = "Unknown bean factory";
+
+    /** Registers the feature bean-factories, for the lifetime of the process. */
+    private static final LazyBeanFactories INSTANCE =
+            new LazyBeanFactories(RegisterFeatureBeanFactories::registerBeanFactories);
+
+    /** Registers the feature bean-factories. */
+    private final Runnable registration;
+
+    /** Whether the feature bean-factories have been registered. */
+    private boolean registered = false;
+
+    /** Registers the feature bean-factories, if not already registered. */
+    public static void registerFeatureFactories() {
+        INSTANCE.register();
+    }
+
+    /**
+     * Loads a bean from BeanXML, first registering any bean-factories it needs.
+     *
+     * @param <T> the type of bean.
+     * @param path the path to the BeanXML.
+     * @param loader loads the bean from {@code path}.
+     * @return the loaded bean.
+     * @throws BeanXMLException if thrown by {@code loader}, after all bean-factories are
+     *     registered, or if it fails for any reason other than an unknown bean-factory.
+     */
+    public static <T> T load(Path path, CheckedSupplier<T, BeanXMLException> loader)
+            throws BeanXMLException {
+        return INSTANCE.loadRegistering(path, loader);
+    }
+
+    /**
+     * Whether an exception, or any of its causes, reports a bean-factory that is not registered.
+     *
+     * @param exception the exception.
+     * @return true if the exception, or any cause, has a message reporting an unknown
+     *     bean-factory.
+     */
+    static boolean isUnknownFactory(Throwable exception) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            String message = cause.getMessage();
+            if (message != null && message.startsWith(UNKNOWN_FACTORY_MESSAGE)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Registers the feature bean-factories, if not already registered. */
+    synchronized void register() {
+        if (!registered) {
+            registration.run();
+            registered = true;
+        }
+    }
+
+    /** Like {@link #load}, but registering with this instance. */
+    <T> T loadRegistering(Path path, CheckedSupplier<T, BeanXMLException> loader)
+            throws BeanXMLException {
+        if (!isRegistered()) {
+            Optional<BeanXMLReferences> references = BeanXMLReferences.scan(path);
+            if (!references.isPresent() || references.get().referencesName(FEATURE_NAME)) {
+                register();
+            }
+        }
+
+        try {
+            return loader.get();
+        } catch (BeanXMLException e) {
+            if (isRegistered() || !isUnknownFactory(e)) {
+                throw e;
+            }
+            // Fallback to full registration, in case a factory was missed in the scan
+            register();
+            return loader.get();
+        }
+    }
+
+    /**
+     * Whether the feature bean-factories have been registered.
+     *
+     * @return true if they have been registered.
+     */
+    synchronized boolean isRegistered() {
+        return registered;
+    }
+}
@@ -0,0 +1,157 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import lombok.Value;
+import org.anchoranalysis.core.log.MessageLogger;
+import org.anchoranalysis.launcher.executor.inputs.FootprintEstimator;
+
+/**
+ * Splits a batch of inputs into groups, each executed with as many processors as the memory
+ * budget admits for its largest input.
+ *
+ * <p>The launcher cannot admit individual jobs, as the number of processors is fixed for each
+ * execution of the experiment. Instead, each input's decoded size is estimated (see {@link
+ * FootprintEstimator}), and the number of processors it admits is the budget divided by its size.
+ * Inputs are grouped by this number, rounded down to a power of two (or the maximum), so large
+ * inputs are executed alongside fewer others, and a batch is split into only a few groups.
+ *
+ * <p>An input larger than the entire budget is executed with a single processor.
+ *
+ * <p>Groups are executed in the order their first input occurs in the batch, so any requested
+ * order of inputs (e.g. the largest first) is preserved, as far as grouping permits.
+ *
+ * <p>A batch is only split if some input admits fewer than the maximum number of processors. Each
+ * group is then a separate execution, writing its outputs to its own subdirectory (see {@link
+ * ExecutionOutputs}).
+ *
+ * @author Owen Feehan
+ */
+class MemoryAdmission {
+
+    /** A group of inputs, to be executed together. */
+    @Value
+    static class Group {
+
+        /** The number of processors to execute the inputs with. */
+        private int processors;
+
+        /** The inputs, in the order they occurred in the batch. */
+        private List<Path> inputs;
+    }
+
+    /** The memory budget. */
+    private final MemoryBudget budget;
+
+    /** Where to report how a batch is split. */
+    private final MessageLogger logger;
+
+    /**
+     * Creates with a budget.
+     *
+     * @param budget the memory budget.
+     * @param logger where to report how a batch is split.
+     */
+    public MemoryAdmission(MemoryBudget budget, MessageLogger logger) {
+        this.budget = budget;
+        this.logger = logger;
+    }
+
+    /**
+     * Splits a batch into groups.
+     *
+     * @param batch the inputs.
+     * @param maxProcessors the maximum number of processors for any group, which if adapting the
+     *     number of processors, may be fewer than the budget's maximum.
+     * @return the groups, in the order their first input occurs in {@code batch}.
+     */
+    public List<Group> partition(List<Path> batch, int maxProcessors) {
+        int max = Math.min(maxProcessors, budget.getMaxProcessors());
+        List<Group> groups =
+                partition(batch, FootprintEstimator::estimate, budget.getBytes(), max);
+        if (groups.stream().anyMatch(group -> group.getProcessors() < max)) {
+            logger.logFormatted(
+                    "Splitting %d inputs into groups within the memory budget of %s: %s.%n",
+                    batch.size(),
+                    budget,
+                    groups.stream()
+                            .map(
+                                    group ->
+                                            String.format(
+                                                    "%d inputs with %d processors",
+                                                    group.getInputs().size(),
+                                                    group.getProcessors()))
+                            .collect(Collectors.joining(", ")));
+        }
+        return groups;
+    }
+
+    /**
+     * Splits a batch into groups, given the size of each input.
+     *
+     * @param batch the inputs, which should be non-empty.
+     * @param footprint the estimated size in bytes of an input.
+     * @param budgetBytes the maximum total size of inputs executed concurrently.
+     * @param maxProcessors the maximum number of processors for any group.
+     * @return the groups, in the order their first input occurs in {@code batch}.
+     */
+    static List<Group> partition(
+            List<Path> batch, ToLongFunction<Path> footprint, long budgetBytes, int maxProcessors) {
+        // Insertion-ordered, so groups follow the order of inputs in the batch
+        Map<Integer, List<Path>> byProcessors = new LinkedHashMap<>();
+        for (Path input : batch) {
+            int processors = admissible(footprint.applyAsLong(input), budgetBytes, maxProcessors);
+            byProcessors.computeIfAbsent(processors, key -> new ArrayList<>()).add(input);
+        }
+        return byProcessors.entrySet().stream()
+                .map(entry -> new Group(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The number of processors admitted by the budget, for inputs of a particular size.
+     *
+     * @param footprint the estimated size in bytes of the largest input.
+     * @param budgetBytes the maximum total size of inputs executed concurrently.
+     * @param maxProcessors the maximum number of processors.
+     * @return the number of processors, between one and {@code maxProcessors}, which is either
+     *     {@code maxProcessors} or a power of two.
+     */
+    static int admissible(long footprint, long budgetBytes, int maxProcessors) {
+        long admitted = footprint > 0 ? budgetBytes / footprint : maxProcessors;
+        if (admitted >= maxProcessors) {
+            return maxProcessors;
+        }
+        return Integer.highestOneBit((int) Math.max(1, admitted));
+    }
+}
@@ -0,0 +1,87 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.util.Locale;
+import lombok.Value;
+
+/**
+ * A limit on the estimated memory used by the inputs of concurrently executing jobs.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class MemoryBudget {
+
+    /** The suffixes that may follow a size, each 1024 times larger than the previous. */
+    private static final String SUFFIXES = "KMGT";
+
+    /** The maximum total estimated size, in bytes, of the inputs of concurrent jobs. */
+    private long bytes;
+
+    /** The maximum number of processors, which is used for inputs that are small enough. */
+    private int maxProcessors;
+
+    /**
+     * Creates from text of the form {@code 40G}, {@code 512M} etc.
+     *
+     * @param text a positive number, optionally followed by one of the suffixes {@code K}, {@code
+     *     M}, {@code G} or {@code T} (ignoring case), otherwise bytes.
+     * @param maxProcessors the maximum number of processors, which is used for inputs that are
+     *     small enough.
+     * @return the parsed budget.
+     * @throws IllegalArgumentException if the text is not a positive number with an optional
+     *     suffix.
+     */
+    public static MemoryBudget parse(String text, int maxProcessors) {
+        String trimmed = text.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        if (!trimmed.isEmpty()) {
+            int suffix = SUFFIXES.indexOf(trimmed.charAt(trimmed.length() - 1));
+            if (suffix >= 0) {
+                multiplier = 1L << (10 * (suffix + 1));
+                trimmed = trimmed.substring(0, trimmed.length() - 1);
+            }
+        }
+        try {
+            double number = Double.parseDouble(trimmed);
+            if (number > 0 && Double.isFinite(number)) {
+                return new MemoryBudget((long) (number * multiplier), maxProcessors);
+            }
+        } catch (NumberFormatException e) {
+            // Handled below
+        }
+        throw new IllegalArgumentException(
+                String.format(
+                        "A memory budget must be a positive number, optionally followed by K, M, G or T, but is %s",
+                        text));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d MB", bytes / (1024 * 1024));
+    }
+}
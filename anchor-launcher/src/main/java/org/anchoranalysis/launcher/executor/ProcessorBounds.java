@@ -0,0 +1,112 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import lombok.Value;
+
+/**
+ * The minimum and maximum number of processors, between which the number is adapted at runtime.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class ProcessorBounds {
+
+    /** The keyword that selects adapting the number of processors. */
+    public static final String AUTO = "auto";
+
+    /** Separates the keyword from the bounds, when described as text. */
+    private static final String SEPARATOR_KEYWORD = ":";
+
+    /** Separates the minimum and maximum, when described as text. */
+    private static final String SEPARATOR_BOUNDS = "-";
+
+    /** The minimum number of processors, at least one. */
+    private int min;
+
+    /** The maximum number of processors, at least {@code min}. */
+    private int max;
+
+    /**
+     * Whether text selects adapting the number of processors.
+     *
+     * @param text the text, as passed to the command-line option.
+     * @return true if the text begins with {@value #AUTO}.
+     */
+    public static boolean isAuto(String text) {
+        return text.startsWith(AUTO);
+    }
+
+    /**
+     * Creates from text of the form {@code auto} or {@code auto:min-max}.
+     *
+     * @param text the text to parse.
+     * @param availableProcessors the number of available processors, which is the maximum if no
+     *     bounds are specified.
+     * @return the parsed bounds.
+     * @throws IllegalArgumentException if the text is not of the form {@code auto} or {@code
+     *     auto:min-max} where {@code 1 <= min <= max}.
+     */
+    public static ProcessorBounds parse(String text, int availableProcessors) {
+        if (text.equals(AUTO)) {
+            return new ProcessorBounds(1, availableProcessors);
+        }
+        String prefix = AUTO + SEPARATOR_KEYWORD;
+        if (text.startsWith(prefix)) {
+            String[] parts = text.substring(prefix.length()).split(SEPARATOR_BOUNDS, -1);
+            if (parts.length == 2) {
+                try {
+                    int min = Integer.parseInt(parts[0].trim());
+                    int max = Integer.parseInt(parts[1].trim());
+                    if (min >= 1 && min <= max) {
+                        return new ProcessorBounds(min, max);
+                    }
+                } catch (NumberFormatException e) {
+                    // Handled below
+                }
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format(
+                        "Adapting processors must be specified as %s or %s:min-max, where 1 <= min <= max, but is %s",
+                        AUTO, AUTO, text));
+    }
+
+    /**
+     * The closest number of processors within the bounds.
+     *
+     * @param number the number of processors.
+     * @return {@code number} if within the bounds, otherwise the nearest bound.
+     */
+    public int clamp(int number) {
+        return Math.max(min, Math.min(max, number));
+    }
+
+    @Override
+    public String toString() {
+        return min + SEPARATOR_BOUNDS + max;
+    }
+}
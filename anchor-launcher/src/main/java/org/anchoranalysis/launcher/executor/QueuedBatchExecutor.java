@@ -0,0 +1,309 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputQueue;
+import org.anchoranalysis.launcher.executor.inputs.InputQueue.ClaimedBatch;
+import org.anchoranalysis.launcher.executor.inputs.InputStreamer;
+import org.anchoranalysis.launcher.instrumentation.LaunchMetrics;
+
+/**
+ * Executes batches of inputs claimed from an {@link InputQueue} shared with other processes.
+ *
+ * <p>Only one process (the populator) searches for inputs, adding batches to the queue as they are
+ * found, in a background thread. Every process, including the populator, claims and executes
+ * batches until the queue is exhausted.
+ *
+ * <p>If the populator stops searching before every batch is added, because its own batch failed or
+ * it was interrupted, it marks the search as failed, so other processes stop waiting. If it is
+ * killed instead, other processes stop waiting when its heartbeat has not changed for {@link
+ * #DEFAULT_STALE_MILLISECONDS}.
+ *
+ * <p>A queue whose batches were all executed by an earlier run is rejected, as it would otherwise
+ * silently execute nothing.
+ *
+ * @author Owen Feehan
+ */
+class QueuedBatchExecutor {
+
+    /** Executes a batch claimed from the queue. */
+    @FunctionalInterface
+    interface ClaimedExecution {
+
+        /**
+         * Executes the experiment on the inputs of a claimed batch.
+         *
+         * @param inputs the inputs.
+         * @param name the name of the batch, which is unique in the queue.
+         * @throws ExperimentExecutionException if the experiment fails.
+         */
+        void execute(List<Path> inputs, String name) throws ExperimentExecutionException;
+    }
+
+    /** How long to wait before checking again for a pending batch, if none is available. */
+    private static final long POLL_MILLISECONDS = 500;
+
+    /** How often the populator rewrites its heartbeat, while searching. */
+    private static final long HEARTBEAT_MILLISECONDS = 10000;
+
+    /** How long the populator's heartbeat may remain unchanged, before it is assumed stopped. */
+    static final long DEFAULT_STALE_MILLISECONDS = 300000;
+
+    /** How to search for inputs. */
+    private final InputEnumerationOptions options;
+
+    /** Reports the progress of batches. */
+    private final Logger logger;
+
+    /** Counts the batches pending in the queue. */
+    private final LaunchMetrics metrics;
+
+    /** How long the populator's heartbeat may remain unchanged, before it is assumed stopped. */
+    private final long staleMilliseconds;
+
+    /**
+     * Creates with the default time for the populator's heartbeat to become stale.
+     *
+     * @param options how to search for inputs.
+     * @param logger reports the progress of batches.
+     * @param metrics counts the batches pending in the queue.
+     */
+    public QueuedBatchExecutor(
+            InputEnumerationOptions options, Logger logger, LaunchMetrics metrics) {
+        this(options, logger, metrics, DEFAULT_STALE_MILLISECONDS);
+    }
+
+    /**
+     * Creates with a particular time for the populator's heartbeat to become stale.
+     *
+     * @param options how to search for inputs.
+     * @param logger reports the progress of batches.
+     * @param metrics counts the batches pending in the queue.
+     * @param staleMilliseconds how long the populator's heartbeat may remain unchanged, before it
+     *     is assumed stopped.
+     */
+    QueuedBatchExecutor(
+            InputEnumerationOptions options,
+            Logger logger,
+            LaunchMetrics metrics,
+            long staleMilliseconds) {
+        this.options = options;
+        this.logger = logger;
+        this.metrics = metrics;
+        this.staleMilliseconds = staleMilliseconds;
+    }
+
+    /**
+     * Claims and executes batches until the queue is exhausted.
+     *
+     * @param queueDirectory the directory shared with other processes.
+     * @param searched the directory that is searched for inputs.
+     * @param createStreamer creates a streamer that searches for inputs, if this process becomes
+     *     the populator.
+     * @param execution executes each claimed batch.
+     * @param afterPopulation called after this process has populated the queue, if it is the
+     *     populator.
+     * @return the number of batches this process executed.
+     * @throws ExperimentExecutionException if the experiment fails on a batch, or every batch in
+     *     the queue was already executed by an earlier run.
+     * @throws IOException if the queue cannot be read or written, the search for inputs fails, or
+     *     the populator appears to have stopped.
+     * @throws InterruptedException if interrupted while waiting for a batch.
+     */
+    public int execute(
+            Path queueDirectory,
+            Path searched,
+            CheckedSupplier<InputStreamer, IOException> createStreamer,
+            ClaimedExecution execution,
+            Runnable afterPopulation)
+            throws ExperimentExecutionException, IOException, InterruptedException {
+        InputQueue queue = new InputQueue(queueDirectory, InputQueue.identifyCurrentProcess());
+        if (queue.isCompleted()) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "Every batch in the queue in %s was already executed by an earlier run. Delete the directory, or specify another, to execute again.",
+                            queueDirectory));
+        }
+        metrics.assignQueuedBatchesPending(queue::numberPending);
+
+        Optional<Thread> populator = Optional.empty();
+        ScheduledExecutorService heartbeat =
+                Executors.newSingleThreadScheduledExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "anchor-queue-heartbeat");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        if (queue.tryBecomePopulator()) {
+            logger.messageLogger()
+                    .logFormatted(
+                            "Searching for inputs, and adding them to the queue in %s%n",
+                            queueDirectory);
+            heartbeat.scheduleAtFixedRate(
+                    () -> beat(queue), 0, HEARTBEAT_MILLISECONDS, TimeUnit.MILLISECONDS);
+            Thread thread =
+                    new Thread(
+                            () -> {
+                                populate(queue, searched, createStreamer, afterPopulation);
+                                heartbeat.shutdownNow();
+                            },
+                            "anchor-queue-populator");
+            thread.setDaemon(true);
+            thread.start();
+            populator = Optional.of(thread);
+        } else {
+            logger.messageLogger()
+                    .logFormatted(
+                            "Claiming inputs from the queue in %s, populated by another process.%n",
+                            queueDirectory);
+        }
+
+        int numberExecuted;
+        try {
+            numberExecuted = claimAndExecute(queue, searched, execution);
+        } finally {
+            if (populator.isPresent()) {
+                // If still searching, the populator marks the search as failed
+                populator.get().interrupt();
+                populator.get().join();
+            }
+            heartbeat.shutdownNow();
+        }
+        logger.messageLogger()
+                .logFormatted(
+                        "Executed %d batches from the queue, as %s.%n",
+                        numberExecuted, queue.getWorkerIdentifier());
+        return numberExecuted;
+    }
+
+    private int claimAndExecute(InputQueue queue, Path searched, ClaimedExecution execution)
+            throws ExperimentExecutionException, IOException, InterruptedException {
+        int numberExecuted = 0;
+        while (true) {
+            Optional<ClaimedBatch> claimed = queue.claim(searched);
+            if (claimed.isPresent()) {
+                logger.messageLogger()
+                        .logFormatted(
+                                "Executing queued batch %s with %d inputs.%n",
+                                claimed.get().getName(), claimed.get().getInputs().size());
+                if (options.getOrder().isPresent()) {
+                    options.getOrder().get().sort(claimed.get().getInputs());
+                }
+                try {
+                    execution.execute(
+                            claimed.get().getInputs(), claimed.get().nameWithoutExtension());
+                } catch (ExperimentExecutionException e) {
+                    queue.fail(claimed.get());
+                    throw e;
+                }
+                queue.complete(claimed.get());
+                numberExecuted++;
+            } else if (queue.isExhausted()) {
+                return numberExecuted;
+            } else if (queue.isPopulatorStalled(staleMilliseconds)) {
+                throw new IOException(
+                        String.format(
+                                "The process populating the queue in %s has not signalled for %d seconds, so it appears to have stopped, before adding every batch.",
+                                queue.getDirectory(),
+                                TimeUnit.MILLISECONDS.toSeconds(staleMilliseconds)));
+            } else {
+                Thread.sleep(POLL_MILLISECONDS);
+            }
+        }
+    }
+
+    /** Searches for inputs, adding batches to the queue as they are found. */
+    private void populate(
+            InputQueue queue,
+            Path searched,
+            CheckedSupplier<InputStreamer, IOException> createStreamer,
+            Runnable afterPopulation) {
+        try {
+            try (InputStreamer streamer = createStreamer.get()) {
+                Optional<List<Path>> batch = nextBatch(streamer);
+                while (batch.isPresent()) {
+                    queue.add(searched, batch.get());
+                    batch = nextBatch(streamer);
+                }
+            }
+            queue.markPopulated();
+            afterPopulation.run();
+        } catch (IOException | RuntimeException e) { // NOSONAR
+            // Any failure must be marked, otherwise other processes wait indefinitely
+            markFailed(queue, e.toString());
+        } catch (InterruptedException e) {
+            // Stopped as this process is no longer claiming batches, e.g. as its own batch failed.
+            // Marked, otherwise other processes wait for batches that are never added.
+            markFailed(
+                    queue,
+                    String.format(
+                            "The search was stopped by %s, before every batch was added",
+                            queue.getWorkerIdentifier()));
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Optional<List<Path>> nextBatch(InputStreamer streamer)
+            throws IOException, InterruptedException {
+        return streamer.nextBatch(options.getQueueBatchSize(), options.getLingerMillis());
+    }
+
+    private void beat(InputQueue queue) {
+        try {
+            queue.heartbeat();
+        } catch (IOException e) {
+            // Writing fails when interrupted, as the heartbeat stops, which is not an error
+            if (!Thread.currentThread().isInterrupted()) {
+                logger.errorReporter().recordError(QueuedBatchExecutor.class, e);
+            }
+        }
+    }
+
+    private void markFailed(InputQueue queue, String message) {
+        // Cleared while writing, as an interrupted thread cannot write via a channel
+        boolean interrupted = Thread.interrupted();
+        try {
+            queue.markPopulationFailed(message);
+        } catch (IOException e) {
+            logger.errorReporter().recordError(QueuedBatchExecutor.class, e);
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Records which inputs an experiment has completed, so an interrupted run can be resumed.
+ *
+ * <p>The journal is a text file. Its first line identifies (via a hash) the run it refers to e.g.
+ * the experiment, inputs, outputs and task, and every subsequent line is the path of a completed
+ * input. Paths are
+ * appended, and synchronized to the storage device, as soon as inputs complete, so the journal
+ * survives the process being killed.
+ *
+ * <p>If the first line does not match, the journal refers to a different run, and is replaced.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class CompletionJournal {
+
+    /** The name of the journal file, hidden so it is never found as an input. */
+    public static final String FILENAME = ".anchorCompletionJournal";
+
+    private static final String HEADER_PREFIX = "# anchor completion journal: ";
+
+    /** Algorithm used to hash the description of the run. */
+    private static final String KEY_ALGORITHM = "SHA-256";
+
+    /** Where the journal is stored. */
+    @Getter private final Path path;
+
+    /** Inputs already completed, as absolute normalized paths. */
+    private final Set<Path> completed;
+
+    /**
+     * Opens the journal in a directory, creating or replacing it, if it refers to a different run.
+     *
+     * @param directory the directory to store the journal in, which is created if necessary.
+     * @param run describes the run, so only inputs completed by an identical run are skipped.
+     * @return the opened journal.
+     * @throws IOException if the journal cannot be read or created.
+     */
+    public static CompletionJournal open(Path directory, String run) throws IOException {
+        Path path = directory.resolve(FILENAME);
+        String header = HEADER_PREFIX + hash(run);
+        // Concurrent, as inputs may be checked by several searching threads
+        Set<Path> completed = ConcurrentHashMap.newKeySet();
+        if (path.toFile().exists()) {
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (!lines.isEmpty() && lines.get(0).equals(header)) {
+                for (String line : lines.subList(1, lines.size())) {
+                    if (!line.isEmpty()) {
+                        completed.add(Path.of(line));
+                    }
+                }
+                return new CompletionJournal(path, completed);
+            }
+        }
+        Files.createDirectories(directory);
+        Files.write(path, List.of(header), StandardCharsets.UTF_8);
+        return new CompletionJournal(path, completed);
+    }
+
+    /**
+     * Whether an input was already completed.
+     *
+     * @param input the path of the input.
+     * @return true if the journal records {@code input} as completed.
+     */
+    public boolean isCompleted(Path input) {
+        return completed.contains(normalize(input));
+    }
+
+    /**
+     * The number of inputs recorded as completed.
+     *
+     * @return the number of inputs.
+     */
+    public int numberCompleted() {
+        return completed.size();
+    }
+
+    /**
+     * Records inputs as completed.
+     *
+     * @param inputs the paths of the completed inputs.
+     * @throws IOException if the journal cannot be written.
+     */
+    public void recordCompleted(List<Path> inputs) throws IOException {
+        try (BufferedWriter writer =
+                Files.newBufferedWriter(
+                        path,
+                        StandardCharsets.UTF_8,
+                        StandardOpenOption.APPEND,
+                        StandardOpenOption.DSYNC)) {
+            for (Path input : inputs) {
+                Path normalized = normalize(input);
+                writer.write(normalized.toString());
+                writer.newLine();
+                completed.add(normalized);
+            }
+        }
+    }
+
+    private static String hash(String run) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(KEY_ALGORITHM);
+            return HexFormat.of().formatHex(digest.digest(run.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(KEY_ALGORITHM + " should always be available", e);
+        }
+    }
+
+    private static Path normalize(Path input) {
+        return input.toAbsolutePath().normalize();
+    }
+}
@@ -0,0 +1,68 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.anchoranalysis.core.functional.checked.CheckedConsumer;
+
+/**
+ * Recursively searches a directory for files accepted by a {@link InputFilter}.
+ *
+ * <p>Subdirectories that cannot be read are skipped.
+ *
+ * @author Owen Feehan
+ */
+public interface FileWalker {
+
+    /**
+     * Searches {@code directory}, passing each accepted file to {@code consumer} as it is found.
+     *
+     * @param directory the directory to search.
+     * @param filter which files to accept, and which subdirectories to search.
+     * @param consumer called with the path of each accepted file, as resolved against {@code
+     *     directory}. Depending on the implementation, it may be called concurrently from several
+     *     threads, and in no particular order.
+     * @throws IOException if {@code directory} itself cannot be read.
+     * @throws InterruptedException if interrupted, including by {@code consumer}.
+     */
+    void walk(
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer)
+            throws IOException, InterruptedException;
+
+    /**
+     * Describes how the most recent search used any cached information, if at all.
+     *
+     * @return a description, suitable to show with other arguments, or {@link Optional#empty} if no
+     *     cached information is used.
+     */
+    default Optional<String> describeUsage() {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,262 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Estimates how much memory an input occupies when decoded, without decoding it.
+ *
+ * <p>For PNG, JPEG and (classic) TIFF files, the dimensions, channels and bit-depth are read from
+ * the header, which requires reading only a few small blocks. For a TIFF, every page (IFD) is
+ * assumed to be as large as the first. For any other file, or if the header cannot be understood,
+ * the file-size is multiplied by {@link #FALLBACK_EXPANSION}.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class FootprintEstimator {
+
+    /**
+     * How much larger a decoded input is assumed to be than its file, when its header cannot be
+     * understood, which is conservative for most compressed formats.
+     */
+    public static final int FALLBACK_EXPANSION = 4;
+
+    /** The maximum number of TIFF pages counted, so a corrupt chain of pages cannot loop. */
+    private static final int MAX_TIFF_PAGES = 100000;
+
+    private static final int TIFF_TAG_WIDTH = 256;
+    private static final int TIFF_TAG_HEIGHT = 257;
+    private static final int TIFF_TAG_BITS_PER_SAMPLE = 258;
+    private static final int TIFF_TAG_SAMPLES_PER_PIXEL = 277;
+
+    private static final int TIFF_TYPE_SHORT = 3;
+
+    /**
+     * Estimates the decoded size of an input.
+     *
+     * @param input the path to the input.
+     * @return the estimated size in bytes, which is zero if the file cannot be read.
+     */
+    public static long estimate(Path input) {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            ByteBuffer start = read(channel, 0, 16);
+            Optional<Long> fromHeader;
+            if (isPng(start)) {
+                fromHeader = estimatePng(channel);
+            } else if (isJpeg(start)) {
+                fromHeader = estimateJpeg(channel);
+            } else if (isTiff(start)) {
+                fromHeader = estimateTiff(start, channel);
+            } else {
+                fromHeader = Optional.empty();
+            }
+            return fromHeader.orElse(channel.size() * FALLBACK_EXPANSION);
+        } catch (IOException | RuntimeException e) { // NOSONAR
+            // A malformed header can cause a buffer exception, so falls back to the file-size
+            return fallback(input);
+        }
+    }
+
+    private static boolean isPng(ByteBuffer start) {
+        return start.limit() >= 8 && start.getInt(0) == 0x89504E47 && start.getInt(4) == 0x0D0A1A0A;
+    }
+
+    private static boolean isJpeg(ByteBuffer start) {
+        return start.limit() >= 2 && (start.getShort(0) & 0xFFFF) == 0xFFD8;
+    }
+
+    private static boolean isTiff(ByteBuffer start) {
+        if (start.limit() < 8) {
+            return false;
+        }
+        int order = start.getShort(0) & 0xFFFF;
+        return order == 0x4949 || order == 0x4D4D;
+    }
+
+    /** From the IHDR chunk, which always immediately follows the signature. */
+    private static Optional<Long> estimatePng(FileChannel channel) throws IOException {
+        ByteBuffer header = read(channel, 16, 10);
+        long width = header.getInt(0) & 0xFFFFFFFFL;
+        long height = header.getInt(4) & 0xFFFFFFFFL;
+        int bitDepth = header.get(8);
+        int channels;
+        switch (header.get(9)) {
+            case 0:
+                channels = 1;
+                break;
+            case 4:
+                channels = 2;
+                break;
+            case 6:
+                channels = 4;
+                break;
+            default:
+                // RGB, or a palette which is decoded to RGB
+                channels = 3;
+        }
+        return Optional.of(width * height * channels * bytesPerSample(bitDepth));
+    }
+
+    /** From the first start-of-frame segment. */
+    private static Optional<Long> estimateJpeg(FileChannel channel) throws IOException {
+        long position = 2;
+        while (position + 4 <= channel.size()) {
+            ByteBuffer marker = read(channel, position, 4);
+            if ((marker.get(0) & 0xFF) != 0xFF) {
+                return Optional.empty();
+            }
+            int type = marker.get(1) & 0xFF;
+            int length = marker.getShort(2) & 0xFFFF;
+            if (isStartOfFrame(type)) {
+                ByteBuffer frame = read(channel, position + 4, 6);
+                int precision = frame.get(0) & 0xFF;
+                long height = frame.getShort(1) & 0xFFFF;
+                long width = frame.getShort(3) & 0xFFFF;
+                int components = frame.get(5) & 0xFF;
+                return Optional.of(width * height * components * bytesPerSample(precision));
+            }
+            position += 2 + length;
+        }
+        return Optional.empty();
+    }
+
+    private static boolean isStartOfFrame(int type) {
+        return type >= 0xC0 && type <= 0xCF && type != 0xC4 && type != 0xC8 && type != 0xCC;
+    }
+
+    /** From the first image file directory, multiplied by the number of directories. */
+    private static Optional<Long> estimateTiff(ByteBuffer start, FileChannel channel)
+            throws IOException {
+        ByteOrder order =
+                (start.getShort(0) & 0xFFFF) == 0x4949
+                        ? ByteOrder.LITTLE_ENDIAN
+                        : ByteOrder.BIG_ENDIAN;
+        start.order(order);
+        if (start.getShort(2) != 42) {
+            // e.g. a BigTIFF, whose offsets are eight bytes
+            return Optional.empty();
+        }
+
+        long offset = start.getInt(4) & 0xFFFFFFFFL;
+        long width = 0;
+        long height = 0;
+        int bitsPerSample = 1;
+        int samplesPerPixel = 1;
+
+        int numberEntries = read(channel, offset, 2).order(order).getShort(0) & 0xFFFF;
+        ByteBuffer entries = read(channel, offset + 2, numberEntries * 12).order(order);
+        for (int i = 0; i < numberEntries; i++) {
+            int base = i * 12;
+            int tag = entries.getShort(base) & 0xFFFF;
+            int type = entries.getShort(base + 2) & 0xFFFF;
+            // Only the first value is needed, which is stored in the entry itself, or for
+            // several bits-per-sample at an offset, but every sample then has the same depth.
+            long value = firstValue(entries, base, type, channel, order);
+            if (tag == TIFF_TAG_WIDTH) {
+                width = value;
+            } else if (tag == TIFF_TAG_HEIGHT) {
+                height = value;
+            } else if (tag == TIFF_TAG_BITS_PER_SAMPLE) {
+                bitsPerSample = (int) value;
+            } else if (tag == TIFF_TAG_SAMPLES_PER_PIXEL) {
+                samplesPerPixel = (int) value;
+            }
+        }
+        if (width == 0 || height == 0) {
+            return Optional.empty();
+        }
+
+        long pages = countTiffPages(channel, offset, order);
+        long bytesPerPage = width * height * samplesPerPixel * bytesPerSample(bitsPerSample);
+        return Optional.of(bytesPerPage * pages);
+    }
+
+    private static long firstValue(
+            ByteBuffer entries, int base, int type, FileChannel channel, ByteOrder order)
+            throws IOException {
+        long count = entries.getInt(base + 4) & 0xFFFFFFFFL;
+        if (type == TIFF_TYPE_SHORT) {
+            if (count <= 2) {
+                return entries.getShort(base + 8) & 0xFFFF;
+            }
+            long valueOffset = entries.getInt(base + 8) & 0xFFFFFFFFL;
+            return read(channel, valueOffset, 2).order(order).getShort(0) & 0xFFFF;
+        } else {
+            return entries.getInt(base + 8) & 0xFFFFFFFFL;
+        }
+    }
+
+    /** Follows the chain of image file directories, each pointing to the next. */
+    private static long countTiffPages(FileChannel channel, long firstOffset, ByteOrder order)
+            throws IOException {
+        long pages = 0;
+        long offset = firstOffset;
+        while (offset != 0 && pages < MAX_TIFF_PAGES) {
+            pages++;
+            int numberEntries = read(channel, offset, 2).order(order).getShort(0) & 0xFFFF;
+            offset = read(channel, offset + 2 + numberEntries * 12L, 4).order(order).getInt(0)
+                    & 0xFFFFFFFFL;
+        }
+        return pages;
+    }
+
+    private static int bytesPerSample(int bits) {
+        return Math.max(1, (bits + 7) / 8);
+    }
+
+    /** Reads bytes at a position, in big-endian order, as fewer if the file ends sooner. */
+    private static ByteBuffer read(FileChannel channel, long position, int size)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long fallback(Path input) {
+        try {
+            return Files.size(input) * FALLBACK_EXPANSION;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
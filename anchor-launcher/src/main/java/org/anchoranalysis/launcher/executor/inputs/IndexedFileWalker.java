@@ -0,0 +1,185 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.functional.checked.CheckedConsumer;
+import org.anchoranalysis.launcher.executor.inputs.InputIndex.DirectoryListing;
+import org.anchoranalysis.launcher.executor.inputs.InputIndex.IndexedFile;
+
+/**
+ * Searches a directory with a single thread, reusing the listing of any directory that is
+ * unchanged since an earlier search.
+ *
+ * <p>The listing of every directory (the names of its subdirectories, and the name, size and
+ * modification-time of its files) is stored in an index on disk after each successful search. On
+ * a later search, each directory is only listed afresh if its modification-time has changed, as
+ * adding, removing or renaming an entry updates the modification-time of the containing directory.
+ * Every directory must still be queried for its modification-time, but this is far cheaper than
+ * listing it, particularly on network filesystems.
+ *
+ * <p>A listing is also never reused if the directory was modified shortly before it was listed, as
+ * a further change in the same instant would not alter the (coarse) modification-time.
+ *
+ * <p>Symbolic links to directories are not followed.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class IndexedFileWalker implements FileWalker {
+
+    /**
+     * A listing is not reused, if the directory was modified less than this many milliseconds
+     * before it was listed.
+     */
+    private static final long UNSAFE_INTERVAL_MILLIS = 2000;
+
+    /** The directory in which indices are stored. */
+    private final Path indexDirectory;
+
+    /** How many directories were reused from the index, in the most recent search. */
+    private int reused = 0;
+
+    /** How many directories were listed afresh, in the most recent search. */
+    private int listed = 0;
+
+    @Override
+    public void walk(
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer)
+            throws IOException, InterruptedException {
+        Path root = directory.toAbsolutePath().normalize();
+        Path pathIndex = InputIndex.pathFor(indexDirectory, root);
+
+        Map<String, DirectoryListing> previous = InputIndex.read(pathIndex, root);
+        Map<String, DirectoryListing> updated = new HashMap<>();
+        reused = 0;
+        listed = 0;
+
+        walkDirectory(directory, directory, filter, consumer, previous, updated, true);
+
+        // Only written after a complete search, so the index never omits a directory
+        InputIndex.write(pathIndex, root, updated);
+    }
+
+    @Override
+    public Optional<String> describeUsage() {
+        return Optional.of(
+                String.format(
+                        "Input index: %d directories reused, %d directories listed afresh.",
+                        reused, listed));
+    }
+
+    private void walkDirectory(
+            Path root,
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer,
+            Map<String, DirectoryListing> previous,
+            Map<String, DirectoryListing> updated,
+            boolean isRoot)
+            throws IOException, InterruptedException {
+        String key = root.relativize(directory).toString();
+        DirectoryListing listing;
+        try {
+            listing = reuseOrList(directory, previous.get(key));
+        } catch (IOException e) {
+            if (isRoot) {
+                throw e;
+            }
+            // An unreadable subdirectory is skipped
+            return;
+        }
+        updated.put(key, listing);
+
+        for (IndexedFile file : listing.getFiles()) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            Path path = directory.resolve(file.getName());
+            if (filter.acceptFile(root.relativize(path))) {
+                consumer.accept(path);
+            }
+        }
+
+        for (String name : listing.getSubdirectories()) {
+            Path subdirectory = directory.resolve(name);
+            if (filter.acceptDirectory(subdirectory)) {
+                walkDirectory(root, subdirectory, filter, consumer, previous, updated, false);
+            }
+        }
+    }
+
+    /** Reuses {@code previous} if the directory is unchanged, otherwise lists it afresh. */
+    private DirectoryListing reuseOrList(Path directory, DirectoryListing previous)
+            throws IOException {
+        long modified = readAttributes(directory).lastModifiedTime().toMillis();
+        if (previous != null
+                && previous.getModified() == modified
+                && previous.getListed() - modified >= UNSAFE_INTERVAL_MILLIS) {
+            reused++;
+            return previous;
+        }
+
+        listed++;
+        long listedTime = System.currentTimeMillis();
+        List<String> subdirectories = new ArrayList<>();
+        List<IndexedFile> files = new ArrayList<>();
+        for (Path entry : SequentialFileWalker.listSorted(directory)) {
+            String name = entry.getFileName().toString();
+            BasicFileAttributes attributes;
+            try {
+                attributes = readAttributes(entry);
+            } catch (IOException e) {
+                // An entry removed since listing the directory is skipped
+                continue;
+            }
+            if (attributes.isDirectory()) {
+                subdirectories.add(name);
+            } else {
+                files.add(
+                        new IndexedFile(
+                                name, attributes.size(), attributes.lastModifiedTime().toMillis()));
+            }
+        }
+        return new DirectoryListing(modified, listedTime, subdirectories, files);
+    }
+
+    private static BasicFileAttributes readAttributes(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+    }
+}
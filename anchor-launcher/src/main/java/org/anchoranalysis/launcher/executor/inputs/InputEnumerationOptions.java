@@ -0,0 +1,178 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Options for how the launcher itself searches for inputs, rather than the experiment's
+ * input-manager.
+ *
+ * <p>These only apply when inputs are specified as a directory, glob or file-extensions via {@code
+ * -i}.
+ *
+ * @author Owen Feehan
+ */
+public class InputEnumerationOptions {
+
+    /** The default number of inputs in each batch. */
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * The default number of inputs in each batch in a queue, which is smaller than otherwise, so
+     * work is divided more evenly between processes.
+     */
+    public static final int DEFAULT_QUEUE_BATCH_SIZE = 100;
+
+    /** The default maximum number of upcoming inputs to read ahead, when prefetching. */
+    public static final int DEFAULT_PREFETCH_DEPTH = 64;
+
+    /** The default maximum total size, in megabytes, of the upcoming inputs to read ahead. */
+    public static final int DEFAULT_PREFETCH_CEILING_MEGABYTES = 512;
+
+    /**
+     * If true, inputs are passed to the experiment in batches, as they are found, rather than
+     * after the entire search completes.
+     */
+    @Getter @Setter private boolean streaming = false;
+
+    /** The maximum number of inputs in each batch, when streaming. */
+    @Getter @Setter private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /** The maximum number of found inputs to hold in memory, before the search pauses. */
+    @Getter @Setter private int queueCapacity = 10 * DEFAULT_BATCH_SIZE;
+
+    /** How long to wait for a batch to fill, after its first input is found. */
+    @Getter @Setter private long lingerMillis = 2000;
+
+    /** The number of threads to search directories with. If 1, a single thread is used. */
+    @Getter @Setter private int searchThreads = 1;
+
+    /**
+     * If true, the listing of each directory is stored in an index on disk, and reused by later
+     * searches if the directory is unchanged.
+     */
+    @Getter @Setter private boolean indexed = false;
+
+    /**
+     * Where to store the index, if {@code indexed} is true. If empty, a default location is used.
+     */
+    @Getter @Setter private Optional<Path> indexDirectory = Optional.empty();
+
+    /**
+     * If true, inputs recorded as completed in a journal in the output directory are skipped, and
+     * newly completed inputs are added to the journal.
+     */
+    @Getter @Setter private boolean resume = false;
+
+    /** If present, only inputs belonging to this shard are executed. */
+    @Getter @Setter private Optional<InputShard> shard = Optional.empty();
+
+    /**
+     * If present, batches of inputs are claimed from a queue in this directory, shared with other
+     * processes, rather than being searched for by this process alone.
+     */
+    @Getter @Setter private Optional<Path> queueDirectory = Optional.empty();
+
+    /** The maximum number of inputs in each batch in a queue. */
+    @Getter @Setter private int queueBatchSize = DEFAULT_QUEUE_BATCH_SIZE;
+
+    /**
+     * The maximum number of upcoming inputs to read ahead of their jobs, so they are in the page
+     * cache when opened. If 0, no inputs are read ahead.
+     */
+    @Getter @Setter private int prefetchDepth = 0;
+
+    /** The maximum total size, in megabytes, of the upcoming inputs to read ahead. */
+    @Getter @Setter private int prefetchCeilingMegabytes = DEFAULT_PREFETCH_CEILING_MEGABYTES;
+
+    /**
+     * If present, the inputs of each batch are executed in this order, otherwise in alphabetical
+     * order of path (when not streaming) or in the order they are found (when streaming).
+     */
+    @Getter @Setter private Optional<InputOrder> order = Optional.empty();
+
+    /**
+     * If present, only a random sample of the inputs is executed, selected as the search
+     * proceeds, rather than after all inputs are found.
+     */
+    @Getter @Setter private Optional<InputSample> sample = Optional.empty();
+
+    /**
+     * Whether the launcher should search for inputs, rather than the experiment's input-manager.
+     *
+     * @return true if any option requires the launcher to search.
+     */
+    public boolean isLauncherSearching() {
+        return streaming
+                || searchThreads > 1
+                || indexed
+                || resume
+                || shard.isPresent()
+                || queueDirectory.isPresent()
+                || prefetchDepth > 0
+                || order.isPresent()
+                || sample.isPresent();
+    }
+
+    /**
+     * Creates a {@link InputPrefetcher} to read upcoming inputs ahead of their jobs, as per the
+     * options.
+     *
+     * @return a newly created prefetcher, or {@link Optional#empty} if no inputs are read ahead.
+     */
+    public Optional<InputPrefetcher> createPrefetcher() {
+        if (prefetchDepth > 0) {
+            return Optional.of(
+                    new InputPrefetcher(prefetchDepth, prefetchCeilingMegabytes * 1024L * 1024L));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a {@link FileWalker} to search for inputs, as per the options.
+     *
+     * <p>An index takes precedence over multiple threads, as a search using an index mostly avoids
+     * listing directories.
+     *
+     * @param defaultIndexDirectory where to store the index, if {@code indexed} is true and no
+     *     {@code indexDirectory} is specified.
+     * @return a newly created walker.
+     */
+    public FileWalker createWalker(Path defaultIndexDirectory) {
+        if (indexed) {
+            return new IndexedFileWalker(indexDirectory.orElse(defaultIndexDirectory));
+        } else if (searchThreads > 1) {
+            return new ParallelFileWalker(searchThreads);
+        } else {
+            return new SequentialFileWalker();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import org.anchoranalysis.core.collection.StringSetTrie;
+
+/**
+ * Accepts or rejects files found when searching for inputs.
+ *
+ * <p>This accepts the same files as the input-manager, when it recursively searches a directory,
+ * so a command-line selects the same inputs, whether or not the launcher searches for them:
+ *
+ * <ul>
+ *   <li>Hidden files and directories (whose names begin with a period) are always rejected.
+ *   <li>A glob is matched against the file-name only, as with {@code MatchGlob}.
+ *   <li>Extensions are matched case-sensitively, as with {@code MatchExtensions}, against the
+ *       extensions as specified, which are normally lower-case.
+ * </ul>
+ *
+ * @author Owen Feehan
+ */
+public class InputFilter {
+
+    private static final String HIDDEN_PREFIX = ".";
+
+    /** If present, a file-name must match this glob. */
+    private final Optional<PathMatcher> glob;
+
+    /** A file must have one of these extensions, unless the set is empty. */
+    private final Set<String> extensions;
+
+    /**
+     * Creates a filter.
+     *
+     * @param glob if present, a file-name must match this glob.
+     * @param extensions if present and non-empty, a file must have one of these extensions
+     *     (without a leading period).
+     */
+    public InputFilter(Optional<String> glob, Optional<StringSetTrie> extensions) {
+        this.glob = glob.map(pattern -> FileSystems.getDefault().getPathMatcher("glob:" + pattern));
+        this.extensions = new HashSet<>();
+        if (extensions.isPresent()) {
+            for (String extension : extensions.get().values()) {
+                this.extensions.add(extension);
+            }
+        }
+    }
+
+    /**
+     * Whether to accept a file as an input.
+     *
+     * @param relativePath the path of the file, relative to the searched directory.
+     * @return true if the file is accepted.
+     */
+    public boolean acceptFile(Path relativePath) {
+        Path fileName = relativePath.getFileName();
+        if (fileName.toString().startsWith(HIDDEN_PREFIX)) {
+            return false;
+        }
+        if (glob.isPresent() && !glob.get().matches(fileName)) {
+            return false;
+        }
+        return extensions.isEmpty() || hasAcceptedExtension(fileName.toString());
+    }
+
+    /**
+     * Whether to search inside a subdirectory.
+     *
+     * @param directory the subdirectory.
+     * @return true if the subdirectory should be searched.
+     */
+    public boolean acceptDirectory(Path directory) {
+        Path fileName = directory.getFileName();
+        return fileName == null || !fileName.toString().startsWith(HIDDEN_PREFIX);
+    }
+
+    /** Checks every suffix following a period, so multi-part extensions (e.g. ome.tif) match. */
+    private boolean hasAcceptedExtension(String fileName) {
+        int index = fileName.indexOf('.');
+        while (index != -1) {
+            if (extensions.contains(fileName.substring(index + 1))) {
+                return true;
+            }
+            index = fileName.indexOf('.', index + 1);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,212 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+/**
+ * Reads and writes a compact binary index of the listing of every directory in a search.
+ *
+ * <p>The index is stored in a file named after a hash of the searched directory, so each searched
+ * directory has its own index. Any failure to read or write the index is ignored, as the index is
+ * only an optimization.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class InputIndex {
+
+    /** Incremented whenever the binary format changes, to invalidate older indices. */
+    private static final int FORMAT_VERSION = 1;
+
+    /** Algorithm used to derive the file-name of the index. */
+    private static final String NAME_ALGORITHM = "SHA-256";
+
+    private static final String EXTENSION = ".bin";
+
+    /** A file recorded in the index. */
+    @Value
+    static class IndexedFile {
+
+        /** The file-name, without any directory. */
+        private String name;
+
+        /** The size of the file in bytes, when it was listed. */
+        private long size;
+
+        /** The modification-time of the file in milliseconds since the epoch, when listed. */
+        private long modified;
+    }
+
+    /** The listing of a single directory, recorded in the index. */
+    @Value
+    static class DirectoryListing {
+
+        /** The modification-time of the directory, in milliseconds since the epoch. */
+        private long modified;
+
+        /** When the directory was listed, in milliseconds since the epoch. */
+        private long listed;
+
+        /** The names of the subdirectories, in sorted order. */
+        private List<String> subdirectories;
+
+        /** The files in the directory, sorted by name. */
+        private List<IndexedFile> files;
+    }
+
+    /**
+     * The path to the index file, for a particular searched directory.
+     *
+     * @param indexDirectory the directory in which indices are stored.
+     * @param searched the directory that is searched.
+     * @return the path to the index, which may not exist.
+     */
+    public static Path pathFor(Path indexDirectory, Path searched) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(NAME_ALGORITHM);
+            byte[] hash = digest.digest(searched.toString().getBytes(StandardCharsets.UTF_8));
+            return indexDirectory.resolve(HexFormat.of().formatHex(hash) + EXTENSION);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(NAME_ALGORITHM + " should always be available", e);
+        }
+    }
+
+    /**
+     * Reads an index.
+     *
+     * @param path the path to the index.
+     * @param searched the directory that is searched, which must match that in the index.
+     * @return the listing of each directory, keyed by its path relative to {@code searched}, or an
+     *     empty map if the index does not exist, is corrupt, or is for a different directory.
+     */
+    public static Map<String, DirectoryListing> read(Path path, Path searched) {
+        Map<String, DirectoryListing> listings = new HashMap<>();
+        if (!path.toFile().exists()) {
+            return listings;
+        }
+        try (InputStream stream = new BufferedInputStream(Files.newInputStream(path));
+                DataInputStream input = new DataInputStream(stream)) {
+            if (input.readInt() != FORMAT_VERSION || !input.readUTF().equals(searched.toString())) {
+                return listings;
+            }
+            int numberDirectories = input.readInt();
+            for (int i = 0; i < numberDirectories; i++) {
+                String relativePath = input.readUTF();
+                listings.put(relativePath, readListing(input));
+            }
+            return listings;
+        } catch (IOException e) {
+            // A corrupt or unreadable index is treated as absent
+            return new HashMap<>();
+        }
+    }
+
+    /**
+     * Writes an index, atomically replacing any existing file.
+     *
+     * @param path the path to the index.
+     * @param searched the directory that is searched.
+     * @param listings the listing of each directory, keyed by its path relative to {@code
+     *     searched}.
+     */
+    public static void write(Path path, Path searched, Map<String, DirectoryListing> listings) {
+        try {
+            Files.createDirectories(path.getParent());
+            Path temporary = Files.createTempFile(path.getParent(), "index", ".tmp");
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(temporary));
+                    DataOutputStream output = new DataOutputStream(stream)) {
+                output.writeInt(FORMAT_VERSION);
+                output.writeUTF(searched.toString());
+                output.writeInt(listings.size());
+                for (Map.Entry<String, DirectoryListing> entry : listings.entrySet()) {
+                    output.writeUTF(entry.getKey());
+                    writeListing(entry.getValue(), output);
+                }
+            }
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Deliberately ignored, as the index is only an optimization e.g. the directory may
+            // be read-only.
+        }
+    }
+
+    private static DirectoryListing readListing(DataInputStream input) throws IOException {
+        long modified = input.readLong();
+        long listed = input.readLong();
+
+        int numberSubdirectories = input.readInt();
+        List<String> subdirectories = new ArrayList<>(numberSubdirectories);
+        for (int i = 0; i < numberSubdirectories; i++) {
+            subdirectories.add(input.readUTF());
+        }
+
+        int numberFiles = input.readInt();
+        List<IndexedFile> files = new ArrayList<>(numberFiles);
+        for (int i = 0; i < numberFiles; i++) {
+            files.add(new IndexedFile(input.readUTF(), input.readLong(), input.readLong()));
+        }
+        return new DirectoryListing(modified, listed, subdirectories, files);
+    }
+
+    private static void writeListing(DirectoryListing listing, DataOutputStream output)
+            throws IOException {
+        output.writeLong(listing.getModified());
+        output.writeLong(listing.getListed());
+
+        output.writeInt(listing.getSubdirectories().size());
+        for (String subdirectory : listing.getSubdirectories()) {
+            output.writeUTF(subdirectory);
+        }
+
+        output.writeInt(listing.getFiles().size());
+        for (IndexedFile file : listing.getFiles()) {
+            output.writeUTF(file.getName());
+            output.writeLong(file.getSize());
+            output.writeLong(file.getModified());
+        }
+    }
+}
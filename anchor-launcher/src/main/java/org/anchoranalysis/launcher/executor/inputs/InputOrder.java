@@ -0,0 +1,127 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * An order in which to execute inputs, by their expected cost.
+ *
+ * <p>Executing the most costly inputs first means the last jobs to start are small, so processors
+ * do not idle at the end of an execution while a few large inputs complete. Ties are broken by
+ * path, so the order is always consistent.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor
+public enum InputOrder {
+
+    /** The largest files first. */
+    SIZE_DESCENDING("sizeDesc", InputOrder::fileSize, true),
+
+    /** The smallest files first. */
+    SIZE_ASCENDING("sizeAsc", InputOrder::fileSize, false),
+
+    /**
+     * The largest estimated decoded size first, as per {@link FootprintEstimator}, which reflects
+     * the number of pixels better than the file-size, when files are compressed differently.
+     */
+    FOOTPRINT_DESCENDING("footprintDesc", FootprintEstimator::estimate, true);
+
+    /** How the order is specified on the command-line. */
+    @Getter private final String keyword;
+
+    /** The cost of an input. */
+    private final ToLongFunction<Path> cost;
+
+    /** Whether the most costly inputs occur first. */
+    private final boolean descending;
+
+    /**
+     * Finds the order specified by a keyword.
+     *
+     * @param keyword the keyword, as returned by {@link #getKeyword}.
+     * @return the order.
+     * @throws IllegalArgumentException if no order has the keyword.
+     */
+    public static InputOrder parse(String keyword) {
+        for (InputOrder order : values()) {
+            if (order.keyword.equals(keyword)) {
+                return order;
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format("An input order must be one of %s, but is %s", keywords(), keyword));
+    }
+
+    /**
+     * Sorts inputs into this order.
+     *
+     * <p>The cost of each input is determined only once.
+     *
+     * @param inputs the inputs, which are sorted in place.
+     */
+    public void sort(List<Path> inputs) {
+        Map<Path, Long> costs = new HashMap<>();
+        for (Path input : inputs) {
+            costs.put(input, cost.applyAsLong(input));
+        }
+        Comparator<Path> byCost = Comparator.comparing(costs::get);
+        if (descending) {
+            byCost = byCost.reversed();
+        }
+        inputs.sort(byCost.thenComparing(Comparator.naturalOrder()));
+    }
+
+    /**
+     * The keywords of all orders, separated by a vertical bar.
+     *
+     * @return the keywords, as may be shown in a help message.
+     */
+    public static String keywords() {
+        return Arrays.stream(values()).map(InputOrder::getKeyword).collect(Collectors.joining("|"));
+    }
+
+    private static long fileSize(Path input) {
+        try {
+            return Files.size(input);
+        } catch (IOException e) {
+            // The job will report the error, when it opens the input
+            return 0;
+        }
+    }
+}
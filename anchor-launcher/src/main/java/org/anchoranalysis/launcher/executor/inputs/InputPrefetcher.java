@@ -0,0 +1,298 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Reads upcoming inputs in a background thread, so they are in the operating-system's page cache
+ * before a job opens them.
+ *
+ * <p>This overlaps the latency of reading inputs, particularly from network or cold storage, with
+ * the execution of earlier jobs. The bytes that are read are discarded, as each job opens and
+ * decodes its input itself, but later reads of the input are then served from memory.
+ *
+ * <p>The launcher does not observe individual jobs, so the upcoming inputs are replaced whenever a
+ * batch starts executing. The first inputs, which the jobs open as soon as the batch starts, are
+ * skipped, as reading them would only compete with the jobs. After these, at most {@code depth}
+ * inputs, and at most {@code ceilingBytes} in total, are read ahead of the jobs.
+ *
+ * <p>Where the files this process has open can be listed (on Linux), the window slides as the jobs
+ * open later inputs, so inputs are read ahead throughout a batch. Otherwise, only the window at the
+ * start of each batch is read. Any reading of earlier upcoming inputs that is still in progress is
+ * abandoned.
+ *
+ * <p>An input that cannot be read is skipped, as the job will report the error when it opens it.
+ *
+ * @author Owen Feehan
+ */
+public class InputPrefetcher implements AutoCloseable {
+
+    /** The size of the buffer that inputs are read into, and then discarded. */
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    /** How often to check which inputs the jobs have opened, when the window is full. */
+    private static final long PROGRESS_POLL_MILLISECONDS = 100;
+
+    /** The maximum number of inputs to read ahead of the jobs. */
+    private final int depth;
+
+    /** The maximum total size in bytes of the inputs to read ahead of the jobs. */
+    private final long ceilingBytes;
+
+    /** If present, lists the files this process currently has open, to follow the jobs. */
+    private final Optional<Supplier<Collection<Path>>> openFiles;
+
+    /** Reads the inputs, one at a time. */
+    private final ExecutorService executor;
+
+    /**
+     * Inputs already read, among the current upcoming inputs, so they are not read again.
+     *
+     * <p>It is only accessed by the thread that reads inputs.
+     */
+    private final Set<Path> read = new HashSet<>();
+
+    /** The reading of the current upcoming inputs, if any. */
+    private Future<?> current;
+
+    /** How many inputs have been read, across all windows. */
+    private final AtomicInteger numberRead = new AtomicInteger();
+
+    /** How many bytes have been read, across all windows. */
+    private final AtomicLong bytesRead = new AtomicLong();
+
+    /**
+     * Creates with limits on how far ahead to read, following the jobs if supported.
+     *
+     * @param depth the maximum number of inputs to read ahead of the jobs.
+     * @param ceilingBytes the maximum total size in bytes of the inputs to read ahead of the jobs.
+     */
+    public InputPrefetcher(int depth, long ceilingBytes) {
+        this(depth, ceilingBytes, OpenFiles.lister());
+    }
+
+    /**
+     * Creates with limits on how far ahead to read, and a particular way to follow the jobs.
+     *
+     * @param depth the maximum number of inputs to read ahead of the jobs.
+     * @param ceilingBytes the maximum total size in bytes of the inputs to read ahead of the jobs.
+     * @param openFiles if present, lists the files this process currently has open, so the window
+     *     slides as the jobs open inputs.
+     */
+    InputPrefetcher(
+            int depth, long ceilingBytes, Optional<Supplier<Collection<Path>>> openFiles) {
+        this.depth = depth;
+        this.ceilingBytes = ceilingBytes;
+        this.openFiles = openFiles;
+        this.executor =
+                Executors.newSingleThreadExecutor(
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "anchor-input-prefetcher");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+    }
+
+    /**
+     * Replaces the upcoming inputs, and starts reading ahead of the jobs in the background.
+     *
+     * @param upcoming the inputs, in the order they are expected to be opened.
+     * @param numberSkipped how many inputs, from the start of {@code upcoming}, the jobs open as
+     *     soon as they start, and are not read.
+     */
+    public synchronized void prefetch(List<Path> upcoming, int numberSkipped) {
+        if (current != null) {
+            current.cancel(true);
+        }
+        // Copied, as the caller may alter the list
+        List<Path> candidates = new ArrayList<>(upcoming);
+        int skipped = Math.min(numberSkipped, candidates.size());
+        current = executor.submit(() -> readAhead(candidates, skipped));
+    }
+
+    /**
+     * How many inputs have been read, across all windows.
+     *
+     * @return the number of inputs.
+     */
+    public int numberRead() {
+        return numberRead.get();
+    }
+
+    /**
+     * Describes how much has been read.
+     *
+     * @return a message suitable for logging.
+     */
+    public String describeUsage() {
+        return String.format(
+                "Input prefetch: %d inputs read ahead, totalling %d MB.",
+                numberRead.get(), bytesRead.get() / (1024 * 1024));
+    }
+
+    /** Stops reading, if in progress. */
+    @Override
+    public synchronized void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reads the candidates in order, from {@code numberSkipped}, while within the window ahead of
+     * the jobs.
+     *
+     * <p>The jobs are presumed to have reached the input after the furthest one observed open, or
+     * otherwise {@code numberSkipped}. Inputs the jobs have already reached are not read.
+     */
+    private void readAhead(List<Path> candidates, int numberSkipped) {
+        // Forget inputs that are no longer upcoming, so memory does not grow across batches
+        read.retainAll(candidates);
+
+        Map<Path, Integer> indices = openFiles.isPresent() ? indexOf(candidates) : Map.of();
+
+        // The index of the first input the jobs have not yet reached
+        int frontier = numberSkipped;
+        // The index and size of each input read ahead of the frontier
+        Deque<long[]> ahead = new ArrayDeque<>();
+        long bytesAhead = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        int next = numberSkipped;
+        while (!Thread.currentThread().isInterrupted()) {
+            next = Math.max(next, frontier);
+            if (next >= candidates.size()) {
+                return;
+            }
+            Path input = candidates.get(next);
+            long size = sizeOf(input);
+            // At least one input is read ahead, however large
+            boolean full =
+                    next - frontier >= depth
+                            || (next > frontier && bytesAhead + size > ceilingBytes);
+            if (full) {
+                if (!openFiles.isPresent() || !sleepUntilPoll()) {
+                    return;
+                }
+                int reached = furthestOpened(indices) + 1;
+                if (reached > frontier) {
+                    frontier = reached;
+                    while (!ahead.isEmpty() && ahead.peekFirst()[0] < frontier) {
+                        bytesAhead -= ahead.removeFirst()[1];
+                    }
+                }
+            } else {
+                if (read.add(input) && !readDiscarding(input, buffer)) {
+                    read.remove(input);
+                }
+                ahead.addLast(new long[] {next, size});
+                bytesAhead += size;
+                next++;
+            }
+        }
+    }
+
+    /** The index of the furthest candidate that this process has open, or -1 if none. */
+    private int furthestOpened(Map<Path, Integer> indices) {
+        int furthest = -1;
+        for (Path open : openFiles.get().get()) {
+            Integer index = indices.get(open);
+            if (index != null) {
+                furthest = Math.max(furthest, index);
+            }
+        }
+        return furthest;
+    }
+
+    /** Sleeps before checking the progress of the jobs, returning false if interrupted. */
+    private static boolean sleepUntilPoll() {
+        try {
+            Thread.sleep(PROGRESS_POLL_MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static Map<Path, Integer> indexOf(List<Path> candidates) {
+        Map<Path, Integer> indices = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            indices.putIfAbsent(candidates.get(i).toAbsolutePath().normalize(), i);
+        }
+        return indices;
+    }
+
+    /** Reads an input entirely, discarding the bytes, and returns true if successful. */
+    private boolean readDiscarding(Path input, ByteBuffer buffer) {
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long total = 0;
+            int bytes;
+            do {
+                buffer.clear();
+                bytes = channel.read(buffer);
+                if (bytes > 0) {
+                    total += bytes;
+                }
+            } while (bytes >= 0);
+            numberRead.incrementAndGet();
+            bytesRead.addAndGet(total);
+            return true;
+        } catch (IOException e) {
+            // Skipped, as the job will report any error, when it opens the input. This includes
+            // the channel being closed, if the window is replaced while reading.
+            return false;
+        }
+    }
+
+    private static long sizeOf(Path input) {
+        try {
+            return Files.size(input);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,388 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.Value;
+
+/**
+ * A queue of batches of inputs, in a directory shared by several processes, possibly on different
+ * hosts.
+ *
+ * <p>It requires no service other than a shared filesystem, relying only on creating a directory
+ * and renaming a file being atomic, as they are on local and network filesystems (including NFS).
+ *
+ * <p>The first process to successfully create the {@code populating} subdirectory becomes the
+ * <i>populator</i>, which searches for inputs and adds batches of them to the queue as they are
+ * found, by writing them in {@code staging} and then renaming into {@code pending}. Every process
+ * (including the populator) then claims batches, one at a time, by renaming a batch from {@code
+ * pending} into {@code claimed}. Only one rename of a particular file can succeed, so each batch
+ * is claimed exactly once. After executing a batch, a process renames it into {@code completed}
+ * (or {@code failed}). A process that becomes idle simply claims the next batch, so faster
+ * processes execute more batches.
+ *
+ * <p>Inputs are stored relative to the searched directory, so the directory may be mounted at a
+ * different location on each host.
+ *
+ * <p>A batch claimed by a process that is killed, remains in {@code claimed}, named after the
+ * process, and may be re-queued by moving it back into {@code pending}.
+ *
+ * <p>While searching, the populator periodically rewrites a {@code heartbeat} file, so other
+ * processes can detect a populator that was killed, rather than waiting indefinitely for further
+ * batches.
+ *
+ * @author Owen Feehan
+ */
+public class InputQueue {
+
+    private static final String DIRECTORY_POPULATING = "populating";
+    private static final String DIRECTORY_STAGING = "staging";
+    private static final String DIRECTORY_PENDING = "pending";
+    private static final String DIRECTORY_CLAIMED = "claimed";
+    private static final String DIRECTORY_COMPLETED = "completed";
+    private static final String DIRECTORY_FAILED = "failed";
+
+    /** Created by the populator, after every batch has been added to the queue. */
+    private static final String FILENAME_POPULATED = "populated";
+
+    /** Created by the populator, if the search for inputs fails, containing the error message. */
+    private static final String FILENAME_POPULATION_FAILED = "populationFailed";
+
+    /** Rewritten periodically by the populator, while it searches for inputs. */
+    private static final String FILENAME_HEARTBEAT = "heartbeat";
+
+    private static final String EXTENSION_BATCH = ".batch";
+
+    /** A batch of inputs, claimed by this process. */
+    @Value
+    public static class ClaimedBatch {
+
+        /** The name of the batch, unique in the queue. */
+        private String name;
+
+        /** Where the claimed batch is stored. */
+        private Path path;
+
+        /** The inputs in the batch, resolved against the searched directory. */
+        private List<Path> inputs;
+
+        /**
+         * The name of the batch, without its extension.
+         *
+         * @return the name, which is also unique in the queue.
+         */
+        public String nameWithoutExtension() {
+            return name.substring(0, name.length() - EXTENSION_BATCH.length());
+        }
+    }
+
+    /** The shared directory holding the queue. */
+    @Getter private final Path directory;
+
+    /** Uniquely identifies this process, among all processes sharing the queue. */
+    @Getter private final String workerIdentifier;
+
+    /** The number of batches this process has added, when it is the populator. */
+    private int numberAdded = 0;
+
+    /** The number of heartbeats this process has written, when it is the populator. */
+    private long numberHeartbeats = 0;
+
+    /** The contents of the heartbeat file, when this process last read it. */
+    private String lastHeartbeat = "";
+
+    /** When (as per {@link System#nanoTime}) this process last saw the heartbeat change. */
+    private long lastHeartbeatChanged = System.nanoTime();
+
+    /**
+     * Creates for a directory, which is created if it does not exist.
+     *
+     * @param directory the shared directory holding the queue.
+     * @param workerIdentifier uniquely identifies this process, among all processes sharing the
+     *     queue.
+     * @throws IOException if the directory cannot be created.
+     */
+    public InputQueue(Path directory, String workerIdentifier) throws IOException {
+        this.directory = directory;
+        this.workerIdentifier = workerIdentifier;
+        for (String subdirectory :
+                List.of(
+                        DIRECTORY_STAGING,
+                        DIRECTORY_PENDING,
+                        DIRECTORY_CLAIMED,
+                        DIRECTORY_COMPLETED,
+                        DIRECTORY_FAILED)) {
+            Files.createDirectories(directory.resolve(subdirectory));
+        }
+    }
+
+    /**
+     * An identifier for the current process, from the host-name and process-identifier.
+     *
+     * @return the identifier.
+     */
+    public static String identifyCurrentProcess() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknownHost";
+        }
+        return host + "-" + ProcessHandle.current().pid();
+    }
+
+    /**
+     * Attempts to become the populator, which succeeds for only one process.
+     *
+     * @return true if this process is the populator.
+     * @throws IOException if the queue directory cannot be written.
+     */
+    public boolean tryBecomePopulator() throws IOException {
+        try {
+            Files.createDirectory(directory.resolve(DIRECTORY_POPULATING));
+            return true;
+        } catch (FileAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Adds a batch to the queue, so it can be claimed.
+     *
+     * @param searched the directory that was searched.
+     * @param inputs the inputs in the batch, each in {@code searched}.
+     * @throws IOException if the batch cannot be written.
+     */
+    public void add(Path searched, List<Path> inputs) throws IOException {
+        numberAdded++;
+        String name = String.format("%08d%s", numberAdded, EXTENSION_BATCH);
+        List<String> lines =
+                inputs.stream()
+                        .map(input -> searched.relativize(input).toString())
+                        .collect(Collectors.toList());
+        Path staged = directory.resolve(DIRECTORY_STAGING).resolve(name);
+        Files.write(staged, lines, StandardCharsets.UTF_8);
+        Files.move(
+                staged,
+                directory.resolve(DIRECTORY_PENDING).resolve(name),
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Marks that every batch has been added to the queue.
+     *
+     * @throws IOException if the marker cannot be written.
+     */
+    public void markPopulated() throws IOException {
+        Files.write(directory.resolve(FILENAME_POPULATED), List.of(workerIdentifier));
+    }
+
+    /**
+     * Marks that the search for inputs failed, so other processes stop waiting for batches.
+     *
+     * @param message describes the failure.
+     * @throws IOException if the marker cannot be written.
+     */
+    public void markPopulationFailed(String message) throws IOException {
+        Files.write(
+                directory.resolve(FILENAME_POPULATION_FAILED),
+                List.of(message),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Signals that the populator is still searching for inputs.
+     *
+     * @throws IOException if the heartbeat cannot be written.
+     */
+    public void heartbeat() throws IOException {
+        numberHeartbeats++;
+        Files.write(
+                directory.resolve(FILENAME_HEARTBEAT),
+                List.of(workerIdentifier + " " + numberHeartbeats),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Whether the populator appears to have stopped, without marking the queue as populated, e.g.
+     * as its process was killed.
+     *
+     * <p>This is the case when the heartbeat has not changed for {@code timeoutMillis}, as measured
+     * by this process since it first checked, so clocks need not be synchronized across hosts.
+     *
+     * @param timeoutMillis how long the heartbeat may remain unchanged.
+     * @return true if the populator appears to have stopped.
+     * @throws IOException if the heartbeat cannot be read.
+     */
+    public boolean isPopulatorStalled(long timeoutMillis) throws IOException {
+        if (directory.resolve(FILENAME_POPULATED).toFile().exists()) {
+            return false;
+        }
+        Path file = directory.resolve(FILENAME_HEARTBEAT);
+        String heartbeat;
+        try {
+            heartbeat = Files.readString(file, StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            heartbeat = "";
+        }
+        long now = System.nanoTime();
+        if (!heartbeat.equals(lastHeartbeat)) {
+            lastHeartbeat = heartbeat;
+            lastHeartbeatChanged = now;
+            return false;
+        }
+        return now - lastHeartbeatChanged > TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+    }
+
+    /**
+     * Whether an earlier run has already executed every batch in the queue.
+     *
+     * @return true if every batch was added, and none remain pending or claimed.
+     * @throws IOException if the queue cannot be read.
+     */
+    public boolean isCompleted() throws IOException {
+        return directory.resolve(FILENAME_POPULATED).toFile().exists()
+                && !directory.resolve(FILENAME_POPULATION_FAILED).toFile().exists()
+                && listSorted(DIRECTORY_PENDING).isEmpty()
+                && isEmpty(DIRECTORY_CLAIMED);
+    }
+
+    /**
+     * Claims the next pending batch, if any.
+     *
+     * @param searched the directory that was searched, to resolve inputs against.
+     * @return the claimed batch, or {@link Optional#empty} if no batch is currently pending.
+     * @throws IOException if the queue cannot be read, or a claimed batch cannot be read.
+     */
+    public Optional<ClaimedBatch> claim(Path searched) throws IOException {
+        for (Path pending : listSorted(DIRECTORY_PENDING)) {
+            String name = pending.getFileName().toString();
+            Path claimed =
+                    directory.resolve(DIRECTORY_CLAIMED).resolve(name + "." + workerIdentifier);
+            try {
+                Files.move(pending, claimed, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                // Claimed by another process in the meantime
+                continue;
+            }
+            List<Path> inputs = new ArrayList<>();
+            for (String line : Files.readAllLines(claimed, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty()) {
+                    inputs.add(searched.resolve(line));
+                }
+            }
+            return Optional.of(new ClaimedBatch(name, claimed, inputs));
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Marks a claimed batch as completed.
+     *
+     * @param batch the batch.
+     * @throws IOException if the batch cannot be moved.
+     */
+    public void complete(ClaimedBatch batch) throws IOException {
+        moveClaimed(batch, DIRECTORY_COMPLETED);
+    }
+
+    /**
+     * Marks a claimed batch as failed.
+     *
+     * @param batch the batch.
+     * @throws IOException if the batch cannot be moved.
+     */
+    public void fail(ClaimedBatch batch) throws IOException {
+        moveClaimed(batch, DIRECTORY_FAILED);
+    }
+
+    /**
+     * Whether no further batches will ever become pending.
+     *
+     * @return true if every batch has been added, and none remain pending.
+     * @throws IOException if the search for inputs failed, or the queue cannot be read.
+     */
+    public boolean isExhausted() throws IOException {
+        Path failure = directory.resolve(FILENAME_POPULATION_FAILED);
+        if (failure.toFile().exists()) {
+            throw new IOException(
+                    "The search for inputs failed: "
+                            + Files.readString(failure, StandardCharsets.UTF_8).trim());
+        }
+        // Checked before listing, as a batch may be added between the two
+        boolean populated = directory.resolve(FILENAME_POPULATED).toFile().exists();
+        return populated && listSorted(DIRECTORY_PENDING).isEmpty();
+    }
+
+    /**
+     * The number of batches currently pending, which is zero if the queue cannot be read.
+     *
+     * @return the number of batches.
+     */
+    public long numberPending() {
+        try {
+            return listSorted(DIRECTORY_PENDING).size();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private void moveClaimed(ClaimedBatch batch, String destination) throws IOException {
+        Files.move(
+                batch.getPath(),
+                directory.resolve(destination).resolve(batch.getName()),
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private boolean isEmpty(String subdirectory) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(subdirectory))) {
+            return !files.findAny().isPresent();
+        }
+    }
+
+    private List<Path> listSorted(String subdirectory) throws IOException {
+        try (Stream<Path> files = Files.list(directory.resolve(subdirectory))) {
+            return files.filter(file -> file.toString().endsWith(EXTENSION_BATCH))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.Path;
+import lombok.Value;
+
+/**
+ * A deterministic random sample of the inputs, either a fixed number or a ratio of them.
+ *
+ * <p>Each input is given a random key, by hashing the seed together with its path relative to the
+ * searched directory (as for {@link InputShard}). A ratio keeps the inputs whose key is less than
+ * the ratio, and a fixed number keeps those with the smallest keys. The sample therefore depends
+ * only on the seed and the inputs, and not on the order the search finds them in.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class InputSample {
+
+    /** The number of inputs to keep, or 0 if a ratio is kept instead. */
+    private int count;
+
+    /** The ratio of inputs to keep, in the interval (0.0, 1.0), if {@code count} is 0. */
+    private double ratio;
+
+    /** Determines which inputs are sampled. */
+    private long seed;
+
+    /**
+     * Creates from text that is either a positive integer, or a ratio.
+     *
+     * @param text the text to parse.
+     * @param seed determines which inputs are sampled.
+     * @return the parsed sample.
+     * @throws IllegalArgumentException if the text is neither a positive integer nor a ratio in
+     *     the interval (0.0, 1.0).
+     */
+    public static InputSample parse(String text, long seed) {
+        try {
+            int count = Integer.parseInt(text.trim());
+            if (count > 0) {
+                return new InputSample(count, 0.0, seed);
+            }
+        } catch (NumberFormatException e) {
+            try {
+                double ratio = Double.parseDouble(text.trim());
+                if (ratio > 0.0 && ratio < 1.0) {
+                    return new InputSample(0, ratio, seed);
+                }
+            } catch (NumberFormatException e2) {
+                // Handled below
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format(
+                        "A sample must be either a positive integer or a ratio in the interval (0.0, 1.0), but is %s",
+                        text));
+    }
+
+    /**
+     * Whether a fixed number of inputs is sampled, rather than a ratio.
+     *
+     * @return true if a fixed number is sampled.
+     */
+    public boolean isFixedCount() {
+        return count > 0;
+    }
+
+    /**
+     * The random key of an input, uniformly distributed in the interval [0.0, 1.0).
+     *
+     * @param relativePath the path of the input, relative to the searched directory.
+     * @return the key.
+     */
+    public double key(Path relativePath) {
+        long hash = InputShard.hash(seed + ":" + InputShard.identifier(relativePath));
+        // The upper 53 bits, as many as a double can represent exactly
+        return (hash >>> 11) * 0x1.0p-53;
+    }
+}
@@ -0,0 +1,167 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Selects a {@link InputSample} from the inputs found by a search, in a single pass.
+ *
+ * <p>A ratio is selected as a {@link Predicate}, as the search finds each input, so inputs may be
+ * executed as they are found. A fixed number is selected by offering every found input to a
+ * reservoir, which holds only the inputs with the smallest keys so far, so memory is bounded by
+ * the sample size rather than the number of inputs. The sample is then only known once the search
+ * ends.
+ *
+ * @author Owen Feehan
+ */
+public class InputSampler implements Predicate<Path> {
+
+    /** An input, with its key. */
+    private static class Keyed {
+        private final double key;
+        private final Path path;
+
+        private Keyed(double key, Path path) {
+            this.key = key;
+            this.path = path;
+        }
+    }
+
+    /** The directory that is searched, which paths are relativized against. */
+    private final Path directory;
+
+    /** The sample to select. */
+    private final InputSample sample;
+
+    /**
+     * When sampling a fixed number, the inputs with the smallest keys so far, with the largest at
+     * the head.
+     */
+    private final PriorityQueue<Keyed> reservoir;
+
+    /** How many inputs have been considered. */
+    private final AtomicLong considered = new AtomicLong();
+
+    /** How many inputs have been kept, when sampling a ratio. */
+    private final AtomicLong kept = new AtomicLong();
+
+    /**
+     * Creates for a particular search.
+     *
+     * @param directory the directory that is searched.
+     * @param sample the sample to select.
+     */
+    public InputSampler(Path directory, InputSample sample) {
+        this.directory = directory;
+        this.sample = sample;
+        this.reservoir =
+                new PriorityQueue<>(
+                        Math.max(1, sample.getCount()),
+                        Comparator.comparingDouble((Keyed keyed) -> keyed.key).reversed());
+    }
+
+    /**
+     * Whether a fixed number of inputs is sampled, with a reservoir, rather than a ratio.
+     *
+     * @return true if a fixed number is sampled.
+     */
+    public boolean isFixedCount() {
+        return sample.isFixedCount();
+    }
+
+    /**
+     * Whether an input is kept, when sampling a ratio.
+     *
+     * <p>It may be called concurrently from several searching threads.
+     *
+     * @param path the input.
+     * @return true if the input is in the sample.
+     */
+    @Override
+    public boolean test(Path path) {
+        considered.incrementAndGet();
+        if (sample.key(directory.relativize(path)) < sample.getRatio()) {
+            kept.incrementAndGet();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Offers an input to the reservoir, when sampling a fixed number.
+     *
+     * @param path the input.
+     */
+    public void offer(Path path) {
+        considered.incrementAndGet();
+        double key = sample.key(directory.relativize(path));
+        if (reservoir.size() < sample.getCount()) {
+            reservoir.add(new Keyed(key, path));
+        } else if (key < reservoir.peek().key) {
+            reservoir.poll();
+            reservoir.add(new Keyed(key, path));
+        }
+    }
+
+    /**
+     * The inputs in the reservoir, when sampling a fixed number, which are then removed.
+     *
+     * @return the inputs, in alphabetical order of path.
+     */
+    public List<Path> takeReservoir() {
+        List<Path> inputs = new ArrayList<>(reservoir.size());
+        for (Keyed keyed : reservoir) {
+            inputs.add(keyed.path);
+        }
+        reservoir.clear();
+        Collections.sort(inputs);
+        return inputs;
+    }
+
+    /**
+     * Describes how many inputs were sampled.
+     *
+     * @return the description.
+     */
+    public String describeSample() {
+        long numberKept =
+                sample.isFixedCount()
+                        ? Math.min(sample.getCount(), considered.get())
+                        : kept.get();
+        return String.format(
+                "Randomly sampled %d of %d inputs, with seed %d.",
+                numberKept, considered.get(), sample.getSeed());
+    }
+}
@@ -0,0 +1,64 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import lombok.Value;
+import org.anchoranalysis.core.collection.StringSetTrie;
+
+/**
+ * A recursive search of a directory for inputs, as specified via {@code -i} on the command-line.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class InputSearch {
+
+    /** The directory to search recursively. */
+    private Path directory;
+
+    /** If present, only files whose file-name matches this glob are accepted. */
+    private Optional<String> glob;
+
+    /**
+     * If present, only files with one of these extensions are accepted, where an empty set accepts
+     * every file. If not present, the default extensions are used.
+     */
+    private Optional<StringSetTrie> extensions;
+
+    /**
+     * Creates a filter to accept or reject files found in the search.
+     *
+     * @param defaultExtensions the extensions to use, if no extensions are specified in this
+     *     search. If empty, all extensions are accepted.
+     * @return a newly created filter.
+     */
+    public InputFilter filter(Optional<StringSetTrie> defaultExtensions) {
+        Optional<StringSetTrie> selected = extensions.isPresent() ? extensions : defaultExtensions;
+        return new InputFilter(glob, selected);
+    }
+}
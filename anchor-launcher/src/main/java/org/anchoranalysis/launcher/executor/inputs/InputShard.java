@@ -0,0 +1,130 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import lombok.Value;
+
+/**
+ * A deterministic share of the inputs, so several processes can each execute a disjoint subset.
+ *
+ * <p>Each input is assigned to one of {@code count} shards, by hashing its path relative to the
+ * searched directory, excluding any file-extension. The assignment depends on nothing else, so
+ * processes on different machines (even with the directory mounted at different locations) agree
+ * on it, without any communication.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class InputShard {
+
+    /** Separates the index and count, when described as text. */
+    private static final String SEPARATOR = "/";
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Which shard to keep, from 1 to {@code count} inclusive. */
+    private int index;
+
+    /** The total number of shards. */
+    private int count;
+
+    /**
+     * Creates from text of the form {@code k/n}.
+     *
+     * @param text the text to parse.
+     * @return the parsed shard.
+     * @throws IllegalArgumentException if the text is not of the form {@code k/n} where {@code 1
+     *     <= k <= n}.
+     */
+    public static InputShard parse(String text) {
+        String[] parts = text.split(SEPARATOR, -1);
+        if (parts.length == 2) {
+            try {
+                int index = Integer.parseInt(parts[0].trim());
+                int count = Integer.parseInt(parts[1].trim());
+                if (index >= 1 && index <= count) {
+                    return new InputShard(index, count);
+                }
+            } catch (NumberFormatException e) {
+                // Handled below
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format(
+                        "A shard must be of the form k/n, where 1 <= k <= n, but is %s", text));
+    }
+
+    /**
+     * Whether an input belongs to this shard.
+     *
+     * @param relativePath the path of the input, relative to the searched directory.
+     * @return true if the input belongs to this shard.
+     */
+    public boolean includes(Path relativePath) {
+        return Long.remainderUnsigned(hash(identifier(relativePath)), count) == index - 1;
+    }
+
+    @Override
+    public String toString() {
+        return index + SEPARATOR + count;
+    }
+
+    /**
+     * The relative path with forward-slashes and without any extension, so it is independent of
+     * the operating system.
+     */
+    static String identifier(Path relativePath) {
+        String identifier = relativePath.toString().replace('\\', '/');
+        int lastPeriod = identifier.lastIndexOf('.');
+        if (lastPeriod > identifier.lastIndexOf('/') + 1) {
+            return identifier.substring(0, lastPeriod);
+        } else {
+            return identifier;
+        }
+    }
+
+    /**
+     * A 64-bit FNV-1a hash, with a final mixing step so every bit is well-distributed.
+     *
+     * <p>{@link String#hashCode} is avoided, as similar names (e.g. sequential numbering) give
+     * similar hash-codes.
+     */
+    static long hash(String identifier) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte value : identifier.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= value & 0xff;
+            hash *= FNV_PRIME;
+        }
+        // The finalizer from SplitMix64
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
@@ -0,0 +1,201 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Searches for inputs in a background thread, and hands them over in batches as they are found.
+ *
+ * <p>Found files are placed on a bounded queue, so the search pauses whenever it is far ahead of
+ * the consumer, and memory use is independent of the number of files in the directory.
+ *
+ * @author Owen Feehan
+ */
+public class InputStreamer implements AutoCloseable {
+
+    /** How long to wait for the queue to change, before checking again whether the search ended. */
+    private static final long POLL_MILLISECONDS = 50;
+
+    /** Files found in the search, not yet handed over in a batch. */
+    private final BlockingQueue<Path> queue;
+
+    /** The thread performing the search. */
+    private final Thread producer;
+
+    /** Set when the search has ended, either successfully or with {@link #failure}. */
+    private volatile boolean searchEnded = false;
+
+    /** Set if the search fails. */
+    private volatile IOException failure;
+
+    /**
+     * Creates and immediately starts searching.
+     *
+     * @param walker how to search the directory.
+     * @param directory the directory to search.
+     * @param filter which files to accept.
+     * @param include additionally accepts or rejects files already accepted by {@code filter}. It
+     *     may be called concurrently from several threads.
+     * @param capacity the maximum number of found files to hold, before the search pauses.
+     */
+    public InputStreamer(
+            FileWalker walker,
+            Path directory,
+            InputFilter filter,
+            Predicate<Path> include,
+            int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.producer =
+                new Thread(
+                        () -> search(walker, directory, filter, include), "anchor-input-streamer");
+        this.producer.setDaemon(true);
+        this.producer.start();
+    }
+
+    /**
+     * Waits for the next batch of inputs.
+     *
+     * <p>This waits until {@code maxSize} inputs are available, or {@code lingerMillis} elapses
+     * after the first input of the batch is available, whichever occurs first.
+     *
+     * @param maxSize the maximum number of inputs in the batch.
+     * @param lingerMillis how long to wait for the batch to fill, after its first input is found.
+     * @return the batch, or {@link Optional#empty} if the search has ended and all inputs were
+     *     already handed over.
+     * @throws IOException if the search failed.
+     * @throws InterruptedException if interrupted while waiting.
+     */
+    public Optional<List<Path>> nextBatch(int maxSize, long lingerMillis)
+            throws IOException, InterruptedException {
+        List<Path> batch = new ArrayList<>(Math.min(maxSize, queue.remainingCapacity() + 1));
+
+        // Wait for the first input
+        while (batch.isEmpty()) {
+            Path first = queue.poll(POLL_MILLISECONDS, TimeUnit.MILLISECONDS);
+            if (first != null) {
+                batch.add(first);
+            } else if (searchEnded && queue.isEmpty()) {
+                throwIfFailed();
+                return Optional.empty();
+            }
+        }
+
+        // Fill the remainder of the batch, until full, the linger time passes, or the search ends
+        long lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        long start = System.nanoTime();
+        while (batch.size() < maxSize) {
+            queue.drainTo(batch, maxSize - batch.size());
+            // Calculated as a difference, so a very long linger time cannot overflow
+            long remaining = lingerNanos - (System.nanoTime() - start);
+            if (batch.size() == maxSize || remaining <= 0 || (searchEnded && queue.isEmpty())) {
+                break;
+            }
+            Path next =
+                    queue.poll(
+                            Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_MILLISECONDS)),
+                            TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+        return Optional.of(batch);
+    }
+
+    /**
+     * The number of found inputs, not yet handed over in a batch.
+     *
+     * @return the number of inputs, which is at most the capacity.
+     */
+    public int numberBuffered() {
+        return queue.size();
+    }
+
+    /**
+     * The found inputs that will be handed over next, without removing them.
+     *
+     * @param maxNumber the maximum number of inputs to return.
+     * @return up to {@code maxNumber} inputs, in the order they will be handed over.
+     */
+    public List<Path> peekBuffered(int maxNumber) {
+        // The iterator is weakly consistent, so this is safe while the search adds inputs
+        return queue.stream().limit(maxNumber).collect(Collectors.toList());
+    }
+
+    /**
+     * Whether the search has ended, even if inputs remain to be handed over.
+     *
+     * @return true if the search has ended.
+     */
+    public boolean isSearchEnded() {
+        return searchEnded;
+    }
+
+    /** Stops the search, if it is still running. */
+    @Override
+    public void close() {
+        producer.interrupt();
+    }
+
+    private void search(
+            FileWalker walker, Path directory, InputFilter filter, Predicate<Path> include) {
+        try {
+            walker.walk(
+                    directory,
+                    filter,
+                    path -> {
+                        if (include.test(path)) {
+                            queue.put(path);
+                        }
+                    });
+        } catch (IOException e) {
+            failure = e;
+        } catch (RuntimeException e) {
+            // e.g. from the include predicate, which would otherwise end the search unnoticed
+            failure = new IOException("The search for inputs failed unexpectedly", e);
+        } catch (InterruptedException e) {
+            // The search was stopped by close(), so no further inputs are needed
+            Thread.currentThread().interrupt();
+        } finally {
+            searchEnded = true;
+        }
+    }
+
+    private void throwIfFailed() throws IOException {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.functional.checked.CheckedConsumer;
+import org.anchoranalysis.launcher.instrumentation.PhaseRecorder;
+
+/**
+ * Records the time and resources used by each search of another {@link FileWalker}, as a phase
+ * named {@code inputEnumeration}.
+ *
+ * <p>The number of inputs is the number of files accepted by the search. When inputs are streamed,
+ * the phase also includes any time the search waited for earlier inputs to be executed.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class MeasuredFileWalker implements FileWalker {
+
+    /** The walker that performs the search. */
+    private final FileWalker delegate;
+
+    /** Where the search is recorded. */
+    private final PhaseRecorder phases;
+
+    @Override
+    public void walk(
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer)
+            throws IOException, InterruptedException {
+        PhaseRecorder.Started phase = phases.start("inputEnumeration");
+        // Atomic, as the consumer may be called concurrently
+        AtomicInteger numberAccepted = new AtomicInteger();
+        try {
+            delegate.walk(
+                    directory,
+                    filter,
+                    path -> {
+                        numberAccepted.incrementAndGet();
+                        consumer.accept(path);
+                    });
+        } finally {
+            phase.end(numberAccepted.get());
+        }
+    }
+
+    @Override
+    public Optional<String> describeUsage() {
+        return delegate.describeUsage();
+    }
+}
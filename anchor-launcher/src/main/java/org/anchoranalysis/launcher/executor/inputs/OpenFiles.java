@@ -0,0 +1,82 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Lists the files that the current process has open, where the operating-system supports it.
+ *
+ * <p>On Linux, each open file descriptor is a symbolic link in {@code /proc/self/fd} to the open
+ * file.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class OpenFiles {
+
+    private static final Path DESCRIPTORS = Path.of("/proc/self/fd");
+
+    /**
+     * A lister of the open files, if supported.
+     *
+     * @return the lister, or {@link Optional#empty} if open files cannot be listed.
+     */
+    public static Optional<Supplier<Collection<Path>>> lister() {
+        if (DESCRIPTORS.toFile().isDirectory()) {
+            return Optional.of(OpenFiles::list);
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    /** The paths of the open files, or an empty collection if they cannot be listed. */
+    private static Collection<Path> list() {
+        List<Path> open = new ArrayList<>();
+        try (Stream<Path> descriptors = Files.list(DESCRIPTORS)) {
+            for (Path descriptor : (Iterable<Path>) descriptors::iterator) {
+                try {
+                    open.add(Files.readSymbolicLink(descriptor));
+                } catch (IOException e) {
+                    // The descriptor was closed in the meantime, or is not a file
+                }
+            }
+        } catch (IOException e) {
+            // Treated as if no files are open, so the window does not slide
+        }
+        return open;
+    }
+}
@@ -0,0 +1,159 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import lombok.AllArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.functional.checked.CheckedConsumer;
+
+/**
+ * Searches a directory with several threads, each subdirectory being a separate fork-join task.
+ *
+ * <p>This helps when listing directories is latency-bound, as on network filesystems, as many
+ * directories are listed simultaneously. Files are accepted with the same rules as {@link
+ * SequentialFileWalker}, but are passed to the consumer concurrently and in no particular order.
+ *
+ * <p>Symbolic links to directories are not followed.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class ParallelFileWalker implements FileWalker {
+
+    /** The number of threads to list directories with. */
+    private final int parallelism;
+
+    @Override
+    public void walk(
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer)
+            throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.submit(new WalkDirectory(directory, directory, filter, consumer, true)).get();
+        } catch (ExecutionException e) {
+            if (causeOfType(e, InterruptedException.class) != null) {
+                throw new InterruptedException();
+            }
+            UncheckedIOException rootFailure = causeOfType(e, UncheckedIOException.class);
+            if (rootFailure != null) {
+                throw rootFailure.getCause();
+            }
+            throw new IOException("Failed to search " + directory, e.getCause());
+        } finally {
+            // Also interrupts any task that is blocked passing a file to the consumer
+            pool.shutdownNow();
+        }
+    }
+
+    /** Lists a single directory, forking a task for each subdirectory. */
+    @AllArgsConstructor
+    private static class WalkDirectory extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final transient Path root;
+        private final transient Path directory;
+        private final transient InputFilter filter;
+        private final transient CheckedConsumer<Path, InterruptedException> consumer;
+        private final boolean isRoot;
+
+        @Override
+        protected void compute() {
+            List<Path> entries;
+            try {
+                entries = SequentialFileWalker.listSorted(directory);
+            } catch (IOException e) {
+                if (isRoot) {
+                    throw new UncheckedIOException(e);
+                }
+                // An unreadable subdirectory is skipped
+                return;
+            }
+
+            List<WalkDirectory> subdirectories = new ArrayList<>();
+            List<Path> files = new ArrayList<>();
+            for (Path entry : entries) {
+                if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                    if (filter.acceptDirectory(entry)) {
+                        WalkDirectory task =
+                                new WalkDirectory(root, entry, filter, consumer, false);
+                        task.fork();
+                        subdirectories.add(task);
+                    }
+                } else {
+                    files.add(entry);
+                }
+            }
+
+            // Subdirectories are forked first, so idle threads can list them, while this thread
+            // passes on the files.
+            for (Path file : files) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CompletionException(new InterruptedException());
+                }
+                if (filter.acceptFile(root.relativize(file))) {
+                    acceptFile(file);
+                }
+            }
+
+            for (WalkDirectory subdirectory : subdirectories) {
+                subdirectory.join();
+            }
+        }
+
+        private void acceptFile(Path file) {
+            try {
+                consumer.accept(file);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }
+    }
+
+    /** The first exception of type {@code type} in the chain of causes, or null if none exists. */
+    private static <T extends Throwable> T causeOfType(Throwable exception, Class<T> type) {
+        for (Throwable cause = exception; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return type.cast(cause);
+            }
+        }
+        return null;
+    }
+}
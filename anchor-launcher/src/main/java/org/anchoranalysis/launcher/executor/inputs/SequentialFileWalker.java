@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import org.anchoranalysis.core.functional.checked.CheckedConsumer;
+
+/**
+ * Searches a directory with a single thread, depth-first, visiting entries in sorted order.
+ *
+ * <p>Symbolic links to directories are not followed.
+ *
+ * @author Owen Feehan
+ */
+public class SequentialFileWalker implements FileWalker {
+
+    @Override
+    public void walk(
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer)
+            throws IOException, InterruptedException {
+        walkDirectory(directory, directory, filter, consumer, true);
+    }
+
+    private static void walkDirectory(
+            Path root,
+            Path directory,
+            InputFilter filter,
+            CheckedConsumer<Path, InterruptedException> consumer,
+            boolean isRoot)
+            throws IOException, InterruptedException {
+        List<Path> entries;
+        try {
+            entries = listSorted(directory);
+        } catch (IOException e) {
+            if (isRoot) {
+                throw e;
+            }
+            // An unreadable subdirectory is skipped
+            return;
+        }
+
+        for (Path entry : entries) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+                if (filter.acceptDirectory(entry)) {
+                    walkDirectory(root, entry, filter, consumer, false);
+                }
+            } else if (filter.acceptFile(root.relativize(entry))) {
+                consumer.accept(entry);
+            }
+        }
+    }
+
+    /** Lists the entries of a directory, sorted by path. */
+    static List<Path> listSorted(Path directory) throws IOException {
+        List<Path> entries = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path entry : stream) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries);
+        return entries;
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Selects only inputs belonging to a particular {@link InputShard}, counting how many are kept.
+ *
+ * <p>It may be called concurrently from several searching threads.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class ShardSelector implements Predicate<Path> {
+
+    /** The directory that is searched, which paths are relativized against. */
+    private final Path directory;
+
+    /** The shard whose inputs are kept. */
+    private final InputShard shard;
+
+    /** How many inputs have been considered. */
+    private final AtomicLong considered = new AtomicLong();
+
+    /** How many inputs have been kept. */
+    private final AtomicLong kept = new AtomicLong();
+
+    @Override
+    public boolean test(Path path) {
+        considered.incrementAndGet();
+        if (shard.includes(directory.relativize(path))) {
+            kept.incrementAndGet();
+            return true;
+        } else {
+            return false;
+        }
+    }
+
+    /**
+     * Describes how many inputs were kept, relative to an exactly equal share.
+     *
+     * @return the description.
+     */
+    public String describeBalance() {
+        long numberConsidered = considered.get();
+        long numberKept = kept.get();
+        double expected = (double) numberConsidered / shard.getCount();
+        double deviation = expected > 0 ? 100.0 * (numberKept - expected) / expected : 0.0;
+        return String.format(
+                "Shard %s: kept %d of %d inputs, where an equal share is %.1f (%+.1f%%).",
+                shard, numberKept, numberConsidered, expected, deviation);
+    }
+}
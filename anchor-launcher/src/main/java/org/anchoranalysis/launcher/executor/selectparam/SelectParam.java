@@ -26,8 +26,11 @@
 
 package org.anchoranalysis.launcher.executor.selectparam;
 
+import java.nio.file.Path;
+import java.util.Optional;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
 
 /**
  * Different methods of selecting an object {@code T} that is used as a parameter for an experiment.
@@ -64,4 +67,25 @@ public interface SelectParam<T> {
      * @throws ExperimentExecutionException if an error occurs while generating the description
      */
     String describe() throws ExperimentExecutionException;
+
+    /**
+     * A search of the file-system for inputs, that the launcher can perform itself, instead of the
+     * experiment's input-manager.
+     *
+     * @return the search, or {@link Optional#empty} if this parameter does not select inputs via a
+     *     search of a directory.
+     */
+    default Optional<InputSearch> inputSearch() {
+        return Optional.empty();
+    }
+
+    /**
+     * The directory that outputs are written into, if it is known to the launcher.
+     *
+     * @return the directory, or {@link Optional#empty} if this parameter does not select outputs
+     *     via a directory.
+     */
+    default Optional<Path> outputDirectory() {
+        return Optional.empty();
+    }
 }
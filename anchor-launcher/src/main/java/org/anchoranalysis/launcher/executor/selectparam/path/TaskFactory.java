@@ -27,6 +27,7 @@
 package org.anchoranalysis.launcher.executor.selectparam.path;
 
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Optional;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -35,6 +36,7 @@ import org.anchoranalysis.launcher.CommandLineException;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
 import org.anchoranalysis.launcher.executor.selectparam.path.convert.ArgumentConverter;
 import org.anchoranalysis.launcher.executor.selectparam.path.convert.InvalidPathArgumentException;
+import org.anchoranalysis.launcher.run.tasks.PredefinedTasks;
 
 /**
  * Determines {@link Path}s related to tasks.
@@ -86,7 +88,7 @@ public class TaskFactory {
      * @param taskName the name of the task
      * @param tasksDirectory the directory containing task configurations
      * @return the {@link Path} to the task configuration
-     * @throws CommandLineException if the task doesn't exist
+     * @throws CommandLineException if the task doesn't exist, suggesting any similarly-named tasks
      */
     private static Path pathForTaskCheckExists(String taskName, Path tasksDirectory) {
         Path path = pathForTaskName(taskName, tasksDirectory);
@@ -94,7 +96,16 @@ public class TaskFactory {
         if (path.toFile().exists()) {
             return path;
         } else {
-            throw new CommandLineException(String.format("The task '%s' is not known.", taskName));
+            List<String> similar = PredefinedTasks.similarTaskNames(taskName, tasksDirectory);
+            if (similar.isEmpty()) {
+                throw new CommandLineException(
+                        String.format("The task '%s' is not known.", taskName));
+            } else {
+                throw new CommandLineException(
+                        String.format(
+                                "The task '%s' is not known. Did you mean: %s?",
+                                taskName, String.join(", ", similar)));
+            }
         }
     }
 
@@ -118,7 +129,7 @@ public class TaskFactory {
      * @param arg the argument to check
      * @return true if the argument is a valid task name, false otherwise
      */
-    private static boolean isTaskName(String arg) {
+    static boolean isTaskName(String arg) {
         return arg.matches("^[a-zA-Z0-9_\\-\\/]+$");
     }
 }
@@ -27,6 +27,7 @@
 package org.anchoranalysis.launcher.executor.selectparam.path;
 
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -34,6 +35,7 @@ import org.anchoranalysis.core.collection.StringSetTrie;
 import org.anchoranalysis.core.format.FormatExtensions;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
 
 /**
@@ -71,6 +73,14 @@ class UseAsExtension implements SelectParam<Optional<Path>> {
         return false;
     }
 
+    @Override
+    public Optional<InputSearch> inputSearch() {
+        // Without an input-directory, inputs are sought in the current working directory
+        return Optional.of(
+                new InputSearch(
+                        Paths.get("").toAbsolutePath(), Optional.empty(), Optional.of(extensions)));
+    }
+
     /**
      * Creates a set of extensions without the leading period.
      *
@@ -36,6 +36,7 @@ import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.io.input.InputContextParameters;
 import org.anchoranalysis.io.input.path.GlobExtractor;
 import org.anchoranalysis.io.input.path.GlobExtractor.GlobWithDirectory;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
 
 /**
@@ -75,4 +76,16 @@ class UseAsGlob implements SelectParam<Optional<Path>> {
     public boolean isDefault() {
         return false;
     }
+
+    @Override
+    public Optional<InputSearch> inputSearch() {
+        GlobWithDirectory glob = GlobExtractor.extract(stringWithWildcard);
+        Path directory = glob.getDirectory().map(Paths::get).orElseGet(() -> Paths.get(""));
+        // An empty set, means no filter check is applied
+        return Optional.of(
+                new InputSearch(
+                        directory.toAbsolutePath(),
+                        Optional.of(glob.getGlob()),
+                        Optional.of(new StringSetTrie())));
+    }
 }
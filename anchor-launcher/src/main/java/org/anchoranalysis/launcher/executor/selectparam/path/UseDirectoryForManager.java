@@ -31,6 +31,7 @@ import java.util.Optional;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
 import org.anchoranalysis.experiment.arguments.ExecutionArguments;
 import org.anchoranalysis.launcher.CommandLineException;
+import org.anchoranalysis.launcher.executor.inputs.InputSearch;
 import org.anchoranalysis.launcher.executor.selectparam.SelectParam;
 import org.anchoranalysis.launcher.executor.selectparam.path.convert.PrettyPathConverter;
 
@@ -91,4 +92,22 @@ class UseDirectoryForManager implements SelectParam<Optional<Path>> {
     public boolean isDefault() {
         return false;
     }
+
+    @Override
+    public Optional<InputSearch> inputSearch() {
+        if (input) {
+            return Optional.of(new InputSearch(directory, Optional.empty(), Optional.empty()));
+        } else {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Optional<Path> outputDirectory() {
+        if (input) {
+            return Optional.empty();
+        } else {
+            return Optional.of(directory);
+        }
+    }
 }
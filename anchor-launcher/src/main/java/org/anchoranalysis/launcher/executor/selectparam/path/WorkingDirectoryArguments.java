@@ -0,0 +1,218 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.selectparam.path;
+
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.apache.commons.cli.Option;
+import org.apache.commons.cli.Options;
+
+/**
+ * Resolves the arguments of a command-line that are relative paths against a particular
+ * working-directory, rather than the working-directory of the current process.
+ *
+ * <p>This allows a command-line to be executed as if from another working-directory, as a JVM
+ * cannot change its own. The arguments resolved are:
+ *
+ * <ul>
+ *   <li>the experiment, and any other argument not belonging to an option.
+ *   <li>{@code -i}, unless it is a file-extension.
+ *   <li>{@code -t}, unless it is a task-name.
+ *   <li>options whose argument is always a path e.g. {@code -o}, {@code -l} or {@code -iq}.
+ * </ul>
+ *
+ * <p>Without {@code -i}, or with file-extensions, inputs are searched for in the working-directory
+ * of the current process, which cannot be changed by resolving arguments. See {@link
+ * #searchesWorkingDirectory}.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class WorkingDirectoryArguments {
+
+    /** Options whose argument, if any, is always a path. */
+    private static final Set<String> PATH_OPTIONS =
+            Set.of(
+                    CommandLineOptions.SHORT_OPTION_OUTPUT,
+                    CommandLineOptions.SHORT_OPTION_OUTPUT_OMIT_EXPERIMENT_IDENTIFIER,
+                    CommandLineOptions.SHORT_OPTION_LOG_ERROR,
+                    CommandLineOptions.SHORT_OPTION_REPORT_TIMING,
+                    CommandLineOptions.SHORT_OPTION_INPUT_INDEX,
+                    CommandLineOptions.SHORT_OPTION_INPUT_QUEUE,
+                    CommandLineOptions.SHORT_OPTION_GENERATE_CDS_ARCHIVE,
+                    CommandLineOptions.SHORT_OPTION_GENERATE_TASK_CATALOGUE);
+
+    /** Options that print information or write a file, rather than executing an experiment. */
+    private static final Set<String> NON_EXPERIMENT_OPTIONS =
+            Set.of(
+                    CommandLineOptions.SHORT_OPTION_HELP,
+                    CommandLineOptions.SHORT_OPTION_VERSION,
+                    CommandLineOptions.SHORT_OPTION_SHOW_TASKS,
+                    CommandLineOptions.SHORT_OPTION_GENERATE_CDS_ARCHIVE,
+                    CommandLineOptions.SHORT_OPTION_GENERATE_TASK_CATALOGUE);
+
+    /** Visits an argument of a command-line. */
+    @FunctionalInterface
+    private interface ArgumentVisitor {
+
+        /**
+         * Visits an argument.
+         *
+         * @param option the short-name of the option the argument belongs to, or null if it
+         *     belongs to no option.
+         * @param argument the argument.
+         * @return the argument to replace it with.
+         */
+        String visit(String option, String argument);
+    }
+
+    /**
+     * Resolves any arguments that are relative paths against a working-directory.
+     *
+     * @param arguments the arguments of the command-line, which are unchanged.
+     * @param workingDirectory the directory to resolve relative paths against.
+     * @param options the options the command-line is parsed with.
+     * @return a copy of {@code arguments} with any relative paths resolved.
+     */
+    public static String[] resolve(String[] arguments, Path workingDirectory, Options options) {
+        return visit(
+                arguments,
+                options,
+                (option, argument) ->
+                        isPath(option, argument)
+                                ? resolvePath(argument, workingDirectory)
+                                : argument);
+    }
+
+    /**
+     * Whether a command-line searches for inputs in the working-directory of the current process.
+     *
+     * <p>This occurs when no {@code -i} is specified, or only file-extensions, unless the
+     * command-line executes no experiment, such as when printing help.
+     *
+     * @param arguments the arguments of the command-line.
+     * @param options the options the command-line is parsed with.
+     * @return true if inputs are searched for in the current working-directory.
+     */
+    public static boolean searchesWorkingDirectory(String[] arguments, Options options) {
+        for (String argument : arguments) {
+            Option option = findOption(argument, options);
+            if (option != null && NON_EXPERIMENT_OPTIONS.contains(option.getOpt())) {
+                return false;
+            }
+        }
+        List<String> inputs = new ArrayList<>();
+        visit(
+                arguments,
+                options,
+                (option, argument) -> {
+                    if (CommandLineOptions.SHORT_OPTION_INPUT.equals(option)) {
+                        inputs.add(argument);
+                    }
+                    return argument;
+                });
+        return inputs.stream().allMatch(ExtensionHelper::isFileExtension);
+    }
+
+    /**
+     * Visits each argument, that is not itself an option, in the same way as the command-line is
+     * parsed.
+     */
+    private static String[] visit(String[] arguments, Options options, ArgumentVisitor visitor) {
+        String[] visited = arguments.clone();
+        boolean onlyArguments = false;
+        for (int i = 0; i < visited.length; i++) {
+            String argument = visited[i];
+            if (onlyArguments || !argument.startsWith("-") || argument.equals("-")) {
+                visited[i] = visitor.visit(null, argument);
+            } else if (argument.equals("--")) {
+                // Every later argument belongs to no option
+                onlyArguments = true;
+            } else {
+                Option option = findOption(argument, options);
+                if (option == null || !option.hasArg()) {
+                    continue;
+                }
+                int separator = argument.indexOf('=');
+                if (separator != -1) {
+                    visited[i] =
+                            argument.substring(0, separator + 1)
+                                    + visitor.visit(
+                                            option.getOpt(), argument.substring(separator + 1));
+                } else if (i + 1 < visited.length
+                        && (!option.hasOptionalArg()
+                                || findOption(visited[i + 1], options) == null)) {
+                    i++;
+                    visited[i] = visitor.visit(option.getOpt(), visited[i]);
+                }
+            }
+        }
+        return visited;
+    }
+
+    /** The option an argument names, or null if it names no option. */
+    private static Option findOption(String argument, Options options) {
+        if (!argument.startsWith("-")) {
+            return null;
+        }
+        int separator = argument.indexOf('=');
+        String name = separator != -1 ? argument.substring(0, separator) : argument;
+        name = name.replaceFirst("^--?", "");
+        return name.isEmpty() ? null : options.getOption(name);
+    }
+
+    /** Whether the argument of an option (or belonging to no option, if null) is a path. */
+    private static boolean isPath(String option, String argument) {
+        if (argument.isEmpty()) {
+            return false;
+        } else if (option == null || PATH_OPTIONS.contains(option)) {
+            return true;
+        } else if (option.equals(CommandLineOptions.SHORT_OPTION_INPUT)) {
+            return !ExtensionHelper.isFileExtension(argument);
+        } else if (option.equals(CommandLineOptions.SHORT_OPTION_TASK)) {
+            return !TaskFactory.isTaskName(argument);
+        } else {
+            return false;
+        }
+    }
+
+    private static String resolvePath(String argument, Path workingDirectory) {
+        try {
+            Path path = Paths.get(argument);
+            return path.isAbsolute() ? argument : workingDirectory.resolve(path).toString();
+        } catch (InvalidPathException e) {
+            // Left unchanged, so the error is reported when the command-line is executed
+            return argument;
+        }
+    }
+}
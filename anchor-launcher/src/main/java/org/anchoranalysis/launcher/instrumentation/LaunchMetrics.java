@@ -0,0 +1,227 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Counters and gauges describing the progress of a launch, rendered in the Prometheus text format.
+ *
+ * <p>Batches and inputs are counted as each batch of inputs, found by the launcher's own search,
+ * completes or fails. Errors reported by the experiment for an individual input, without failing
+ * the experiment, are not counted as failures.
+ *
+ * <p>It is thread-safe, so it may be updated while being rendered from another thread.
+ *
+ * @author Owen Feehan
+ */
+public class LaunchMetrics {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private static final double MILLIS_PER_SECOND = 1e3;
+
+    /** When the launch started, as per {@link System#nanoTime}. */
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong batchesCompleted = new AtomicLong();
+    private final AtomicLong batchesFailed = new AtomicLong();
+    private final AtomicLong inputsCompleted = new AtomicLong();
+    private final AtomicLong inputsFailed = new AtomicLong();
+
+    /** When a batch last completed, in milliseconds since the epoch, or zero if none has. */
+    private final AtomicLong lastCompletionMillis = new AtomicLong();
+
+    /** The number of found inputs waiting to be executed, if known. */
+    private volatile Optional<LongSupplier> inputsWaiting = Optional.empty();
+
+    /** The number of batches pending in a queue shared with other processes, if known. */
+    private volatile Optional<LongSupplier> queuedBatchesPending = Optional.empty();
+
+    /**
+     * The media-type of {@link #render}.
+     *
+     * @return the media-type, as expected by Prometheus.
+     */
+    public static String contentType() {
+        return CONTENT_TYPE;
+    }
+
+    /**
+     * Records that the experiment completed on a batch of inputs.
+     *
+     * @param numberInputs the number of inputs in the batch.
+     */
+    public void recordBatchCompleted(int numberInputs) {
+        batchesCompleted.incrementAndGet();
+        inputsCompleted.addAndGet(numberInputs);
+        lastCompletionMillis.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Records that the experiment failed on a batch of inputs.
+     *
+     * @param numberInputs the number of inputs in the batch.
+     */
+    public void recordBatchFailed(int numberInputs) {
+        batchesFailed.incrementAndGet();
+        inputsFailed.addAndGet(numberInputs);
+    }
+
+    /**
+     * Assigns how to count found inputs, that are waiting to be executed.
+     *
+     * @param supplier counts the inputs, and may be called from any thread.
+     */
+    public void assignInputsWaiting(LongSupplier supplier) {
+        this.inputsWaiting = Optional.of(supplier);
+    }
+
+    /**
+     * Assigns how to count batches pending in a queue shared with other processes.
+     *
+     * @param supplier counts the batches, and may be called from any thread.
+     */
+    public void assignQueuedBatchesPending(LongSupplier supplier) {
+        this.queuedBatchesPending = Optional.of(supplier);
+    }
+
+    /**
+     * Renders every metric in the Prometheus text format.
+     *
+     * @return the rendered metrics, each preceded by its help and type.
+     */
+    public String render() {
+        StringBuilder builder = new StringBuilder();
+        double uptimeSeconds = (System.nanoTime() - startNanos) / NANOS_PER_SECOND;
+
+        append(
+                builder,
+                "anchor_batches_completed_total",
+                "counter",
+                "Batches of inputs on which the experiment completed.",
+                batchesCompleted.get());
+        append(
+                builder,
+                "anchor_batches_failed_total",
+                "counter",
+                "Batches of inputs on which the experiment failed.",
+                batchesFailed.get());
+        append(
+                builder,
+                "anchor_inputs_completed_total",
+                "counter",
+                "Inputs in batches on which the experiment completed.",
+                inputsCompleted.get());
+        append(
+                builder,
+                "anchor_inputs_failed_total",
+                "counter",
+                "Inputs in batches on which the experiment failed.",
+                inputsFailed.get());
+        append(
+                builder,
+                "anchor_inputs_per_second",
+                "gauge",
+                "Inputs completed per second, averaged since the launch started.",
+                uptimeSeconds > 0 ? inputsCompleted.get() / uptimeSeconds : 0.0);
+        append(
+                builder,
+                "anchor_last_completion_timestamp_seconds",
+                "gauge",
+                "When a batch last completed, in seconds since the epoch, or zero if none has.",
+                lastCompletionMillis.get() / MILLIS_PER_SECOND);
+        append(
+                builder,
+                "anchor_uptime_seconds",
+                "gauge",
+                "Seconds since the launch started.",
+                uptimeSeconds);
+
+        Optional<LongSupplier> waiting = inputsWaiting;
+        if (waiting.isPresent()) {
+            append(
+                    builder,
+                    "anchor_inputs_waiting",
+                    "gauge",
+                    "Found inputs waiting to be executed.",
+                    waiting.get().getAsLong());
+        }
+
+        Optional<LongSupplier> pending = queuedBatchesPending;
+        if (pending.isPresent()) {
+            append(
+                    builder,
+                    "anchor_queue_batches_pending",
+                    "gauge",
+                    "Batches pending in the queue shared with other processes.",
+                    pending.get().getAsLong());
+        }
+
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        append(
+                builder,
+                "jvm_memory_heap_used_bytes",
+                "gauge",
+                "Heap memory currently used.",
+                heap.getUsed());
+        append(
+                builder,
+                "jvm_memory_heap_committed_bytes",
+                "gauge",
+                "Heap memory currently committed by the JVM.",
+                heap.getCommitted());
+        append(
+                builder,
+                "jvm_memory_heap_max_bytes",
+                "gauge",
+                "The maximum heap memory, or -1 if undefined.",
+                heap.getMax());
+        return builder.toString();
+    }
+
+    private static void append(
+            StringBuilder builder, String name, String type, String help, double value) {
+        builder.append(String.format("# HELP %s %s%n", name, help));
+        builder.append(String.format("# TYPE %s %s%n", name, type));
+        builder.append(String.format(Locale.ROOT, "%s %s%n", name, formatValue(value)));
+    }
+
+    /** Formats integral values without a fractional part, as is conventional. */
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < Long.MAX_VALUE) {
+            return Long.toString((long) value);
+        }
+        return String.format(Locale.ROOT, "%.6f", value);
+    }
+}
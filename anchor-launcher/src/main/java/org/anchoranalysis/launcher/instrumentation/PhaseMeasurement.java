@@ -0,0 +1,67 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import lombok.Value;
+
+/**
+ * The time and resources used by a single phase of a launch.
+ *
+ * @author Owen Feehan
+ */
+@Value
+public class PhaseMeasurement {
+
+    /** Names the phase e.g. {@code loadExperiment}. */
+    private String phase;
+
+    /** The number of inputs processed in the phase, or zero if not applicable. */
+    private int numberInputs;
+
+    /** Elapsed wall-clock time, in nanoseconds. */
+    private long wallNanos;
+
+    /** CPU time used by the thread that executed the phase, in nanoseconds. */
+    private long threadCpuNanos;
+
+    /** CPU time used by the entire process (all threads) during the phase, in nanoseconds. */
+    private long processCpuNanos;
+
+    /** Bytes allocated on the heap by the thread that executed the phase. */
+    private long threadAllocatedBytes;
+
+    /**
+     * The number of inputs processed per second of wall-clock time.
+     *
+     * @return the throughput, or zero if no inputs were processed.
+     */
+    public double inputsPerSecond() {
+        if (numberInputs == 0 || wallNanos == 0) {
+            return 0.0;
+        }
+        return numberInputs / (wallNanos / 1e9);
+    }
+}
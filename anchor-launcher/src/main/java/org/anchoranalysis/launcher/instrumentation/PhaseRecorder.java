@@ -0,0 +1,242 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Records the time and resources used by successive phases of a launch.
+ *
+ * <p>For each phase, the wall-clock time, the CPU time of the executing thread and of the entire
+ * process, and the bytes allocated by the executing thread are measured via the platform
+ * management beans. Any measurement the JVM does not support is recorded as -1.
+ *
+ * <p>The bytes allocated by other threads (e.g. those executing jobs in parallel) are not included,
+ * but their CPU time is, via the process CPU time.
+ *
+ * <p>Any phase that occurs during start-up is also measured by {@link StartupProfiler}, if
+ * profiling, so the same phase is not timed separately.
+ *
+ * <p>It is thread-safe, so phases may be recorded from several threads.
+ *
+ * @author Owen Feehan
+ */
+public class PhaseRecorder {
+
+    private static final String CSV_HEADER =
+            "phase,inputs,wallMillis,threadCpuMillis,processCpuMillis,threadAllocatedBytes,"
+                    + "inputsPerSecond";
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    /**
+     * A phase that has started, but not yet ended.
+     *
+     * <p>It ends when closed, if not already ended, so a phase is recorded even if an exception
+     * is thrown during it.
+     */
+    public class Started implements AutoCloseable {
+
+        private final String phase;
+        private final long wallStart;
+        private final long threadCpuStart;
+        private final long processCpuStart;
+        private final long allocatedStart;
+        private final StartupProfiler.Phase profiled;
+        private boolean ended = false;
+
+        private Started(String phase) {
+            this.phase = phase;
+            this.profiled = StartupProfiler.start(phase);
+            this.wallStart = System.nanoTime();
+            this.threadCpuStart = threadCpuTime();
+            this.processCpuStart = processCpuTime();
+            this.allocatedStart = threadAllocatedBytes();
+        }
+
+        /**
+         * Ends the phase, which must be called from the same thread that started it.
+         *
+         * @return the measurement, which is also recorded.
+         */
+        public PhaseMeasurement end() {
+            return end(0);
+        }
+
+        /**
+         * Ends the phase, which must be called from the same thread that started it.
+         *
+         * @param numberInputs the number of inputs processed in the phase.
+         * @return the measurement, which is also recorded.
+         */
+        public PhaseMeasurement end(int numberInputs) {
+            ended = true;
+            PhaseMeasurement measurement =
+                    new PhaseMeasurement(
+                            phase,
+                            numberInputs,
+                            System.nanoTime() - wallStart,
+                            difference(threadCpuStart, threadCpuTime()),
+                            difference(processCpuStart, processCpuTime()),
+                            difference(allocatedStart, threadAllocatedBytes()));
+            profiled.close();
+            record(measurement);
+            return measurement;
+        }
+
+        /** Ends the phase with no inputs processed, unless it has already ended. */
+        @Override
+        public void close() {
+            if (!ended) {
+                end();
+            }
+        }
+    }
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final OperatingSystemMXBean operatingSystemBean =
+            ManagementFactory.getOperatingSystemMXBean();
+
+    /** Measurements of every ended phase, in the order they ended. */
+    private final List<PhaseMeasurement> measurements = new ArrayList<>();
+
+    /**
+     * Starts measuring a phase, in the current thread.
+     *
+     * @param phase names the phase.
+     * @return the started phase, which should be closed, or its {@link Started#end} method called,
+     *     when it ends.
+     */
+    public Started start(String phase) {
+        return new Started(phase);
+    }
+
+    /**
+     * Records a measurement of a phase.
+     *
+     * @param measurement the measurement.
+     */
+    public synchronized void record(PhaseMeasurement measurement) {
+        measurements.add(measurement);
+    }
+
+    /**
+     * The measurements recorded so far.
+     *
+     * @return a copy of the measurements, in the order they were recorded.
+     */
+    public synchronized List<PhaseMeasurement> measurements() {
+        return Collections.unmodifiableList(new ArrayList<>(measurements));
+    }
+
+    /**
+     * Writes the measurements to a CSV file, with a header row, replacing any existing file.
+     *
+     * @param path the path to write to. Its parent directory is created if necessary.
+     * @throws IOException if the file cannot be written.
+     */
+    public void writeCsv(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        try (PrintWriter writer =
+                new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            writer.println(CSV_HEADER);
+            for (PhaseMeasurement measurement : measurements()) {
+                writer.println(
+                        String.format(
+                                Locale.ROOT,
+                                "%s,%d,%.3f,%.3f,%.3f,%d,%.3f",
+                                quote(measurement.getPhase()),
+                                measurement.getNumberInputs(),
+                                measurement.getWallNanos() / NANOS_PER_MILLI,
+                                toMillis(measurement.getThreadCpuNanos()),
+                                toMillis(measurement.getProcessCpuNanos()),
+                                measurement.getThreadAllocatedBytes(),
+                                measurement.inputsPerSecond()));
+            }
+        }
+    }
+
+    private long threadCpuTime() {
+        if (threadBean.isCurrentThreadCpuTimeSupported()) {
+            return threadBean.getCurrentThreadCpuTime();
+        } else {
+            return -1;
+        }
+    }
+
+    private long processCpuTime() {
+        if (operatingSystemBean instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) operatingSystemBean)
+                    .getProcessCpuTime();
+        } else {
+            return -1;
+        }
+    }
+
+    private long threadAllocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) threadBean;
+            if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    /** The difference between two measurements, or -1 if either is unsupported. */
+    private static long difference(long start, long end) {
+        if (start < 0 || end < 0) {
+            return -1;
+        }
+        return end - start;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos < 0 ? -1 : nanos / NANOS_PER_MILLI;
+    }
+
+    /** Quotes a field for CSV, if it contains a comma, quote or newline. */
+    private static String quote(String field) {
+        if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+            return "\"" + field.replace("\"", "\"\"") + "\"";
+        }
+        return field;
+    }
+}
@@ -0,0 +1,204 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import java.lang.management.ClassLoadingMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+import org.anchoranalysis.core.log.MessageLogger;
+
+/**
+ * Measures the elapsed time, and the number of classes loaded, in each phase of start-up, until an
+ * experiment begins executing.
+ *
+ * <p>It is disabled unless {@link #enableIfRequested} finds the option in the command-line
+ * arguments, so the management beans are only loaded when profiling. This check occurs before the
+ * arguments are parsed, so the earliest phases can also be measured.
+ *
+ * <p>Phases are recorded via static methods, as they occur throughout start-up, without any object
+ * passed between them. Phases are expected to occur on a single thread, and a phase may start
+ * within another, in which case it is indented beneath it. Phases recorded by a {@link
+ * PhaseRecorder} are also measured here, so they are timed only once.
+ *
+ * <p>Start-up ends when the profile is printed, after which no further phases are measured.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class StartupProfiler {
+
+    /** The profile, if enabled. */
+    private static volatile Optional<StartupProfiler> enabled = Optional.empty();
+
+    /** A phase that is being measured, which ends when closed. */
+    public interface Phase extends AutoCloseable {
+
+        /** Ends the phase. */
+        @Override
+        void close();
+    }
+
+    /** The measurement of a completed phase. */
+    @Value
+    private static class Measurement {
+
+        private String phase;
+
+        /** How many other phases had started, but not yet ended, when this phase started. */
+        private int depth;
+
+        private long millis;
+
+        private long classesLoaded;
+    }
+
+    private final ClassLoadingMXBean classLoading = ManagementFactory.getClassLoadingMXBean();
+
+    /**
+     * Phases, in the order they started, each empty until the phase ends.
+     *
+     * <p>Phases are ordered by when they started, so a phase precedes those within it.
+     */
+    private final List<Optional<Measurement>> measurements = new ArrayList<>();
+
+    /** How many phases have started, but not yet ended. */
+    private int depth = 0;
+
+    /** Whether the profile has already been printed. */
+    private boolean printed = false;
+
+    /**
+     * Enables profiling, if any argument matches the option, and records the time from the start
+     * of the JVM as the first phase.
+     *
+     * @param arguments the command-line arguments, not yet parsed.
+     * @param shortOption the short name of the option, without a leading hyphen.
+     * @param longOption the long name of the option, without leading hyphens.
+     */
+    public static void enableIfRequested(
+            String[] arguments, String shortOption, String longOption) {
+        for (String argument : arguments) {
+            if (argument.equals("-" + shortOption) || argument.equals("--" + longOption)) {
+                StartupProfiler profiler = new StartupProfiler();
+                long jvmStart = ManagementFactory.getRuntimeMXBean().getStartTime();
+                profiler.measurements.add(
+                        Optional.of(
+                                new Measurement(
+                                        "JVM start to Launch.main",
+                                        0,
+                                        System.currentTimeMillis() - jvmStart,
+                                        profiler.classLoading.getTotalLoadedClassCount())));
+                enabled = Optional.of(profiler);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Starts measuring a phase, if profiling is enabled, and start-up has not yet ended.
+     *
+     * @param phase names the phase.
+     * @return the phase, which should be closed when it ends.
+     */
+    public static Phase start(String phase) {
+        Optional<StartupProfiler> profiler = enabled;
+        if (!profiler.isPresent() || profiler.get().isPrinted()) {
+            return () -> {};
+        }
+        return profiler.get().startPhase(phase);
+    }
+
+    /**
+     * Prints the elapsed time and classes loaded in each phase, if profiling is enabled.
+     *
+     * <p>It is printed at most once, so it may be called both when an experiment begins executing,
+     * and later, in case start-up ended early.
+     *
+     * @param logger where to print.
+     */
+    public static void printIfEnabled(MessageLogger logger) {
+        Optional<StartupProfiler> profiler = enabled;
+        if (profiler.isPresent()) {
+            profiler.get().print(logger);
+        }
+    }
+
+    private synchronized boolean isPrinted() {
+        return printed;
+    }
+
+    private synchronized Phase startPhase(String phase) {
+        int index = measurements.size();
+        int phaseDepth = depth++;
+        measurements.add(Optional.empty());
+        long startNanos = System.nanoTime();
+        long startClasses = classLoading.getTotalLoadedClassCount();
+        return () -> {
+            long millis = (System.nanoTime() - startNanos) / 1_000_000;
+            long classes = classLoading.getTotalLoadedClassCount() - startClasses;
+            synchronized (this) {
+                depth--;
+                measurements.set(
+                        index, Optional.of(new Measurement(phase, phaseDepth, millis, classes)));
+            }
+        };
+    }
+
+    private synchronized void print(MessageLogger logger) {
+        if (printed) {
+            return;
+        }
+        printed = true;
+        long sinceJvmStart =
+                System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        StringBuilder builder = new StringBuilder(String.format("Start-up profile:%n"));
+        // Any phase that has not yet ended is omitted
+        for (Optional<Measurement> ended : measurements) {
+            if (ended.isPresent()) {
+                Measurement measurement = ended.get();
+                String indented = "  ".repeat(measurement.getDepth()) + measurement.getPhase();
+                builder.append(
+                        String.format(
+                                "  %-42s %7d ms %7d classes%n",
+                                indented,
+                                measurement.getMillis(),
+                                measurement.getClassesLoaded()));
+            }
+        }
+        builder.append(
+                String.format(
+                        "  %-42s %7d ms %7d classes%n",
+                        "Total since JVM start",
+                        sinceJvmStart,
+                        classLoading.getTotalLoadedClassCount()));
+        logger.log(builder.toString());
+    }
+}
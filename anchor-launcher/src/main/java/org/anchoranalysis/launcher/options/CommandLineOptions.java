@@ -68,15 +68,54 @@ public class CommandLineOptions {
     /** Randomly samples a number of inputs. */
     public static final String SHORT_OPTION_INPUT_RANDOM_SAMPLE = "ir";
 
+    /** Streams inputs to the experiment in batches, as they are found. */
+    public static final String SHORT_OPTION_INPUT_BATCHES = "ib";
+
+    /** Searches for inputs with multiple threads. */
+    public static final String SHORT_OPTION_INPUT_SEARCH_THREADS = "ist";
+
+    /** Stores an index of the listing of the input directory, for reuse in later searches. */
+    public static final String SHORT_OPTION_INPUT_INDEX = "ix";
+
+    /** Skips inputs already completed by an earlier run, with the same arguments. */
+    public static final String SHORT_OPTION_INPUT_RESUME = "irs";
+
+    /** Executes only a deterministic share of the inputs, e.g. -ish 3/40 for shard 3 of 40. */
+    public static final String SHORT_OPTION_INPUT_SHARD = "ish";
+
+    /** Shares batches of inputs with other processes, via a queue in a shared directory. */
+    public static final String SHORT_OPTION_INPUT_QUEUE = "iq";
+
+    /** Reads upcoming inputs ahead of their jobs, so they are in the page cache when opened. */
+    public static final String SHORT_OPTION_INPUT_PREFETCH = "ipf";
+
+    /** The maximum total size in megabytes of the inputs read ahead, when prefetching. */
+    public static final String SHORT_OPTION_INPUT_PREFETCH_MEMORY = "ipm";
+
+    /** Orders the inputs by their expected cost, e.g. the largest first. */
+    public static final String SHORT_OPTION_INPUT_ORDER = "io";
+
+    /** Determines which inputs are randomly sampled, so the same sample is reproduced. */
+    public static final String SHORT_OPTION_INPUT_SEED = "isd";
+
     // END: SHORT input options
 
     // START: SHORT task options
     /** Changes task. */
     public static final String SHORT_OPTION_TASK = "t";
 
-    /** Suggests a maximum number of processors to use for the task. */
+    /**
+     * Suggests a maximum number of processors to use for the task, or to adapt the number for each
+     * batch of inputs.
+     */
     public static final String SHORT_OPTION_TASK_NUMBER_PROCESSORS = "tp";
 
+    /**
+     * Limits the estimated memory used by the inputs of concurrent jobs, by using fewer processors
+     * for larger inputs.
+     */
+    public static final String SHORT_OPTION_TASK_MEMORY_BUDGET = "mb";
+
     /** Suggests dimensions or a scaling factor for certain tasks. */
     public static final String SHORT_OPTION_TASK_SIZE = "ps";
 
@@ -143,6 +182,18 @@ public class CommandLineOptions {
     /** Prints the names of predefined tasks that can be easily used with -t. */
     public static final String SHORT_OPTION_SHOW_TASKS = "st";
 
+    /**
+     * Writes the time and resources used by each phase of execution to a CSV file [at a path, or
+     * in the output directory].
+     */
+    public static final String SHORT_OPTION_REPORT_TIMING = "rt";
+
+    /** Serves metrics describing the progress of execution over HTTP, on a local port. */
+    public static final String SHORT_OPTION_METRICS_PORT = "mp";
+
+    /** Prints the elapsed time and classes loaded in each phase of start-up. */
+    public static final String SHORT_OPTION_PROFILE_STARTUP = "sp";
+
     // END: SHORT debug options
 
     // START: SHORT application information options
@@ -154,14 +205,52 @@ public class CommandLineOptions {
 
     // END: SHORT application information options
 
+    // START: SHORT launcher-mode options
+    /** Runs as a daemon, executing command-lines received on a Unix-domain socket. */
+    public static final String SHORT_OPTION_DAEMON = "dm";
+
+    /** Generates a class-data-sharing archive by executing a representative experiment. */
+    public static final String SHORT_OPTION_GENERATE_CDS_ARCHIVE = "cds";
+
+    /** Writes a catalogue of the predefined tasks, in a tasks directory. */
+    public static final String SHORT_OPTION_GENERATE_TASK_CATALOGUE = "gtc";
+
+    /** Executes each command-line listed in a manifest file, in a single process. */
+    public static final String SHORT_OPTION_BATCH = "b";
+
+    /** The maximum number of command-lines in a batch manifest to execute at the same time. */
+    public static final String SHORT_OPTION_BATCH_CONCURRENCY = "bc";
+
+    // END: SHORT launcher-mode options
+
     // START: All LONG options
-    private static final String LONG_OPTION_HELP = "help";
-    private static final String LONG_OPTION_VERSION = "version";
+    /** Prints help. */
+    public static final String LONG_OPTION_HELP = "help";
+
+    /** Prints the version. */
+    public static final String LONG_OPTION_VERSION = "version";
+
     private static final String LONG_OPTION_LOG_ERROR = "logError";
     private static final String LONG_OPTION_SHOW_EXPERIMENT_ARGUMENTS = "showArguments";
-    private static final String LONG_OPTION_SHOW_TASKS = "showTasks";
+
+    /** Shows the available predefined tasks. */
+    public static final String LONG_OPTION_SHOW_TASKS = "showTasks";
+
+    private static final String LONG_OPTION_DAEMON = "daemon";
+
+    private static final String LONG_OPTION_GENERATE_CDS_ARCHIVE = "generateCdsArchive";
+    private static final String LONG_OPTION_GENERATE_TASK_CATALOGUE = "generateTaskCatalogue";
+
+    private static final String LONG_OPTION_BATCH = "batch";
+
+    private static final String LONG_OPTION_BATCH_CONCURRENCY = "batchConcurrency";
 
     private static final String LONG_OPTION_DEBUG = "debug";
+    private static final String LONG_OPTION_REPORT_TIMING = "reportTiming";
+    private static final String LONG_OPTION_METRICS_PORT = "metricsPort";
+
+    /** Prints the elapsed time and classes loaded in each phase of start-up. */
+    public static final String LONG_OPTION_PROFILE_STARTUP = "profileStartup";
     private static final String LONG_OPTION_INPUT = "input";
 
     /** Additionally copies any files in the input directory unused as inputs. */
@@ -181,6 +270,26 @@ public class CommandLineOptions {
     /** Randomly samples a number of inputs. */
     public static final String LONG_OPTION_INPUT_RANDOM_SAMPLE = "inputRandom";
 
+    private static final String LONG_OPTION_INPUT_BATCHES = "inputBatches";
+
+    private static final String LONG_OPTION_INPUT_SEARCH_THREADS = "inputSearchThreads";
+
+    private static final String LONG_OPTION_INPUT_INDEX = "inputIndex";
+
+    private static final String LONG_OPTION_INPUT_RESUME = "resume";
+
+    private static final String LONG_OPTION_INPUT_SHARD = "shard";
+
+    private static final String LONG_OPTION_INPUT_QUEUE = "inputQueue";
+
+    private static final String LONG_OPTION_INPUT_PREFETCH = "inputPrefetch";
+
+    private static final String LONG_OPTION_INPUT_PREFETCH_MEMORY = "inputPrefetchMemory";
+
+    private static final String LONG_OPTION_INPUT_ORDER = "inputOrder";
+
+    private static final String LONG_OPTION_INPUT_SEED = "seed";
+
     /** Changes output manager. */
     public static final String LONG_OPTION_OUTPUT = "output";
 
@@ -202,6 +311,9 @@ public class CommandLineOptions {
 
     private static final String LONG_OPTION_TASK = "task";
     private static final String LONG_OPTION_TASK_NUMBER_PROCESSORS = "taskNumberProcessors";
+
+    private static final String LONG_OPTION_TASK_MEMORY_BUDGET = "memoryBudget";
+
     private static final String LONG_OPTION_TASK_SIZE = "paramSize";
 
     /** Activates grouping from a subset of the identifier's elements. */
@@ -242,6 +354,36 @@ public class CommandLineOptions {
                 LONG_OPTION_SHOW_TASKS,
                 false,
                 "print task-names as useful for -t <name>");
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_DAEMON,
+                        LONG_OPTION_DAEMON,
+                        "runs as a daemon, executing command-lines received on a Unix-domain socket at this path"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_GENERATE_CDS_ARCHIVE,
+                        LONG_OPTION_GENERATE_CDS_ARCHIVE,
+                        "writes a class-data-sharing archive to this path, to reduce the start-up time of later launches"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_GENERATE_TASK_CATALOGUE,
+                        LONG_OPTION_GENERATE_TASK_CATALOGUE,
+                        "writes a catalogue of the predefined tasks in this tasks directory, so tasks are found without searching"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_BATCH,
+                        LONG_OPTION_BATCH,
+                        "executes each command-line in this manifest file (one per line, or as a JSON array) in a single process"));
+
+        options.addOption(
+                requiredNumberArgument(
+                        SHORT_OPTION_BATCH_CONCURRENCY,
+                        LONG_OPTION_BATCH_CONCURRENCY,
+                        "the maximum number of command-lines in a batch to execute at the same time (default 1)"));
     }
 
     /**
@@ -255,6 +397,24 @@ public class CommandLineOptions {
                 optionalStringArgument(
                         SHORT_OPTION_DEBUG, LONG_OPTION_DEBUG, "enables debug mode"));
 
+        options.addOption(
+                optionalStringArgument(
+                        SHORT_OPTION_REPORT_TIMING,
+                        LONG_OPTION_REPORT_TIMING,
+                        "writes the time and resources used by each phase of execution to a CSV file at this path (default timingReport.csv in the output directory)"));
+
+        options.addOption(
+                requiredNumberArgument(
+                        SHORT_OPTION_METRICS_PORT,
+                        LONG_OPTION_METRICS_PORT,
+                        "serves metrics in Prometheus format at http://localhost:<port>/metrics during execution, updated as each batch of inputs completes, so inputs must be executed in batches (-ib, -iq, -mb or -tp auto)"));
+
+        options.addOption(
+                SHORT_OPTION_PROFILE_STARTUP,
+                LONG_OPTION_PROFILE_STARTUP,
+                false,
+                "prints the elapsed time and classes loaded in each phase of start-up");
+
         addInputOptions(options);
         addOutputOptions(options);
         addTaskOptions(options);
@@ -295,19 +455,79 @@ public class CommandLineOptions {
                 SHORT_OPTION_INPUT_SHUFFLE,
                 LONG_OPTION_INPUT_SHUFFLE,
                 false,
-                "shuffles (randomizes) the order of the inputs");
+                "shuffles (randomizes) the order of the inputs, unless executed in several batches (-ib, -iq, -mb or -tp auto)");
 
         options.addOption(
                 SHORT_OPTION_INPUT_LIMIT,
                 LONG_OPTION_INPUT_LIMIT,
                 true,
-                "imposes upper limit on number of inputs");
+                "imposes upper limit on number of inputs, unless executed in several batches (-ib, -iq, -mb or -tp auto)");
 
         options.addOption(
                 SHORT_OPTION_INPUT_RANDOM_SAMPLE,
                 LONG_OPTION_INPUT_RANDOM_SAMPLE,
                 true,
-                "randomly samples a number/portion of inputs");
+                "randomly samples a number/portion of inputs, by shuffling all inputs, OR in a single pass of the search if -isd or another option that makes the launcher search (e.g. -ib, -ist, -io) is specified, and the inputs are a directory, glob or file-extensions");
+
+        options.addOption(
+                requiredNumberArgument(
+                        SHORT_OPTION_INPUT_SEED,
+                        LONG_OPTION_INPUT_SEED,
+                        "an integer that determines which inputs -ir samples in a single pass of the search, so the same sample is reproduced (default random)"));
+
+        options.addOption(
+                optionalStringArgument(
+                        SHORT_OPTION_INPUT_BATCHES,
+                        LONG_OPTION_INPUT_BATCHES,
+                        "executes on inputs in batches (default size 1000) as they are found, rather than after the entire search completes, each batch as a separate execution writing to its own subdirectory of -o"));
+
+        options.addOption(
+                optionalStringArgument(
+                        SHORT_OPTION_INPUT_SEARCH_THREADS,
+                        LONG_OPTION_INPUT_SEARCH_THREADS,
+                        "searches directories for inputs with multiple threads (default: number of processors), which is faster on network filesystems"));
+
+        options.addOption(
+                optionalStringArgument(
+                        SHORT_OPTION_INPUT_INDEX,
+                        LONG_OPTION_INPUT_INDEX,
+                        "reuses the listing of unchanged directories from an index of earlier searches, stored in the directory (default: ~/.anchor/cache/inputIndex)"));
+
+        options.addOption(
+                SHORT_OPTION_INPUT_RESUME,
+                LONG_OPTION_INPUT_RESUME,
+                false,
+                "skips inputs completed by an earlier identical run, as recorded in a journal in the output directory (requires -o), with each run writing to its own subdirectory of -o");
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_INPUT_SHARD,
+                        LONG_OPTION_INPUT_SHARD,
+                        "executes only shard k of n e.g. 3/40, a disjoint subset of inputs chosen by hashing each relative path"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_INPUT_QUEUE,
+                        LONG_OPTION_INPUT_QUEUE,
+                        "claims batches of inputs from a queue in this directory, shared with other processes that use the same directory, e.g. on other hosts, each batch writing to its own subdirectory of -o"));
+
+        options.addOption(
+                optionalStringArgument(
+                        SHORT_OPTION_INPUT_PREFETCH,
+                        LONG_OPTION_INPUT_PREFETCH,
+                        "reads up to this many upcoming inputs (default 64) ahead of their jobs in a background thread, so they are in the page cache when opened, skipping the inputs the jobs open first"));
+
+        options.addOption(
+                requiredNumberArgument(
+                        SHORT_OPTION_INPUT_PREFETCH_MEMORY,
+                        LONG_OPTION_INPUT_PREFETCH_MEMORY,
+                        "the maximum total size in MB of the inputs read ahead by -ipf (default 512), which requires -ipf"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_INPUT_ORDER,
+                        LONG_OPTION_INPUT_ORDER,
+                        "executes inputs in order of their file-size (sizeDesc OR sizeAsc) or estimated decoded size (footprintDesc), within each batch"));
     }
 
     /**
@@ -395,9 +615,15 @@ public class CommandLineOptions {
                         "groups inputs by subsetting the identifier e.g. 2 OR -2 OR 3:-2 OR 2: OR :2 (zero-indexed, negatives count backwards)"));
 
         options.addOption(
-                requiredNumberArgument(
+                requiredStringArgument(
                         SHORT_OPTION_TASK_NUMBER_PROCESSORS,
                         LONG_OPTION_TASK_NUMBER_PROCESSORS,
-                        "suggests a maximum number of CPU processors"));
+                        "suggests a maximum number of CPU processors, OR auto OR auto:min-max to adapt it for each batch of inputs from heap, GC and CPU usage, with batches of 4 inputs per maximum processor unless -ib is specified, each batch writing to its own subdirectory of -o"));
+
+        options.addOption(
+                requiredStringArgument(
+                        SHORT_OPTION_TASK_MEMORY_BUDGET,
+                        LONG_OPTION_TASK_MEMORY_BUDGET,
+                        "limits the estimated decoded size of inputs executed concurrently e.g. 40G OR 512M, by using fewer processors for larger inputs, executing each group of similarly sized inputs as a separate execution writing to its own subdirectory of -o, in the order of each group's first input (see -io)"));
     }
 }
@@ -0,0 +1,318 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.options.process;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputOrder;
+import org.anchoranalysis.launcher.executor.inputs.InputSample;
+import org.anchoranalysis.launcher.executor.inputs.InputShard;
+import org.anchoranalysis.launcher.options.CommandLineExtracter;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+
+/**
+ * Adds options relating to how the launcher itself searches for inputs, from the command-line.
+ *
+ * <p>This complements {@link AddInputOptions}, which instead adds options for the experiment's
+ * input-manager.
+ *
+ * @author Owen Feehan
+ */
+public class AddInputEnumerationOptions extends AddOptionsFromCommandLine<InputEnumerationOptions> {
+
+    /**
+     * Constructor for {@link AddInputEnumerationOptions}.
+     *
+     * @param extract the {@link CommandLineExtracter} to use
+     * @param options the {@link InputEnumerationOptions} to modify
+     */
+    private AddInputEnumerationOptions(
+            CommandLineExtracter extract, InputEnumerationOptions options) {
+        super(extract, options);
+    }
+
+    /**
+     * Adds options to change how the launcher searches for inputs, from the command-line.
+     *
+     * @param extract the {@link CommandLineExtracter} to use
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @throws ExperimentExecutionException if the arguments to the command-line options do not
+     *     correspond to expectations.
+     */
+    public static void addFrom(CommandLineExtracter extract, InputEnumerationOptions options)
+            throws ExperimentExecutionException {
+        new AddInputEnumerationOptions(extract, options).addOptionsFromCommandLine();
+    }
+
+    @Override
+    public void addOptionsFromCommandLine() throws ExperimentExecutionException {
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_BATCHES,
+                AddInputEnumerationOptions::assignStreaming);
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_SEARCH_THREADS,
+                AddInputEnumerationOptions::assignSearchThreads);
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_INDEX,
+                AddInputEnumerationOptions::assignIndex);
+
+        ifOptionWithoutArgument(
+                CommandLineOptions.SHORT_OPTION_INPUT_RESUME,
+                options -> options.setResume(true));
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_SHARD,
+                AddInputEnumerationOptions::assignShard);
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_QUEUE,
+                (options, directory) ->
+                        options.setQueueDirectory(Optional.of(Paths.get(directory))));
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH,
+                AddInputEnumerationOptions::assignPrefetch);
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH_MEMORY,
+                (options, megabytes) ->
+                        options.setPrefetchCeilingMegabytes(
+                                parsePositiveInteger(
+                                        megabytes,
+                                        CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH_MEMORY)));
+
+        ifPresentSingleAssociated(
+                CommandLineOptions.SHORT_OPTION_INPUT_ORDER,
+                AddInputEnumerationOptions::assignOrder);
+
+        // Otherwise, the input-manager samples, by shuffling and limiting all inputs
+        if (associated.isLauncherSearching()
+                || hasOption(CommandLineOptions.SHORT_OPTION_INPUT_SEED)) {
+            ifPresentSingleAssociated(
+                    CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE,
+                    (options, parameter) -> assignSample(options, parameter, parseSeed()));
+        }
+
+        if (hasOption(CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH_MEMORY)
+                && !hasOption(CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH)) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option has no effect without the -%s option, which enables prefetching.",
+                            CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH_MEMORY,
+                            CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH));
+        }
+
+        if (associated.getOrder().isPresent()
+                && hasOption(CommandLineOptions.SHORT_OPTION_INPUT_SHUFFLE)) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s and -%s options cannot be combined, as each determines the order of inputs.",
+                            CommandLineOptions.SHORT_OPTION_INPUT_ORDER,
+                            CommandLineOptions.SHORT_OPTION_INPUT_SHUFFLE));
+        }
+    }
+
+    /**
+     * Enables streaming of inputs, with an optional batch-size.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, which may be empty
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignStreaming(InputEnumerationOptions options, String parameter)
+            throws ExperimentExecutionException {
+        options.setStreaming(true);
+        if (!parameter.isEmpty()) {
+            options.setBatchSize(
+                    parsePositiveInteger(parameter, CommandLineOptions.SHORT_OPTION_INPUT_BATCHES));
+        }
+    }
+
+    /**
+     * Searches for inputs with multiple threads, by default as many as there are processors.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, which may be empty
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignSearchThreads(InputEnumerationOptions options, String parameter)
+            throws ExperimentExecutionException {
+        if (!parameter.isEmpty()) {
+            options.setSearchThreads(
+                    parsePositiveInteger(
+                            parameter, CommandLineOptions.SHORT_OPTION_INPUT_SEARCH_THREADS));
+        } else {
+            options.setSearchThreads(Runtime.getRuntime().availableProcessors());
+        }
+    }
+
+    /**
+     * Enables an index of the listing of searched directories, with an optional directory to store
+     * it in.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, which may be empty
+     */
+    private static void assignIndex(InputEnumerationOptions options, String parameter) {
+        options.setIndexed(true);
+        if (!parameter.isEmpty()) {
+            options.setIndexDirectory(Optional.of(Paths.get(parameter)));
+        }
+    }
+
+    /**
+     * Reads upcoming inputs ahead of their jobs, with an optional depth.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, which may be empty
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignPrefetch(InputEnumerationOptions options, String parameter)
+            throws ExperimentExecutionException {
+        if (!parameter.isEmpty()) {
+            options.setPrefetchDepth(
+                    parsePositiveInteger(
+                            parameter, CommandLineOptions.SHORT_OPTION_INPUT_PREFETCH));
+        } else {
+            options.setPrefetchDepth(InputEnumerationOptions.DEFAULT_PREFETCH_DEPTH);
+        }
+    }
+
+    /**
+     * Orders the inputs by their expected cost.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, a keyword of an {@link
+     *     InputOrder}
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignOrder(InputEnumerationOptions options, String parameter)
+            throws ExperimentExecutionException {
+        try {
+            options.setOrder(Optional.of(InputOrder.parse(parameter)));
+        } catch (IllegalArgumentException e) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option is invalid: %s",
+                            CommandLineOptions.SHORT_OPTION_INPUT_ORDER, e.getMessage()));
+        }
+    }
+
+    /**
+     * Executes only a random sample of the inputs.
+     *
+     * <p>This is only used if the launcher searches for inputs, due to another option, or a seed is
+     * specified. Otherwise {@link AddInputOptions} samples via the input-manager.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, a positive integer or ratio
+     * @param seed determines which inputs are sampled
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignSample(InputEnumerationOptions options, String parameter, long seed)
+            throws ExperimentExecutionException {
+        try {
+            options.setSample(Optional.of(InputSample.parse(parameter, seed)));
+        } catch (IllegalArgumentException e) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option is invalid: %s",
+                            CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE, e.getMessage()));
+        }
+    }
+
+    /**
+     * The seed for random sampling, as specified on the command-line, otherwise random.
+     *
+     * @return the seed
+     * @throws ExperimentExecutionException if the specified seed is not an integer
+     */
+    private long parseSeed() throws ExperimentExecutionException {
+        List<Long> seed = new ArrayList<>(1);
+        ifPresentSingle(
+                CommandLineOptions.SHORT_OPTION_INPUT_SEED,
+                parameter -> {
+                    try {
+                        seed.add(Long.parseLong(parameter.trim()));
+                    } catch (NumberFormatException e) {
+                        throw new ExperimentExecutionException(
+                                String.format(
+                                        "The -%s option must be an integer, but is %s",
+                                        CommandLineOptions.SHORT_OPTION_INPUT_SEED, parameter));
+                    }
+                });
+        return seed.isEmpty() ? new Random().nextLong() : seed.get(0);
+    }
+
+    /**
+     * Executes only a particular shard of the inputs.
+     *
+     * @param options the {@link InputEnumerationOptions} to modify
+     * @param parameter the parameter string from the command-line, of the form {@code k/n}
+     * @throws ExperimentExecutionException if the parameter is invalid
+     */
+    private static void assignShard(InputEnumerationOptions options, String parameter)
+            throws ExperimentExecutionException {
+        try {
+            options.setShard(Optional.of(InputShard.parse(parameter)));
+        } catch (IllegalArgumentException e) {
+            throw new ExperimentExecutionException(
+                    String.format(
+                            "The -%s option is invalid: %s",
+                            CommandLineOptions.SHORT_OPTION_INPUT_SHARD, e.getMessage()));
+        }
+    }
+
+    /**
+     * Parses a parameter as a positive integer, or throws an exception if it is invalid.
+     *
+     * @param parameter the parameter string from the command-line
+     * @param option the short-name of the option, for the error message
+     * @return the parsed integer
+     * @throws ExperimentExecutionException if the parameter is not a positive integer
+     */
+    private static int parsePositiveInteger(String parameter, String option)
+            throws ExperimentExecutionException {
+        try {
+            int value = Integer.parseInt(parameter);
+            if (value > 0) {
+                return value;
+            }
+        } catch (NumberFormatException e) {
+            // Handled below
+        }
+        throw new ExperimentExecutionException(
+                String.format(
+                        "The -%s option must be a positive integer, but is %s", option, parameter));
+    }
+}
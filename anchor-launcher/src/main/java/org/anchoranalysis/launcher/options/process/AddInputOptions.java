@@ -43,14 +43,23 @@ public class AddInputOptions extends AddOptionsFromCommandLine<InputArguments> {
     private static final String EXCEPTION_MESSAGE_PREFIX =
             "The -il option must be either a positive integer or a ratio in the interval (0.0, 1.0), but is";
 
+    /**
+     * Whether the launcher randomly samples inputs itself, as it searches for them, so the
+     * input-manager should not.
+     */
+    private final boolean launcherSamples;
+
     /**
      * Constructor for {@link AddInputOptions}.
      *
      * @param extract the {@link CommandLineExtracter} to use
      * @param arguments the {@link InputArguments} to modify
+     * @param launcherSamples whether the launcher randomly samples inputs itself
      */
-    private AddInputOptions(CommandLineExtracter extract, InputArguments arguments) {
+    private AddInputOptions(
+            CommandLineExtracter extract, InputArguments arguments, boolean launcherSamples) {
         super(extract, arguments);
+        this.launcherSamples = launcherSamples;
     }
 
     /**
@@ -58,12 +67,15 @@ public class AddInputOptions extends AddOptionsFromCommandLine<InputArguments> {
      *
      * @param extract the {@link CommandLineExtracter} to use
      * @param arguments the {@link InputArguments} to modify
+     * @param launcherSamples whether the launcher randomly samples inputs itself, as it searches
+     *     for them, in which case the input-manager is not instructed to sample.
      * @throws ExperimentExecutionException if the arguments to the command-line options do not
      *     correspond to expectations.
      */
-    public static void addFrom(CommandLineExtracter extract, InputArguments arguments)
+    public static void addFrom(
+            CommandLineExtracter extract, InputArguments arguments, boolean launcherSamples)
             throws ExperimentExecutionException {
-        new AddInputOptions(extract, arguments).addOptionsFromCommandLine();
+        new AddInputOptions(extract, arguments, launcherSamples).addOptionsFromCommandLine();
     }
 
     @Override
@@ -88,13 +100,16 @@ public class AddInputOptions extends AddOptionsFromCommandLine<InputArguments> {
         ifPresentSingleAssociated(
                 CommandLineOptions.SHORT_OPTION_INPUT_LIMIT, AddInputOptions::assignLimit);
 
-        ifPresentSingleAssociated(
-                CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE,
-                AddInputOptions::assignRandomSample);
+        if (!launcherSamples) {
+            ifPresentSingleAssociated(
+                    CommandLineOptions.SHORT_OPTION_INPUT_RANDOM_SAMPLE,
+                    AddInputOptions::assignRandomSample);
+        }
     }
 
     /**
-     * Instructs {@link InputArguments} to perform random-sampling.
+     * Instructs {@link InputArguments} to perform random-sampling, by shuffling all inputs and then
+     * limiting them.
      *
      * @param arguments the {@link InputArguments} to modify
      * @param parameter the parameter string from the command-line
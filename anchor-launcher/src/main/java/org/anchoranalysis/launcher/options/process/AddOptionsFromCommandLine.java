@@ -55,6 +55,16 @@ public abstract class AddOptionsFromCommandLine<T> {
      */
     public abstract void addOptionsFromCommandLine() throws ExperimentExecutionException;
 
+    /**
+     * Whether an option exists, with or without an argument.
+     *
+     * @param optionShort name of the option in short form.
+     * @return true if the option is present, false otherwise.
+     */
+    protected boolean hasOption(String optionShort) {
+        return extract.hasOption(optionShort);
+    }
+
     /**
      * Executes {@code consumer} if an option exists <b>without any argument</b>.
      *
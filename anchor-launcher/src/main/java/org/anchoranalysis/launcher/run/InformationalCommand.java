@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.launcher.config.LauncherConfig;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+
+/**
+ * Serves the informational commands (help, version and showing tasks) with minimal start-up.
+ *
+ * <p>Only commons-cli and the launcher's own resources are used, so no bean-factories are
+ * registered and no experiment executor is created. This matters for scripts and shell-completion
+ * that call e.g. {@code anchor -st} repeatedly.
+ *
+ * <p>If anything is unusual about the command-line (it cannot be parsed, it combines an
+ * informational command with a daemon or batch, or the tasks directory cannot be determined), it
+ * is left unhandled, so {@link ParseArgumentsAndRunExperiment} reports it as usual.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class InformationalCommand {
+
+    /**
+     * Serves the command-line, if it is an informational command.
+     *
+     * @param arguments arguments from the command-line.
+     * @param config a configuration for the command-line executor.
+     * @param defaultExperiment the path to the default-experiment, if it is known, or empty if
+     *     unknown.
+     * @return true if the command-line was served, false if it should be processed as usual.
+     */
+    public static boolean maybeServe(
+            String[] arguments, LauncherConfig config, Optional<Path> defaultExperiment) {
+        List<String> list = Arrays.asList(arguments);
+        if (!containsOption(
+                        list,
+                        CommandLineOptions.SHORT_OPTION_HELP,
+                        CommandLineOptions.LONG_OPTION_HELP)
+                && !containsOption(
+                        list,
+                        CommandLineOptions.SHORT_OPTION_VERSION,
+                        CommandLineOptions.LONG_OPTION_VERSION)
+                && !containsOption(
+                        list,
+                        CommandLineOptions.SHORT_OPTION_SHOW_TASKS,
+                        CommandLineOptions.LONG_OPTION_SHOW_TASKS)) {
+            return false;
+        }
+
+        Options options = ParseArgumentsAndRunExperiment.createOptions(config);
+        try {
+            CommandLine line = new DefaultParser().parse(options, arguments);
+            MessagePrinter messagePrinter = new MessagePrinter(config.resources());
+
+            if (messagePrinter.maybePrintHelp(line, options, config.help())
+                    || messagePrinter.maybePrintVersion(line)) {
+                return true;
+            }
+
+            // As otherwise a daemon, batch etc. is started, or an error is reported.
+            if (line.hasOption(CommandLineOptions.SHORT_OPTION_DAEMON)
+                    || line.hasOption(CommandLineOptions.SHORT_OPTION_BATCH)
+                    || line.hasOption(CommandLineOptions.SHORT_OPTION_GENERATE_CDS_ARCHIVE)
+                    || line.getArgs().length > 1) {
+                return false;
+            }
+
+            return messagePrinter.maybeShowTasks(line, config.taskDirectory(defaultExperiment));
+        } catch (ParseException | IOException | ExperimentExecutionException e) {
+            return false;
+        }
+    }
+
+    /** Whether the arguments contain an option, in either its short or long form. */
+    private static boolean containsOption(
+            List<String> arguments, String shortOption, String longOption) {
+        return arguments.contains("-" + shortOption) || arguments.contains("--" + longOption);
+    }
+}
@@ -50,9 +50,6 @@ class MessagePrinter {
     /** How many characters to assume the console is (at least) for help messages. */
     private static final int CONSOLE_WIDTH = 160;
 
-    /** Where to print messages to. */
-    private static final PrintStream PRINT_TO = System.out; // NOSONAR
-
     /** Resources messages can be loaded from. */
     private final Resources resources;
 
@@ -98,14 +95,14 @@ class MessagePrinter {
     public boolean maybeShowTasks(CommandLine line, Path tasksDirectory) {
         CommandLineExtracter extract = new CommandLineExtracter(line);
         if (extract.hasOptionWithoutArgument(CommandLineOptions.SHORT_OPTION_TASK)) {
-            PredefinedTasks.printTasksToConsole(tasksDirectory, resources, PRINT_TO);
+            PredefinedTasks.printTasksToConsole(tasksDirectory, resources, printTo());
             return true;
         }
 
         return runIfOption(
                 line,
                 CommandLineOptions.SHORT_OPTION_SHOW_TASKS,
-                () -> PredefinedTasks.printTasksToConsole(tasksDirectory, resources, PRINT_TO));
+                () -> PredefinedTasks.printTasksToConsole(tasksDirectory, resources, printTo()));
     }
 
     /**
@@ -114,11 +111,11 @@ class MessagePrinter {
      * @throws IOException if it's not possible to determine the version number
      */
     private void printVersion() throws IOException {
-        PRINT_TO.printf(
+        printTo().printf(
                 "anchor version %s by Owen Feehan (ETH Zurich, University of Zurich, 2016)%n",
                 resources.versionFromMavenProperties());
-        PRINT_TO.println();
-        PRINT_TO.print(resources.versionFooter());
+        printTo().println();
+        printTo().print(resources.versionFooter());
     }
 
     /**
@@ -140,6 +137,18 @@ class MessagePrinter {
         formatter.printHelp(firstLine, resources.usageHeader(), options, resources.usageFooter());
     }
 
+    /**
+     * Where to print messages to.
+     *
+     * <p>This is resolved on each call, rather than once, as standard-output may be redirected
+     * (e.g. by a daemon serving several command-lines).
+     *
+     * @return the stream to print to.
+     */
+    private static PrintStream printTo() {
+        return System.out; // NOSONAR
+    }
+
     /**
      * Runs some code if a particular command-line option is activated.
      *
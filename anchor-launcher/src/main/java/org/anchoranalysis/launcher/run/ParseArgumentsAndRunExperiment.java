@@ -29,14 +29,24 @@ package org.anchoranalysis.launcher.run;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.List;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.anchoranalysis.core.exception.friendly.AnchorFriendlyRuntimeException;
 import org.anchoranalysis.core.log.Logger;
 import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.experiment.log.ConsoleMessageLogger;
+import org.anchoranalysis.io.input.InputReadFailedException;
 import org.anchoranalysis.launcher.config.LauncherConfig;
 import org.anchoranalysis.launcher.executor.ExperimentExecutor;
+import org.anchoranalysis.launcher.instrumentation.StartupProfiler;
 import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.anchoranalysis.launcher.run.batch.BatchRecord;
+import org.anchoranalysis.launcher.run.batch.BatchRunner;
+import org.anchoranalysis.launcher.run.batch.ManifestReader;
+import org.anchoranalysis.launcher.run.cds.CdsArchiveGenerator;
+import org.anchoranalysis.launcher.run.daemon.LauncherDaemon;
+import org.anchoranalysis.launcher.run.tasks.TaskCatalogue;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
@@ -76,8 +86,24 @@ public class ParseArgumentsAndRunExperiment {
      *
      * @param arguments arguments from command-line
      * @param config a configuration for the command-line executor.
+     * @return true if the command-line was processed successfully, false if an error occurred.
      */
-    public void parseAndRun(String[] arguments, LauncherConfig config) {
+    public boolean parseAndRun(String[] arguments, LauncherConfig config) {
+        return parseAndRun(arguments, config, Optional.empty());
+    }
+
+    /**
+     * Parses the arguments to a command-line experiment and runs an experiment, possibly from
+     * within a daemon or batch.
+     *
+     * @param arguments arguments from command-line
+     * @param config a configuration for the command-line executor.
+     * @param nested if present, the command-line is executed from within a daemon or batch, as
+     *     described by this text, and so cannot itself start a daemon or batch.
+     * @return true if the command-line was processed successfully, false if an error occurred.
+     */
+    private boolean parseAndRun(
+            String[] arguments, LauncherConfig config, Optional<String> nested) {
 
         Options options = createOptions(config);
 
@@ -85,24 +111,60 @@ public class ParseArgumentsAndRunExperiment {
         CommandLineParser parser = new DefaultParser();
         try {
             // parse the command line arguments
-            CommandLine line = parser.parse(options, arguments);
+            CommandLine line;
+            try (StartupProfiler.Phase phase = StartupProfiler.start("options parsing")) {
+                line = parser.parse(options, arguments);
+            }
 
             MessagePrinter messagePrinter = new MessagePrinter(config.resources());
 
             if (messagePrinter.maybePrintHelp(line, options, config.help())) {
-                return;
+                return true;
             }
 
             if (messagePrinter.maybePrintVersion(line)) {
-                return;
+                return true;
+            }
+
+            if (nested.isPresent()
+                    && (line.hasOption(CommandLineOptions.SHORT_OPTION_DAEMON)
+                            || line.hasOption(CommandLineOptions.SHORT_OPTION_BATCH))) {
+                logger.messageLogger()
+                        .logFormatted("A daemon or batch cannot be started %s.%n", nested.get());
+                return false;
+            }
+
+            if (line.hasOption(CommandLineOptions.SHORT_OPTION_DAEMON)) {
+                return runDaemon(line, config);
+            }
+
+            if (line.hasOption(CommandLineOptions.SHORT_OPTION_BATCH)) {
+                return runBatch(line, config);
+            }
+
+            if (line.hasOption(CommandLineOptions.SHORT_OPTION_GENERATE_CDS_ARCHIVE)) {
+                new CdsArchiveGenerator(logger.messageLogger())
+                        .generate(
+                                Paths.get(
+                                        line.getOptionValue(
+                                                CommandLineOptions
+                                                        .SHORT_OPTION_GENERATE_CDS_ARCHIVE)));
+                return true;
+            }
+
+            if (line.hasOption(CommandLineOptions.SHORT_OPTION_GENERATE_TASK_CATALOGUE)) {
+                return generateTaskCatalogue(
+                        Paths.get(
+                                line.getOptionValue(
+                                        CommandLineOptions.SHORT_OPTION_GENERATE_TASK_CATALOGUE)));
             }
 
             if (line.getArgs().length > 1) {
                 ErrorPrinter.printTooManyArguments();
-                return;
+                return false;
             }
 
-            processExperimentShowErrors(line, config, messagePrinter);
+            return processExperimentShowErrors(line, config, messagePrinter);
 
         } catch (ParseException e) {
             // Something went wrong
@@ -117,6 +179,125 @@ public class ParseArgumentsAndRunExperiment {
         } catch (AnchorFriendlyRuntimeException e) {
             logger.messageLogger().logFormatted(e.friendlyMessageHierarchy());
         }
+        return false;
+    }
+
+    /**
+     * Runs as a daemon, executing each command-line received, until the process is terminated.
+     *
+     * <p>Bean-factories and default configuration are initialized before any request is accepted.
+     *
+     * @param line the command-line for the daemon itself.
+     * @param config a configuration for the command-line executor.
+     * @return false, if the daemon could not be initialized. Otherwise, it never returns.
+     * @throws IOException if the daemon's socket cannot be created or used.
+     */
+    private boolean runDaemon(CommandLine line, LauncherConfig config) throws IOException {
+        if (!initialize(line, config)) {
+            return false;
+        }
+
+        Path socketPath = Paths.get(line.getOptionValue(CommandLineOptions.SHORT_OPTION_DAEMON));
+        new LauncherDaemon(socketPath, createOptions(config), logger.messageLogger())
+                .serve(arguments -> runNested(arguments, config, "from within a daemon"));
+        return true;
+    }
+
+    /**
+     * Executes each command-line in a batch manifest, in this process.
+     *
+     * <p>Bean-factories and default configuration are initialized once, before any command-line
+     * is executed.
+     *
+     * @param line the command-line for the batch itself.
+     * @param config a configuration for the command-line executor.
+     * @return true if every command-line in the batch succeeded.
+     * @throws IOException if the manifest cannot be read, or is malformed.
+     */
+    private boolean runBatch(CommandLine line, LauncherConfig config) throws IOException {
+        int concurrency = 1;
+        if (line.hasOption(CommandLineOptions.SHORT_OPTION_BATCH_CONCURRENCY)) {
+            String value = line.getOptionValue(CommandLineOptions.SHORT_OPTION_BATCH_CONCURRENCY);
+            try {
+                concurrency = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                concurrency = 0;
+            }
+            if (concurrency <= 0) {
+                logger.messageLogger()
+                        .logFormatted(
+                                "The batch concurrency must be a positive integer: %s%n", value);
+                return false;
+            }
+        }
+
+        List<BatchRecord> records =
+                ManifestReader.read(
+                        Paths.get(line.getOptionValue(CommandLineOptions.SHORT_OPTION_BATCH)));
+
+        if (!initialize(line, config)) {
+            return false;
+        }
+
+        return new BatchRunner(logger.messageLogger(), concurrency)
+                .run(records, arguments -> runNested(arguments, config, "in a batch"));
+    }
+
+    /**
+     * Writes a catalogue of the predefined tasks in a tasks directory.
+     *
+     * @param tasksDirectory the directory containing tasks.
+     * @return true if the catalogue was written, false if an error occurred.
+     * @throws IOException if the catalogue cannot be written.
+     */
+    private boolean generateTaskCatalogue(Path tasksDirectory) throws IOException {
+        try {
+            TaskCatalogue catalogue = TaskCatalogue.write(tasksDirectory);
+            logger.messageLogger()
+                    .logFormatted(
+                            "Wrote a catalogue of %d predefined tasks to %s%n",
+                            catalogue.getTasks().size(),
+                            tasksDirectory.resolve(TaskCatalogue.FILENAME));
+            return true;
+        } catch (InputReadFailedException e) {
+            logger.messageLogger()
+                    .logFormatted(
+                            "An error occurred searching for predefined tasks: %s%n",
+                            e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Registers bean-factories and loads the default configuration, logging any error.
+     *
+     * @return true if successful, false if an error occurred.
+     */
+    private boolean initialize(CommandLine line, LauncherConfig config) {
+        try {
+            config.createExperimentExecutor(line, defaultExperiment).initialize();
+            return true;
+        } catch (ExperimentExecutionException e) {
+            logger.messageLogger().log(e.friendlyMessageHierarchy());
+            return false;
+        }
+    }
+
+    /**
+     * Executes a command-line received by the daemon, or listed in a batch.
+     *
+     * <p>A new {@link Logger} is created, as standard-output may be redirected for each
+     * command-line.
+     *
+     * @param arguments arguments from the command-line.
+     * @param config a configuration for the command-line executor.
+     * @param context describes where the command-line originates, for an error message.
+     * @return true if the command-line was processed successfully, false if an error occurred.
+     */
+    private boolean runNested(String[] arguments, LauncherConfig config, String context) {
+        Logger loggerNested = new Logger(new ConsoleMessageLogger());
+        return new ParseArgumentsAndRunExperiment(loggerNested, defaultExperiment)
+                .parseAndRun(arguments, config, Optional.of(context));
     }
 
     /**
@@ -124,12 +305,14 @@ public class ParseArgumentsAndRunExperiment {
      * System.err
      *
      * @param line
+     * @return true if the experiment was processed successfully, false if an error occurred.
      */
-    private void processExperimentShowErrors(
+    private boolean processExperimentShowErrors(
             CommandLine line, LauncherConfig config, MessagePrinter messagePrinter) {
 
         try {
             processExperiment(line, logger, config, messagePrinter);
+            return true;
 
         } catch (ExperimentExecutionException e) {
 
@@ -148,6 +331,7 @@ public class ParseArgumentsAndRunExperiment {
                         .logFormatted("Logging error in \"%s\"%n", errorLogPath.toAbsolutePath());
                 ErrorPrinter.printErrorLog(e, errorLogPath);
             }
+            return false;
         }
     }
 
@@ -181,9 +365,10 @@ public class ParseArgumentsAndRunExperiment {
      * Create options for the command-line client, returning default options always available for
      * this class
      *
+     * @param config a configuration for the command-line executor.
      * @return the options that can be used
      */
-    private Options createOptions(LauncherConfig config) {
+    static Options createOptions(LauncherConfig config) {
         Options options = new Options();
         CommandLineOptions.addBasicOptions(options);
         config.addAdditionalOptions(options);
@@ -0,0 +1,134 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.anchoranalysis.core.log.MessageLogger;
+
+/**
+ * Executes each record of a batch manifest in the current process, and summarizes the outcomes.
+ *
+ * <p>Records are executed in the order they appear, one at a time, unless a greater concurrency is
+ * specified.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class BatchRunner {
+
+    /** Where to write the summary of outcomes. */
+    private final MessageLogger logger;
+
+    /** The maximum number of records to execute at the same time. */
+    private final int concurrency;
+
+    /** The outcome of executing a record. */
+    @Value
+    private static class Outcome {
+        private BatchRecord record;
+        private boolean succeeded;
+        private long milliseconds;
+    }
+
+    /**
+     * Executes all records, and then logs a summary of their outcomes.
+     *
+     * @param records the records to execute.
+     * @param runner executes the arguments of a record, returning true if it succeeded.
+     * @return true if every record succeeded.
+     */
+    public boolean run(List<BatchRecord> records, Predicate<String[]> runner) {
+        List<Outcome> outcomes = new ArrayList<>(records.size());
+        if (concurrency <= 1) {
+            for (BatchRecord record : records) {
+                outcomes.add(execute(record, runner));
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+            try {
+                List<Future<Outcome>> futures = new ArrayList<>(records.size());
+                for (BatchRecord record : records) {
+                    futures.add(executor.submit(() -> execute(record, runner)));
+                }
+                for (Future<Outcome> future : futures) {
+                    outcomes.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.log("The batch was interrupted before all records completed.");
+                return false;
+            } catch (ExecutionException e) {
+                // Only occurs for an unchecked exception, as the runner reports failure otherwise
+                throw new IllegalStateException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+        return summarize(outcomes);
+    }
+
+    private Outcome execute(BatchRecord record, Predicate<String[]> runner) {
+        long start = System.nanoTime();
+        boolean succeeded;
+        try {
+            succeeded = runner.test(record.getArguments());
+        } catch (RuntimeException e) {
+            // An unexpected failure in one record should not prevent the others from executing
+            logger.logFormatted(
+                    "An unexpected error occurred executing line %d: %s%n",
+                    record.getLineNumber(), e);
+            succeeded = false;
+        }
+        return new Outcome(record, succeeded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** Logs the outcome of each record, and the totals, returning true if all succeeded. */
+    private boolean summarize(List<Outcome> outcomes) {
+        int failed = 0;
+        logger.logFormatted("%nSummary of batch:%n");
+        for (Outcome outcome : outcomes) {
+            if (!outcome.isSucceeded()) {
+                failed++;
+            }
+            logger.logFormatted(
+                    "  line %d: %s in %d ms%n",
+                    outcome.getRecord().getLineNumber(),
+                    outcome.isSucceeded() ? "succeeded" : "FAILED",
+                    outcome.getMilliseconds());
+        }
+        logger.logFormatted(
+                "%d of %d records succeeded.%n", outcomes.size() - failed, outcomes.size());
+        return failed == 0;
+    }
+}
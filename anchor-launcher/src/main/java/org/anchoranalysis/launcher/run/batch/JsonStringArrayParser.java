@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.batch;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Parses a JSON array whose elements are all strings, such as {@code ["-i", "images/"]}.
+ *
+ * <p>This is deliberately minimal, to avoid a dependency on a JSON library for a single line of a
+ * manifest.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+class JsonStringArrayParser {
+
+    /** The JSON to parse. */
+    private final String json;
+
+    /** The index of the next character to read. */
+    private int position = 0;
+
+    /**
+     * Parses the elements of the array.
+     *
+     * @return the strings, in the order they appear in the array.
+     * @throws IllegalArgumentException if the JSON is not an array of strings.
+     */
+    public List<String> parse() {
+        List<String> elements = new ArrayList<>();
+        expect('[');
+        skipWhitespace();
+        if (peek() == ']') {
+            position++;
+        } else {
+            while (true) {
+                elements.add(parseString());
+                skipWhitespace();
+                char separator = next();
+                if (separator == ']') {
+                    break;
+                } else if (separator != ',') {
+                    throw new IllegalArgumentException(
+                            String.format("expected ',' or ']' at position %d", position - 1));
+                }
+            }
+        }
+        skipWhitespace();
+        if (position != json.length()) {
+            throw new IllegalArgumentException("unexpected characters after the array");
+        }
+        return elements;
+    }
+
+    private String parseString() {
+        expect('"');
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            char character = next();
+            if (character == '"') {
+                return builder.toString();
+            } else if (character == '\\') {
+                builder.append(parseEscape());
+            } else {
+                builder.append(character);
+            }
+        }
+    }
+
+    private char parseEscape() {
+        char character = next();
+        switch (character) {
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case 'u':
+                if (position + 4 > json.length()) {
+                    throw new IllegalArgumentException("an incomplete unicode escape");
+                }
+                String hex = json.substring(position, position + 4);
+                position += 4;
+                try {
+                    return (char) Integer.parseInt(hex, 16);
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("an invalid unicode escape: " + hex);
+                }
+            case '"', '\\', '/':
+                return character;
+            default:
+                throw new IllegalArgumentException("an invalid escape: \\" + character);
+        }
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if (next() != expected) {
+            throw new IllegalArgumentException(
+                    String.format("expected '%s' at position %d", expected, position - 1));
+        }
+    }
+
+    private void skipWhitespace() {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position))) {
+            position++;
+        }
+    }
+
+    private char peek() {
+        if (position >= json.length()) {
+            throw new IllegalArgumentException("the array is not closed");
+        }
+        return json.charAt(position);
+    }
+
+    private char next() {
+        char character = peek();
+        position++;
+        return character;
+    }
+}
@@ -0,0 +1,153 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.batch;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reads the records of a batch manifest, one per line.
+ *
+ * <p>Each line is either:
+ *
+ * <ul>
+ *   <li>a JSON array of strings e.g. {@code ["-i", "small images/", "-t", "resize"]}, or
+ *   <li>arguments separated by whitespace, as in a shell e.g. {@code -i "small images/" -t resize}.
+ *       Single or double quotes group whitespace into an argument, and a backslash escapes the next
+ *       character (outside single quotes).
+ * </ul>
+ *
+ * <p>Empty lines, and lines beginning with {@code #}, are ignored.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class ManifestReader {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private static final String JSON_PREFIX = "[";
+
+    /**
+     * Reads all records from a manifest file.
+     *
+     * @param manifest the path to the manifest, encoded in UTF-8.
+     * @return the records, in the order they appear in the manifest.
+     * @throws IOException if the file cannot be read, or a line is malformed.
+     */
+    public static List<BatchRecord> read(Path manifest) throws IOException {
+        return parse(Files.readAllLines(manifest, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parses records from the lines of a manifest.
+     *
+     * @param lines the lines of the manifest.
+     * @return the records, in the order they appear in {@code lines}.
+     * @throws IOException if a line is malformed.
+     */
+    public static List<BatchRecord> parse(List<String> lines) throws IOException {
+        List<BatchRecord> records = new ArrayList<>();
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                continue;
+            }
+            try {
+                List<String> arguments =
+                        line.startsWith(JSON_PREFIX)
+                                ? new JsonStringArrayParser(line).parse()
+                                : tokenize(line);
+                records.add(new BatchRecord(i + 1, arguments.toArray(String[]::new)));
+            } catch (IllegalArgumentException e) {
+                throw new IOException(
+                        String.format(
+                                "Line %d of the manifest is malformed: %s", i + 1, e.getMessage()),
+                        e);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Splits a line into arguments separated by whitespace, respecting quotes and escapes.
+     *
+     * @throws IllegalArgumentException if a quote is not closed, or the line ends with a backslash.
+     */
+    static List<String> tokenize(String line) {
+        List<String> arguments = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean inArgument = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char character = line.charAt(i);
+            if (quote == '\'') {
+                if (character == '\'') {
+                    quote = 0;
+                } else {
+                    current.append(character);
+                }
+            } else if (character == '\\') {
+                if (i + 1 == line.length()) {
+                    throw new IllegalArgumentException("the line ends with an escape character");
+                }
+                current.append(line.charAt(++i));
+                inArgument = true;
+            } else if (quote == '"') {
+                if (character == '"') {
+                    quote = 0;
+                } else {
+                    current.append(character);
+                }
+            } else if (character == '"' || character == '\'') {
+                quote = character;
+                inArgument = true;
+            } else if (Character.isWhitespace(character)) {
+                if (inArgument) {
+                    arguments.add(current.toString());
+                    current.setLength(0);
+                    inArgument = false;
+                }
+            } else {
+                current.append(character);
+                inArgument = true;
+            }
+        }
+        if (quote != 0) {
+            throw new IllegalArgumentException(String.format("a %s quote is not closed", quote));
+        }
+        if (inArgument) {
+            arguments.add(current.toString());
+        }
+        return arguments;
+    }
+}
@@ -0,0 +1,136 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.cds;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.anchoranalysis.core.log.MessageLogger;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Generates a dynamic <a href="https://openjdk.org/jeps/350">AppCDS</a> archive, and measures its
+ * effect on the start-up time.
+ *
+ * <p>A representative experiment is executed in a child JVM with {@code
+ * -XX:ArchiveClassesAtExit}, so every class loaded by the launcher, the bean-factories and the
+ * experiment is recorded in the archive. The archive is then used by passing {@code
+ * -XX:SharedArchiveFile} to later launches, with an identical class-path.
+ *
+ * <p>A child JVM is needed, as a JVM cannot dump an archive of its own loaded classes on demand.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor
+public class CdsArchiveGenerator {
+
+    /** How many times to execute the experiment with and without the archive, when benchmarking. */
+    private static final int NUMBER_BENCHMARK_REPETITIONS = 3;
+
+    /** Where to report progress and the benchmark. */
+    private final MessageLogger logger;
+
+    /**
+     * Generates an archive, and reports how it changes the time to execute a small experiment.
+     *
+     * @param archive the path to write the archive to. Any existing file is replaced.
+     * @throws IOException if the archive cannot be generated. The temporary directory containing
+     *     the console output of the child JVMs is then retained, to help diagnose the failure.
+     */
+    public void generate(Path archive) throws IOException {
+        Path archiveAbsolute = archive.toAbsolutePath().normalize();
+        Path directory = Files.createTempDirectory("anchorCds");
+        TrainingExperiment experiment = TrainingExperiment.createIn(directory);
+
+        logger.logFormatted("Generating class-data-sharing archive at: %s%n", archiveAbsolute);
+        Files.deleteIfExists(archiveAbsolute);
+        execute(experiment, Arrays.asList("-XX:ArchiveClassesAtExit=" + archiveAbsolute), 0);
+
+        if (!archiveAbsolute.toFile().exists()) {
+            throw new IOException(
+                    String.format(
+                            "The JVM did not write an archive, as class-data-sharing may be"
+                                    + " disabled. See %s",
+                            experiment.logPath(0)));
+        }
+
+        benchmark(experiment, archiveAbsolute);
+
+        logger.logFormatted(
+                "To use the archive, add this option to the JVM: -XX:SharedArchiveFile=%s%n",
+                archiveAbsolute);
+        FileUtils.deleteQuietly(directory.toFile());
+    }
+
+    /** Reports the median time to execute the experiment, with and without the archive. */
+    private void benchmark(TrainingExperiment experiment, Path archive) throws IOException {
+        long[] without = new long[NUMBER_BENCHMARK_REPETITIONS];
+        long[] with = new long[NUMBER_BENCHMARK_REPETITIONS];
+        List<String> optionsWith = Arrays.asList("-XX:SharedArchiveFile=" + archive);
+
+        // Alternate between the two, so any warming of the file-system cache affects both equally
+        for (int i = 0; i < NUMBER_BENCHMARK_REPETITIONS; i++) {
+            int run = (2 * i) + 1;
+            without[i] = execute(experiment, Collections.emptyList(), run);
+            with[i] = execute(experiment, optionsWith, run + 1);
+        }
+
+        long medianWithout = median(without);
+        long medianWith = median(with);
+        logger.logFormatted(
+                "Median time to complete a small experiment (over %d runs):%n"
+                        + "  without archive: %d ms%n"
+                        + "  with archive:    %d ms (%.0f%% faster)%n",
+                NUMBER_BENCHMARK_REPETITIONS,
+                medianWithout,
+                medianWith,
+                100.0 * (medianWithout - medianWith) / medianWithout);
+    }
+
+    /**
+     * Executes a run of the experiment in a child JVM, and checks it completed on every input.
+     *
+     * @return the elapsed wall-time in milliseconds.
+     */
+    private static long execute(TrainingExperiment experiment, List<String> jvmOptions, int run)
+            throws IOException {
+        long milliseconds =
+                ChildLauncher.execute(
+                        jvmOptions, experiment.launcherArguments(run), experiment.logPath(run));
+        experiment.checkCompleted(run);
+        return milliseconds;
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
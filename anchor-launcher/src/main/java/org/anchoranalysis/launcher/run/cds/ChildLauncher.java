@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.cds;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.anchoranalysis.launcher.Launch;
+
+/**
+ * Executes the launcher in a child JVM, with the same class-path and JVM options as the current
+ * process, plus any additional options.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class ChildLauncher {
+
+    /** JVM options in the current process that relate to class-data-sharing, and are not copied. */
+    private static final String[] OPTIONS_NOT_COPIED = {
+        "-XX:ArchiveClassesAtExit", "-XX:SharedArchiveFile", "-Xshare"
+    };
+
+    /**
+     * Executes the launcher in a child JVM, and waits until it completes.
+     *
+     * @param jvmOptions additional options for the JVM.
+     * @param arguments command-line arguments for the launcher.
+     * @param log where to write the standard-output and standard-error of the child.
+     * @return the elapsed wall-time in milliseconds.
+     * @throws IOException if the child cannot be started, or exits with a non-zero status.
+     */
+    public static long execute(List<String> jvmOptions, String[] arguments, Path log)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (isCopied(option)) {
+                command.add(option);
+            }
+        }
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Launch.class.getName());
+        command.addAll(Arrays.asList(arguments));
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.redirectErrorStream(true);
+        builder.redirectOutput(log.toFile());
+
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            int exitValue = process.waitFor();
+            if (exitValue != 0) {
+                throw new IOException(
+                        String.format(
+                                "The child process exited with status %d. See %s",
+                                exitValue, log));
+            }
+        } catch (InterruptedException e) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the child process", e);
+        }
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private static boolean isCopied(String option) {
+        return Arrays.stream(OPTIONS_NOT_COPIED).noneMatch(option::startsWith);
+    }
+}
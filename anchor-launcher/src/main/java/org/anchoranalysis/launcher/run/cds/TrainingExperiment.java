@@ -0,0 +1,131 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.cds;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+
+/**
+ * A representative experiment, over synthetic inputs, used to record which classes are loaded.
+ *
+ * <p>It uses the default experiment, but replaces the task with {@link TrainingTask}, and the
+ * inputs with several small files in a temporary directory.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+class TrainingExperiment {
+
+    /** How many synthetic inputs to create. */
+    private static final int NUMBER_INPUTS = 4;
+
+    /** BeanXML for a task that executes {@link TrainingTask}, formatted with its directory. */
+    private static final String TASK_XML =
+            "<?xml version=\"1.0\" encoding=\"ISO-8859-1\" ?>%n"
+                    + "<config>%n<bean config-class=\"%s\" completedDirectory=\"%s\"/>%n"
+                    + "</config>%n";
+
+    /** The directory in which the inputs, task and outputs reside. */
+    private final Path directory;
+
+    /**
+     * Creates the inputs and task for the experiment in {@code directory}.
+     *
+     * @param directory an existing empty directory.
+     * @return the created experiment.
+     * @throws IOException if the files cannot be written.
+     */
+    public static TrainingExperiment createIn(Path directory) throws IOException {
+        Files.createDirectories(directory.resolve("input"));
+        for (int i = 0; i < NUMBER_INPUTS; i++) {
+            Files.writeString(
+                    directory.resolve("input").resolve(String.format("input%02d.txt", i)),
+                    "A synthetic input.");
+        }
+        Path completed = Files.createDirectories(directory.resolve("completed"));
+        Files.writeString(
+                directory.resolve("task.xml"),
+                String.format(TASK_XML, TrainingTask.class.getName(), completed),
+                StandardCharsets.UTF_8);
+        return new TrainingExperiment(directory);
+    }
+
+    /**
+     * Checks that a run completed on every input, and resets for the next run.
+     *
+     * @param run a number identifying the run.
+     * @throws IOException if the run did not complete on every input, or the check fails.
+     */
+    public void checkCompleted(int run) throws IOException {
+        int numberCompleted = 0;
+        try (Stream<Path> files = Files.list(directory.resolve("completed"))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.delete(file);
+                numberCompleted++;
+            }
+        }
+        if (numberCompleted != NUMBER_INPUTS) {
+            throw new IOException(
+                    String.format(
+                            "The experiment completed on %d of %d inputs. See %s",
+                            numberCompleted, NUMBER_INPUTS, logPath(run)));
+        }
+    }
+
+    /**
+     * Command-line arguments for the launcher to execute the experiment.
+     *
+     * @param run a number identifying the run, so each run writes to a separate output directory.
+     * @return the arguments.
+     */
+    public String[] launcherArguments(int run) {
+        return new String[] {
+            "-" + CommandLineOptions.SHORT_OPTION_INPUT,
+            directory.resolve("input").resolve("*.txt").toString(),
+            "-" + CommandLineOptions.SHORT_OPTION_TASK,
+            directory.resolve("task.xml").toString(),
+            "-" + CommandLineOptions.SHORT_OPTION_OUTPUT,
+            directory.resolve("output" + run).toString() + "/",
+            "-" + CommandLineOptions.SHORT_OPTION_OUTPUT_CONSOLE_ONLY
+        };
+    }
+
+    /**
+     * A path to write the console output of a run to.
+     *
+     * @param run a number identifying the run.
+     * @return the path.
+     */
+    public Path logPath(int run) {
+        return directory.resolve(String.format("run%d.log", run));
+    }
+}
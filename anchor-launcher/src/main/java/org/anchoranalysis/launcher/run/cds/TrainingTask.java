@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.cds;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import lombok.Getter;
+import lombok.Setter;
+import org.anchoranalysis.bean.annotation.BeanField;
+import org.anchoranalysis.experiment.JobExecutionException;
+import org.anchoranalysis.experiment.task.InputBound;
+import org.anchoranalysis.experiment.task.NoSharedState;
+import org.anchoranalysis.io.input.InputFromManager;
+import org.anchoranalysis.launcher.run.tasks.HelloWorld;
+
+/**
+ * Like {@link HelloWorld}, but additionally creates a file in a directory for each input that
+ * completes, so the {@link TrainingExperiment} can check every input completed.
+ *
+ * <p>The child JVM exits successfully, even if individual jobs fail, so its exit status alone does
+ * not show the experiment completed.
+ *
+ * @param <S> the type of {@link InputFromManager} expected
+ * @author Owen Feehan
+ */
+public class TrainingTask<S extends InputFromManager> extends HelloWorld<S> {
+
+    // START BEAN PROPERTIES
+    /** The directory in which a file is created for each input that completes. */
+    @BeanField @Getter @Setter private String completedDirectory;
+    // END BEAN PROPERTIES
+
+    @Override
+    public void doJobOnInput(InputBound<S, NoSharedState> input) throws JobExecutionException {
+        super.doJobOnInput(input);
+        try {
+            Files.createTempFile(Path.of(completedDirectory), "completed", "");
+        } catch (IOException e) {
+            throw new JobExecutionException("Cannot record that the input completed", e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.daemon;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * A thin client that forwards a command-line to a {@link LauncherDaemon}, and prints its output.
+ *
+ * <p>The first argument is the path to the daemon's Unix-domain socket. All remaining arguments
+ * are forwarded, as if they had been passed to the {@code anchor} command.
+ *
+ * <p>The client exits with the status of the command-line, or a failure status if the daemon
+ * cannot be reached.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class DaemonClient {
+
+    /**
+     * Entry point for the client.
+     *
+     * @param args the path to the socket, followed by the arguments to forward.
+     */
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Forwards a command-line to the daemon, and prints its output.
+     *
+     * @param args the path to the socket, followed by the arguments to forward.
+     * @return the exit status.
+     */
+    private static int run(String[] args) {
+        if (args.length == 0) {
+            System.err.println( // NOSONAR
+                    "Please pass the path to the daemon's socket, followed by any arguments.");
+            return DaemonProtocol.STATUS_FAILURE;
+        }
+
+        String[] forwarded = Arrays.copyOfRange(args, 1, args.length);
+        String workingDirectory = Paths.get("").toAbsolutePath().normalize().toString();
+
+        try (SocketChannel channel =
+                SocketChannel.open(UnixDomainSocketAddress.of(Paths.get(args[0])))) {
+            channel.write(ByteBuffer.wrap(DaemonProtocol.encode(workingDirectory, forwarded)));
+            channel.shutdownOutput();
+            return DaemonProtocol.copyResponse(
+                    Channels.newInputStream(channel), System.out); // NOSONAR
+        } catch (IOException e) {
+            System.err.printf( // NOSONAR
+                    "Cannot communicate with a daemon via the socket at %s: %s%n", args[0], e);
+            return DaemonProtocol.STATUS_FAILURE;
+        }
+    }
+}
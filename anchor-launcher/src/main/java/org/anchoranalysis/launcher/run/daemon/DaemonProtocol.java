@@ -0,0 +1,162 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.daemon;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Encodes and decodes the requests sent from a client to a {@link LauncherDaemon}, and its
+ * responses.
+ *
+ * <p>A request is a sequence of UTF-8 strings, each terminated by a {@code NUL} character. The
+ * first string is the working-directory of the client, and each subsequent string is a
+ * command-line argument.
+ *
+ * <p>A response is the output of executing the command-line, followed by a {@code NUL} character
+ * and the exit status as a single ASCII digit, {@value #STATUS_SUCCESS} if the command-line
+ * succeeded, otherwise {@value #STATUS_FAILURE}.
+ *
+ * <p>This is deliberately simple, so that a request can also be sent from a shell, without a JVM
+ * e.g. {@code printf '%s\0' "$PWD" "$@" | nc -N -U /path/to/socket}.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class DaemonProtocol {
+
+    /** The exit status when a command-line succeeds. */
+    public static final int STATUS_SUCCESS = 0;
+
+    /** The exit status when a command-line fails, or no complete response is received. */
+    public static final int STATUS_FAILURE = 1;
+
+    /** The character that terminates each string in a request, and precedes a status. */
+    private static final char TERMINATOR = '\0';
+
+    /** The number of bytes in the status that ends a response. */
+    private static final int STATUS_LENGTH = 2;
+
+    /**
+     * Encodes a request.
+     *
+     * @param workingDirectory the working-directory of the client.
+     * @param arguments the command-line arguments.
+     * @return the bytes to send to the daemon.
+     */
+    public static byte[] encode(String workingDirectory, String[] arguments) {
+        StringBuilder builder = new StringBuilder();
+        appendElement(builder, workingDirectory);
+        for (String argument : arguments) {
+            appendElement(builder, argument);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a request.
+     *
+     * <p>Any trailing characters without a terminator are treated as a final element.
+     *
+     * @param bytes the bytes received by the daemon.
+     * @return the elements of the request, the working-directory first, followed by each argument.
+     */
+    public static List<String> decode(byte[] bytes) {
+        String request = new String(bytes, StandardCharsets.UTF_8);
+        List<String> elements = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < request.length(); i++) {
+            if (request.charAt(i) == TERMINATOR) {
+                elements.add(request.substring(start, i));
+                start = i + 1;
+            }
+        }
+        if (start < request.length()) {
+            elements.add(request.substring(start));
+        }
+        return elements;
+    }
+
+    /**
+     * Encodes the status that ends a response.
+     *
+     * @param succeeded whether the command-line succeeded.
+     * @return the bytes to send to the client, after any output.
+     */
+    public static byte[] encodeStatus(boolean succeeded) {
+        int status = succeeded ? STATUS_SUCCESS : STATUS_FAILURE;
+        return new byte[] {(byte) TERMINATOR, (byte) ('0' + status)};
+    }
+
+    /**
+     * Copies the output in a response, and decodes the status that ends it.
+     *
+     * @param response the response received from the daemon.
+     * @param output where the output is copied to, excluding the status.
+     * @return the exit status, or {@link #STATUS_FAILURE} if the response ends without a status,
+     *     in which case everything received is copied.
+     * @throws IOException if the response cannot be read, or the output cannot be written.
+     */
+    public static int copyResponse(InputStream response, OutputStream output) throws IOException {
+        // The final bytes are held back, as they may be the status
+        byte[] buffer = new byte[8192];
+        int held = 0;
+        int read;
+        while ((read = response.read(buffer, held, buffer.length - held)) != -1) {
+            int available = held + read;
+            int copied = available - STATUS_LENGTH;
+            if (copied > 0) {
+                output.write(buffer, 0, copied);
+                System.arraycopy(buffer, copied, buffer, 0, STATUS_LENGTH);
+                held = STATUS_LENGTH;
+            } else {
+                held = available;
+            }
+        }
+        if (held == STATUS_LENGTH
+                && buffer[0] == TERMINATOR
+                && buffer[1] >= '0'
+                && buffer[1] <= '9') {
+            output.flush();
+            return buffer[1] - '0';
+        } else {
+            output.write(buffer, 0, held);
+            output.flush();
+            return STATUS_FAILURE;
+        }
+    }
+
+    private static void appendElement(StringBuilder builder, String element) {
+        builder.append(element);
+        builder.append(TERMINATOR);
+    }
+}
@@ -0,0 +1,277 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.daemon;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import org.anchoranalysis.core.log.MessageLogger;
+import org.anchoranalysis.launcher.executor.selectparam.path.WorkingDirectoryArguments;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.apache.commons.cli.Options;
+
+/**
+ * A long-lived process that executes command-lines received on a Unix-domain socket.
+ *
+ * <p>This avoids the cost of starting a JVM, loading classes and registering bean-factories on
+ * every invocation, as these occur only once, when the daemon starts.
+ *
+ * <p>Each request is encoded as described in {@link DaemonProtocol}. Anything written to
+ * standard-output or standard-error while executing the request is sent back to the client,
+ * followed by whether the command-line succeeded, after which the connection is closed.
+ *
+ * <p>Requests are served one at a time, as {@link System#out} and {@link System#err} are
+ * redirected for the duration of each request. A client that does not send a complete request
+ * within a timeout is disconnected, so it cannot block later requests.
+ *
+ * <p>As a JVM cannot change its working-directory, any relative paths in a request are resolved
+ * against the client's working-directory, as described in {@link WorkingDirectoryArguments}. A
+ * request from another working-directory is refused if it would search for inputs in the
+ * daemon's working-directory, i.e. without {@code -i}, or with file-extensions only.
+ *
+ * @author Owen Feehan
+ */
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class LauncherDaemon {
+
+    /** How long to wait for a client to send a complete request, by default. */
+    private static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    /** Path of the Unix-domain socket to listen on. */
+    private final Path socketPath;
+
+    /** The options a command-line is parsed with, to identify which of its arguments are paths. */
+    private final Options options;
+
+    /** Logs messages about the daemon itself, but not about the command-lines it executes. */
+    private final MessageLogger logger;
+
+    /** How long to wait for a client to send a complete request. */
+    private final Duration requestTimeout;
+
+    /**
+     * Creates a daemon, waiting {@link #DEFAULT_REQUEST_TIMEOUT} for each request.
+     *
+     * @param socketPath path of the Unix-domain socket to listen on.
+     * @param options the options a command-line is parsed with.
+     * @param logger logs messages about the daemon itself, but not about the command-lines it
+     *     executes.
+     */
+    public LauncherDaemon(Path socketPath, Options options, MessageLogger logger) {
+        this(socketPath, options, logger, DEFAULT_REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Listens for requests, and executes each, until the process is terminated.
+     *
+     * <p>Any existing socket at {@code socketPath}, e.g. left by a daemon that was killed, is
+     * replaced. Any other existing file is never deleted, and the daemon refuses to start.
+     *
+     * @param runner executes the arguments of a command-line, returning true if it succeeded.
+     * @throws IOException if the socket cannot be created or accepting a connection fails, or a
+     *     file other than a socket exists at {@code socketPath}.
+     */
+    public void serve(Predicate<String[]> runner) throws IOException {
+        deleteExistingSocket();
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            socketPath.toFile().deleteOnExit();
+            logger.logFormatted("Listening for command-lines on %s%n", socketPath);
+
+            while (server.isOpen()) {
+                SocketChannel channel = server.accept();
+                try (channel) {
+                    serveRequest(channel, runner);
+                } catch (IOException e) {
+                    // A client that disconnects early ends only its own request
+                    logger.logFormatted("A request could not be served: %s%n", e);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(socketPath);
+        }
+    }
+
+    /** Deletes any existing socket at {@code socketPath}, refusing to delete any other file. */
+    private void deleteExistingSocket() throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes =
+                    Files.readAttributes(
+                            socketPath, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        // A socket is neither a regular file, directory, nor symbolic link
+        if (!attributes.isOther()) {
+            throw new IOException(
+                    String.format(
+                            "A file that is not a socket already exists at %s, and is not replaced.",
+                            socketPath));
+        }
+        Files.delete(socketPath);
+    }
+
+    /**
+     * Reads a single request from {@code channel}, executes it, and sends back any output and
+     * whether it succeeded.
+     */
+    private void serveRequest(SocketChannel channel, Predicate<String[]> runner)
+            throws IOException {
+        Optional<byte[]> request = readRequest(channel);
+
+        PrintStream out =
+                new PrintStream(Channels.newOutputStream(channel), true, StandardCharsets.UTF_8);
+
+        boolean succeeded = false;
+        if (!request.isPresent()) {
+            out.printf(
+                    "Error: no complete request was received by the daemon within %d seconds.%n",
+                    requestTimeout.toSeconds());
+        } else {
+            succeeded = executeRequest(DaemonProtocol.decode(request.get()), runner, out);
+        }
+        out.write(DaemonProtocol.encodeStatus(succeeded));
+        out.flush();
+    }
+
+    /**
+     * Executes a decoded request, resolving any relative paths against the client's
+     * working-directory.
+     *
+     * @return true if the command-line succeeded.
+     */
+    private boolean executeRequest(
+            List<String> elements, Predicate<String[]> runner, PrintStream out) {
+        if (elements.isEmpty()) {
+            out.println("Error: an empty request was received by the daemon.");
+            return false;
+        }
+
+        Path workingDirectory = Paths.get(elements.get(0));
+        String[] arguments = elements.subList(1, elements.size()).toArray(String[]::new);
+        if (!workingDirectory.equals(currentWorkingDirectory())) {
+            if (WorkingDirectoryArguments.searchesWorkingDirectory(arguments, options)) {
+                out.printf(
+                        "Error: inputs must be specified with -%s as a directory, glob, file or BeanXML, as otherwise they are searched for in the daemon's working-directory %s, rather than %s.%n",
+                        CommandLineOptions.SHORT_OPTION_INPUT,
+                        currentWorkingDirectory(),
+                        workingDirectory);
+                return false;
+            }
+            arguments = WorkingDirectoryArguments.resolve(arguments, workingDirectory, options);
+        }
+        return executeRedirected(arguments, runner, out);
+    }
+
+    /**
+     * Reads a request, until the client ends its output.
+     *
+     * @return the request, or {@link Optional#empty} if the client did not end its output within
+     *     {@code requestTimeout}.
+     */
+    private Optional<byte[]> readRequest(SocketChannel channel) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long deadline = System.nanoTime() + requestTimeout.toNanos();
+        channel.configureBlocking(false);
+        try {
+            try (Selector selector = Selector.open()) {
+                channel.register(selector, SelectionKey.OP_READ);
+                while (true) {
+                    int read;
+                    while ((read = channel.read(buffer)) > 0) {
+                        request.write(buffer.array(), 0, buffer.position());
+                        buffer.clear();
+                    }
+                    if (read == -1) {
+                        return Optional.of(request.toByteArray());
+                    }
+                    long remaining =
+                            TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        return Optional.empty();
+                    }
+                    selector.select(remaining);
+                    selector.selectedKeys().clear();
+                }
+            }
+        } finally {
+            // Closing the selector deregisters the channel, so it can block again for the output
+            channel.configureBlocking(true);
+        }
+    }
+
+    /**
+     * Executes {@code arguments}, redirecting standard-output and -error to {@code out}.
+     *
+     * @return true if the command-line succeeded.
+     */
+    private static boolean executeRedirected(
+            String[] arguments, Predicate<String[]> runner, PrintStream out) {
+        PrintStream previousOut = System.out; // NOSONAR
+        PrintStream previousErr = System.err; // NOSONAR
+        System.setOut(out);
+        System.setErr(out);
+        try {
+            return runner.test(arguments);
+        } catch (RuntimeException e) { // NOSONAR
+            // Any unexpected failure is reported to the client, rather than ending the daemon.
+            out.printf("An unexpected error occurred: %s%n", e);
+            return false;
+        } finally {
+            out.flush();
+            System.setOut(previousOut);
+            System.setErr(previousErr);
+        }
+    }
+
+    private static Path currentWorkingDirectory() {
+        return Paths.get("").toAbsolutePath().normalize();
+    }
+}
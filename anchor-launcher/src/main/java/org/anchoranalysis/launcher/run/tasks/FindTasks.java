@@ -54,7 +54,23 @@ class FindTasks {
     private static final String IGNORE_SUBDIRECTORY = "include/";
 
     /**
-     * All task-names.
+     * All task-names, from the task catalogue if it is fresh, or otherwise by searching.
+     *
+     * @param tasksDirectory the {@link Path} to the directory containing tasks
+     * @return a {@link Stream} of task names
+     * @throws InputReadFailedException if there's an error reading the input
+     */
+    public static Stream<String> taskNames(Path tasksDirectory) throws InputReadFailedException {
+        Optional<TaskCatalogue> catalogue = TaskCatalogue.loadIfFresh(tasksDirectory);
+        if (catalogue.isPresent()) {
+            return catalogue.get().taskNames();
+        } else {
+            return taskNamesBySearching(tasksDirectory);
+        }
+    }
+
+    /**
+     * All task-names, by recursively searching the tasks directory.
      *
      * <p>The name is:
      *
@@ -68,7 +84,8 @@ class FindTasks {
      * @return a {@link Stream} of task names
      * @throws InputReadFailedException if there's an error reading the input
      */
-    public static Stream<String> taskNames(Path tasksDirectory) throws InputReadFailedException {
+    public static Stream<String> taskNamesBySearching(Path tasksDirectory)
+            throws InputReadFailedException {
         // Note that on some systems, for currently undiagnoses reasons, the tasks identifiers
         // emerge
         //  with leading . and .. relative-path elements. As a workaround, these are filtered from
@@ -28,6 +28,7 @@ package org.anchoranalysis.launcher.run.tasks;
 import com.google.common.collect.Multimap;
 import java.io.PrintStream;
 import java.nio.file.Path;
+import java.util.List;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.anchoranalysis.io.input.InputReadFailedException;
@@ -42,6 +43,9 @@ import org.anchoranalysis.launcher.resources.Resources;
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class PredefinedTasks {
 
+    /** The maximum number of similar task-names to suggest, for a task-name that is not known. */
+    private static final int MAX_NUMBER_SUGGESTIONS = 3;
+
     /**
      * Prints names of the predefined tasks that are available to the application.
      *
@@ -69,6 +73,24 @@ public class PredefinedTasks {
         }
     }
 
+    /**
+     * The names of the predefined tasks most similar to a task-name that is not known.
+     *
+     * @param taskName the task-name that is not known.
+     * @param tasksDirectory the directory in which the task XML files reside.
+     * @return up to {@value #MAX_NUMBER_SUGGESTIONS} similar names, most similar first, or an empty
+     *     list if none are similar, or the predefined tasks cannot be found.
+     */
+    public static List<String> similarTaskNames(String taskName, Path tasksDirectory) {
+        try {
+            return SimilarTaskNames.mostSimilar(
+                    taskName, FindTasks.taskNames(tasksDirectory), MAX_NUMBER_SUGGESTIONS);
+        } catch (InputReadFailedException e) {
+            // Suggestions are only a convenience
+            return List.of();
+        }
+    }
+
     private static void printHelpfulTextAdvice(PrintStream printTo, Resources resources) {
         printTo.printf(
                 "Run a predefined task with the -%s <taskName> command line option.%n",
@@ -0,0 +1,104 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.tasks;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import lombok.Value;
+
+/**
+ * Finds the task-names most similar to a name that is not known, to suggest as alternatives.
+ *
+ * <p>Similarity is the <a href="https://en.wikipedia.org/wiki/Levenshtein_distance">Levenshtein
+ * distance</a>, ignoring case.
+ *
+ * @author Owen Feehan
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+class SimilarTaskNames {
+
+    /**
+     * The most similar names.
+     *
+     * <p>Only names within a distance of a third of the length of {@code name} (and at least one)
+     * are suggested, so unrelated names are never suggested.
+     *
+     * @param name the name that is not known.
+     * @param candidates the known names.
+     * @param maxNumber the maximum number of names to return.
+     * @return the most similar names, most similar first, and alphabetically when equally similar.
+     */
+    public static List<String> mostSimilar(String name, Stream<String> candidates, int maxNumber) {
+        int maxDistance = Math.max(1, name.length() / 3);
+        String nameLower = name.toLowerCase();
+        return candidates
+                .map(
+                        candidate ->
+                                new Scored(
+                                        candidate, distance(nameLower, candidate.toLowerCase())))
+                .filter(scored -> scored.getDistance() <= maxDistance)
+                .sorted(
+                        Comparator.comparingInt(Scored::getDistance)
+                                .thenComparing(Scored::getName))
+                .limit(maxNumber)
+                .map(Scored::getName)
+                .collect(Collectors.toList());
+    }
+
+    /** The Levenshtein distance between two strings, keeping only two rows of the matrix. */
+    static int distance(String first, String second) {
+        int[] previous = new int[second.length() + 1];
+        int[] current = new int[second.length() + 1];
+        for (int j = 0; j <= second.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= first.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= second.length(); j++) {
+                int substitution = first.charAt(i - 1) == second.charAt(j - 1) ? 0 : 1;
+                current[j] =
+                        Math.min(
+                                Math.min(current[j - 1] + 1, previous[j] + 1),
+                                previous[j - 1] + substitution);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[second.length()];
+    }
+
+    /** A candidate name with its distance. */
+    @Value
+    private static class Scored {
+        private String name;
+        private int distance;
+    }
+}
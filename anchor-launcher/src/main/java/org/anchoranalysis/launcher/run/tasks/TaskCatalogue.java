@@ -0,0 +1,271 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.tasks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.anchoranalysis.core.format.NonImageFileFormat;
+import org.anchoranalysis.io.input.InputReadFailedException;
+
+/**
+ * A catalogue of the predefined tasks, stored as a file in the tasks directory.
+ *
+ * <p>The catalogue is generated when the tasks are packaged, so the launcher can read the task
+ * names from a single file, rather than recursively searching the tasks directory each time a task
+ * is listed or validated.
+ *
+ * <p>It is a tab-separated text file. Each line begins with its kind:
+ *
+ * <ul>
+ *   <li>{@code directory}, followed by the path of a directory (relative to the tasks directory)
+ *       that was searched.
+ *   <li>{@code task}, followed by the task's name, path (relative to the tasks directory), the
+ *       type of its inputs (as declared in its XML, or empty if unknown) and a short description
+ *       (its first XML comment, or empty if none).
+ * </ul>
+ *
+ * <p>The catalogue is stale, and ignored, if any of its directories or tasks was modified after
+ * the catalogue was written. Adding, removing or renaming a task alters the modification-time of
+ * the containing directory, whereas editing a task in place (which may change its input-type or
+ * description) alters only the modification-time of the task's file. This is checked without
+ * listing any directory.
+ *
+ * @author Owen Feehan
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class TaskCatalogue {
+
+    /** The name of the catalogue file, in the tasks directory. */
+    public static final String FILENAME = "taskCatalogue.tsv";
+
+    private static final String HEADER = "# anchor task catalogue 1";
+
+    private static final String KIND_DIRECTORY = "directory";
+    private static final String KIND_TASK = "task";
+
+    private static final String SEPARATOR = "\t";
+
+    /** The name of the XML element whose type describes the inputs of a task. */
+    private static final String ELEMENT_INPUT = "input";
+
+    /** The XML attribute that declares the type of a bean. */
+    private static final String ATTRIBUTE_TYPE = "config-class";
+
+    /** A predefined task, as recorded in the catalogue. */
+    @Value
+    public static class Task {
+
+        /** The name of the task, as used with the {@code -t} option. */
+        private String name;
+
+        /** The path to the task's XML, relative to the tasks directory. */
+        private String path;
+
+        /** The type of the task's inputs, as declared in its XML, or empty if unknown. */
+        private String inputType;
+
+        /** A short description of the task, or empty if none exists. */
+        private String description;
+    }
+
+    /** The tasks in the catalogue, in alphabetical order of name. */
+    @Getter private final List<Task> tasks;
+
+    /**
+     * Loads the catalogue from a tasks directory, if it exists and is not stale.
+     *
+     * @param tasksDirectory the directory containing tasks.
+     * @return the catalogue, or {@link Optional#empty} if it does not exist, cannot be read, or is
+     *     stale.
+     */
+    public static Optional<TaskCatalogue> loadIfFresh(Path tasksDirectory) {
+        Path path = tasksDirectory.resolve(FILENAME);
+        try {
+            if (!path.toFile().exists()) {
+                return Optional.empty();
+            }
+            long written = Files.getLastModifiedTime(path).toMillis();
+            List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !lines.get(0).equals(HEADER)) {
+                return Optional.empty();
+            }
+
+            List<Task> tasks = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                String[] fields = line.split(SEPARATOR, -1);
+                if (fields[0].equals(KIND_DIRECTORY)) {
+                    if (isModifiedAfter(tasksDirectory.resolve(fields[1]), written)) {
+                        return Optional.empty();
+                    }
+                } else if (fields[0].equals(KIND_TASK) && fields.length == 5) {
+                    if (isModifiedAfter(tasksDirectory.resolve(fields[2]), written)) {
+                        return Optional.empty();
+                    }
+                    tasks.add(new Task(fields[1], fields[2], fields[3], fields[4]));
+                }
+            }
+            return Optional.of(new TaskCatalogue(tasks));
+        } catch (IOException e) {
+            // An unreadable catalogue is treated as absent, as the tasks can still be searched
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Writes a catalogue, by searching a tasks directory, replacing any existing catalogue.
+     *
+     * @param tasksDirectory the directory containing tasks, in which the catalogue is written.
+     * @return the written catalogue.
+     * @throws InputReadFailedException if the tasks directory cannot be searched.
+     * @throws IOException if the catalogue cannot be written.
+     */
+    public static TaskCatalogue write(Path tasksDirectory)
+            throws InputReadFailedException, IOException {
+        List<Task> tasks = new ArrayList<>();
+        List<String> names =
+                FindTasks.taskNamesBySearching(tasksDirectory)
+                        .sorted()
+                        .collect(Collectors.toList());
+        for (String name : names) {
+            Path path = NonImageFileFormat.XML.buildPath(tasksDirectory, name);
+            tasks.add(describeTask(name, tasksDirectory.relativize(path).toString(), path));
+        }
+
+        // Written to a temporary file first, so a partially-written catalogue is never read
+        Path temporary = Files.createTempFile(tasksDirectory, "taskCatalogue", ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+            for (Path directory : allDirectories(tasksDirectory)) {
+                writeLine(writer, KIND_DIRECTORY, tasksDirectory.relativize(directory).toString());
+            }
+            for (Task task : tasks) {
+                writeLine(
+                        writer,
+                        KIND_TASK,
+                        task.getName(),
+                        task.getPath(),
+                        task.getInputType(),
+                        task.getDescription());
+            }
+        }
+        Path path = tasksDirectory.resolve(FILENAME);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+
+        // Moving the catalogue modified the tasks directory, which would otherwise make the
+        // catalogue appear stale
+        long modified =
+                Math.max(
+                        System.currentTimeMillis(),
+                        Files.getLastModifiedTime(tasksDirectory).toMillis());
+        Files.setLastModifiedTime(path, FileTime.fromMillis(modified));
+        return new TaskCatalogue(tasks);
+    }
+
+    /**
+     * The names of the tasks in the catalogue.
+     *
+     * @return a stream of names, in alphabetical order.
+     */
+    public Stream<String> taskNames() {
+        return tasks.stream().map(Task::getName);
+    }
+
+    /** Describes a task, by reading its XML, leaving fields empty if the XML cannot be read. */
+    private static Task describeTask(String name, String relativePath, Path path) {
+        String inputType = "";
+        String description = "";
+        try (InputStream stream = Files.newInputStream(path)) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(stream);
+            try {
+                while (reader.hasNext() && inputType.isEmpty()) {
+                    int event = reader.next();
+                    if (event == XMLStreamReader.COMMENT && description.isEmpty()) {
+                        description = collapseWhitespace(reader.getText());
+                    } else if (event == XMLStreamReader.START_ELEMENT
+                            && reader.getLocalName().equals(ELEMENT_INPUT)) {
+                        inputType = simpleName(reader.getAttributeValue(null, ATTRIBUTE_TYPE));
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (IOException | XMLStreamException e) {
+            // The task is still catalogued, but without a description or input-type
+        }
+        return new Task(name, relativePath, inputType, description);
+    }
+
+    private static List<Path> allDirectories(Path tasksDirectory) throws IOException {
+        try (Stream<Path> paths = Files.walk(tasksDirectory)) {
+            return paths.filter(path -> Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /** Whether a directory or file was modified after {@code time}, or no longer exists. */
+    private static boolean isModifiedAfter(Path path, long time) throws IOException {
+        return !path.toFile().exists() || Files.getLastModifiedTime(path).toMillis() > time;
+    }
+
+    private static void writeLine(BufferedWriter writer, String... fields) throws IOException {
+        writer.write(String.join(SEPARATOR, fields));
+        writer.newLine();
+    }
+
+    /** The type without any package, or empty if {@code type} is null. */
+    private static String simpleName(String type) {
+        if (type == null) {
+            return "";
+        }
+        return collapseWhitespace(type.substring(type.lastIndexOf('.') + 1));
+    }
+
+    /** Replaces any tabs, newlines or runs of spaces by a single space, as fields are one line. */
+    private static String collapseWhitespace(String text) {
+        return text.trim().replaceAll("\\s+", " ");
+    }
+}
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.options.CommandLineExtracter;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.anchoranalysis.launcher.options.process.AddInputEnumerationOptions;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the maximum number of processors derived by {@link LauncherConfigCommandLine}, and which
+ * options can be combined with, or require, executing in batches.
+ *
+ * @author Owen Feehan
+ */
+class LauncherConfigCommandLineTest {
+
+    @Test
+    void testProcessors() throws ParseException {
+        assertEquals(3, maxProcessors("-tp", "3"));
+    }
+
+    @Test
+    void testAllProcessors() throws ParseException {
+        assertEquals(Runtime.getRuntime().availableProcessors(), maxProcessors());
+        assertEquals(Runtime.getRuntime().availableProcessors(), maxProcessors("-tp", "auto"));
+    }
+
+    /** A limit would otherwise apply to each batch separately. */
+    @Test
+    void testLimitRejectedInBatches() {
+        assertThrows(
+                ExperimentExecutionException.class,
+                () -> checkNotLimitedPerBatch(false, "-il", "100", "-ib", "10"));
+        assertThrows(
+                ExperimentExecutionException.class,
+                () -> checkNotLimitedPerBatch(false, "-is", "-iq", "queue"));
+        assertThrows(
+                ExperimentExecutionException.class, () -> checkNotLimitedPerBatch(true, "-is"));
+    }
+
+    /** In a single batch, the input-manager limits and shuffles all inputs. */
+    @Test
+    void testLimitAcceptedInSingleBatch() {
+        assertDoesNotThrow(() -> checkNotLimitedPerBatch(false, "-il", "100", "-is", "-ist"));
+        assertDoesNotThrow(() -> checkNotLimitedPerBatch(false, "-ib", "10", "-ir", "100"));
+    }
+
+    /** Metrics are only updated as each batch completes. */
+    @Test
+    void testMetricsRequireBatches() {
+        assertThrows(
+                ExperimentExecutionException.class,
+                () -> checkMetricsInBatches(false, "-mp", "9100"));
+        assertThrows(
+                ExperimentExecutionException.class,
+                () -> checkMetricsInBatches(false, "-mp", "9100", "-ist"));
+        assertDoesNotThrow(() -> checkMetricsInBatches(false, "-mp", "9100", "-ib", "10"));
+        assertDoesNotThrow(() -> checkMetricsInBatches(false, "-mp", "9100", "-iq", "queue"));
+        assertDoesNotThrow(() -> checkMetricsInBatches(true, "-mp", "9100"));
+        assertDoesNotThrow(() -> checkMetricsInBatches(false));
+    }
+
+    private static void checkNotLimitedPerBatch(boolean memoryBudget, String... arguments)
+            throws ExperimentExecutionException, ParseException {
+        CommandLine line = parse(arguments);
+        LauncherConfigCommandLine.checkNotLimitedPerBatch(
+                line, inputEnumeration(line), memoryBudget);
+    }
+
+    private static void checkMetricsInBatches(boolean memoryBudget, String... arguments)
+            throws ExperimentExecutionException, ParseException {
+        CommandLine line = parse(arguments);
+        LauncherConfigCommandLine.checkMetricsInBatches(line, inputEnumeration(line), memoryBudget);
+    }
+
+    private static InputEnumerationOptions inputEnumeration(CommandLine line)
+            throws ExperimentExecutionException {
+        InputEnumerationOptions inputs = new InputEnumerationOptions();
+        AddInputEnumerationOptions.addFrom(new CommandLineExtracter(line), inputs);
+        return inputs;
+    }
+
+    private static int maxProcessors(String... arguments) throws ParseException {
+        return LauncherConfigCommandLine.maxProcessors(parse(arguments));
+    }
+
+    private static CommandLine parse(String... arguments) throws ParseException {
+        Options options = new Options();
+        CommandLineOptions.addAdditionalOptions(options);
+        return new DefaultParser().parse(options, arguments);
+    }
+}
@@ -0,0 +1,69 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link AdaptiveProcessors} and {@link ProcessorBounds}.
+ *
+ * @author Owen Feehan
+ */
+class AdaptiveProcessorsTest {
+
+    private static final ProcessorBounds BOUNDS = new ProcessorBounds(2, 16);
+
+    @Test
+    void testHalvedUnderMemoryPressure() {
+        assertEquals(4, AdaptiveProcessors.decide(8, BOUNDS, 0.95, 0.0, 0.5));
+        assertEquals(4, AdaptiveProcessors.decide(8, BOUNDS, 0.5, 0.2, 0.5));
+        assertEquals(2, AdaptiveProcessors.decide(3, BOUNDS, 0.95, 0.0, 0.5));
+    }
+
+    @Test
+    void testGrowsWhenCpuUnsaturated() {
+        assertEquals(10, AdaptiveProcessors.decide(8, BOUNDS, 0.5, 0.0, 0.5));
+        assertEquals(3, AdaptiveProcessors.decide(2, BOUNDS, 0.5, 0.0, 0.5));
+        assertEquals(16, AdaptiveProcessors.decide(15, BOUNDS, 0.5, 0.0, 0.5));
+    }
+
+    @Test
+    void testHeldWhenCpuSaturated() {
+        assertEquals(8, AdaptiveProcessors.decide(8, BOUNDS, 0.5, 0.0, 0.95));
+    }
+
+    @Test
+    void testParseBounds() {
+        assertEquals(new ProcessorBounds(1, 12), ProcessorBounds.parse("auto", 12));
+        assertEquals(new ProcessorBounds(2, 6), ProcessorBounds.parse("auto:2-6", 12));
+        assertThrows(IllegalArgumentException.class, () -> ProcessorBounds.parse("auto:6-2", 12));
+        assertThrows(IllegalArgumentException.class, () -> ProcessorBounds.parse("automatic", 12));
+        assertTrue(ProcessorBounds.isAuto("auto:2-6"));
+        assertFalse(ProcessorBounds.isAuto("4"));
+    }
+}
@@ -0,0 +1,124 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.anchoranalysis.bean.xml.exception.BeanXMLException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link BeanXMLCache}, with BeanXML written to a temporary directory.
+ *
+ * <p>The loader does not parse the BeanXML, but creates a bean, counting how often it is called.
+ *
+ * @author Owen Feehan
+ */
+class BeanXMLCacheTest {
+
+    private static final String XML_PATH = "experiment";
+
+    @TempDir Path directory;
+
+    /** How many times a bean is loaded, rather than retrieved from the cache. */
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        BeanXMLCache.enable();
+        loads = new AtomicInteger();
+    }
+
+    /** A hit returns a duplicate, so altering it affects neither the cache nor earlier beans. */
+    @Test
+    void testHitReturnsIndependentDuplicate() throws IOException, BeanXMLException {
+        Path path = write("experiment.xml", "<experiment/>");
+
+        BeanFixture<?> loaded = getOrLoad(path);
+        BeanFixture<?> hit = getOrLoad(path);
+        assertEquals(1, loads.get());
+        assertNotSame(loaded, hit);
+        assertEquals("input", hit.getFileInput());
+
+        hit.setFileInput("altered");
+        assertEquals("input", loaded.getFileInput());
+        assertEquals("input", getOrLoad(path).getFileInput());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testChangedFileMisses() throws IOException, BeanXMLException {
+        Path path = write("experiment.xml", "<experiment/>");
+        getOrLoad(path);
+        write("experiment.xml", "<experiment><task/></experiment>");
+        getOrLoad(path);
+        assertEquals(2, loads.get());
+    }
+
+    /** A file included by another included file, is also part of the key. */
+    @Test
+    void testChangedTransitiveIncludeMisses() throws IOException, BeanXMLException {
+        write("input.xml", "<input/>");
+        write("task.xml", include("input", "input.xml"));
+        Path path = write("experiment.xml", include("task", "task.xml"));
+
+        getOrLoad(path);
+        getOrLoad(path);
+        assertEquals(1, loads.get());
+
+        write("input.xml", "<input><changed/></input>");
+        getOrLoad(path);
+        assertEquals(2, loads.get());
+    }
+
+    private BeanFixture<?> getOrLoad(Path path) throws BeanXMLException {
+        return BeanXMLCache.getOrLoad(
+                path,
+                XML_PATH,
+                () -> {
+                    loads.incrementAndGet();
+                    BeanFixture<?> bean = new BeanFixture<>();
+                    bean.setFileInput("input");
+                    return bean;
+                });
+    }
+
+    private Path write(String fileName, String xml) throws IOException {
+        return Files.writeString(directory.resolve(fileName), xml);
+    }
+
+    private static String include(String element, String fileName) {
+        return String.format(
+                "<experiment><%s config-factory=\"include\" filePath=\"%s\"/></experiment>",
+                element, fileName);
+    }
+}
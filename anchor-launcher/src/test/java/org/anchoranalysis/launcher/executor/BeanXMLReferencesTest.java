@@ -0,0 +1,111 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link BeanXMLReferences}, scanning BeanXML written to a temporary directory.
+ *
+ * @author Owen Feehan
+ */
+class BeanXMLReferencesTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testNamesReferenced() throws IOException {
+        Path path =
+                write(
+                        "experiment.xml",
+                        "<bean config-class=\"org.anchoranalysis.experiment.bean.Experiment\">"
+                                + "<features config-factory=\"featureList\"/></bean>");
+        BeanXMLReferences references = scan(path);
+        assertTrue(references.referencesName("Experiment"));
+        assertTrue(references.referencesName("FEATURE"));
+        assertFalse(references.referencesName("segment"));
+        assertEquals(Set.of(path), references.getFiles());
+    }
+
+    @Test
+    void testIncludedFileScanned() throws IOException {
+        Path included =
+                write("task.xml", "<bean config-class=\"org.example.CalculateFeatures\"/>");
+        Path path =
+                write(
+                        "experiment.xml",
+                        "<bean><task config-factory=\"include\" filePath=\"task.xml\"/></bean>");
+        BeanXMLReferences references = scan(path);
+        assertTrue(references.referencesName("feature"));
+        assertEquals(Set.of(path, included), references.getFiles());
+    }
+
+    @Test
+    void testCyclicIncludes() throws IOException {
+        Path first =
+                write(
+                        "first.xml",
+                        "<bean><a config-factory=\"include\" filePath=\"second.xml\"/></bean>");
+        Path second =
+                write(
+                        "second.xml",
+                        "<bean><a config-factory=\"include\" filePath=\"first.xml\"/></bean>");
+        assertEquals(Set.of(first, second), scan(first).getFiles());
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        Path path = write("experiment.xml", "<bean config-class=\"a\"></notBean>");
+        assertEquals(Optional.empty(), BeanXMLReferences.scan(path));
+    }
+
+    @Test
+    void testMissingInclude() throws IOException {
+        Path path =
+                write(
+                        "experiment.xml",
+                        "<bean><a config-factory=\"include\" filePath=\"missing.xml\"/></bean>");
+        assertEquals(Optional.empty(), BeanXMLReferences.scan(path));
+    }
+
+    private Path write(String fileName, String xml) throws IOException {
+        return Files.writeString(directory.resolve(fileName), xml).toAbsolutePath().normalize();
+    }
+
+    private static BeanXMLReferences scan(Path path) {
+        Optional<BeanXMLReferences> references = BeanXMLReferences.scan(path);
+        assertTrue(references.isPresent());
+        return references.get();
+    }
+}
@@ -0,0 +1,74 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link ExecutionOutputs}.
+ *
+ * @author Owen Feehan
+ */
+class ExecutionOutputsTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testNumberedConsecutively() throws IOException {
+        ExecutionOutputs outputs = new ExecutionOutputs(directory);
+        assertEquals(directory.resolve("batch0001"), outputs.next());
+        assertEquals(directory.resolve("batch0002"), outputs.next());
+    }
+
+    /** A resumed run continues after the subdirectories of an earlier run, and ignores others. */
+    @Test
+    void testContinuesAfterExisting() throws IOException {
+        Files.createDirectory(directory.resolve("batch0003"));
+        Files.createDirectory(directory.resolve("batch0007-2"));
+        Files.createDirectory(directory.resolve("batchOther"));
+        Files.createDirectory(directory.resolve("unrelated0099"));
+        assertEquals(directory.resolve("batch0008"), new ExecutionOutputs(directory).next());
+    }
+
+    @Test
+    void testNamed() throws IOException {
+        assertEquals(
+                directory.resolve("batch00000012"),
+                new ExecutionOutputs(directory).named("00000012"));
+    }
+
+    @Test
+    void testDirectoryNotYetCreated() throws IOException {
+        Path absent = directory.resolve("absent");
+        assertEquals(absent.resolve("batch0001"), new ExecutionOutputs(absent).next());
+    }
+}
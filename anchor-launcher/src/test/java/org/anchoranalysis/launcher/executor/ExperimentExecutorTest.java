@@ -0,0 +1,105 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputOrder;
+import org.anchoranalysis.launcher.executor.inputs.InputSample;
+import org.anchoranalysis.launcher.executor.inputs.InputShard;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link ExperimentExecutor}, when the inputs are not searched by the launcher.
+ *
+ * @author Owen Feehan
+ */
+class ExperimentExecutorTest {
+
+    @Test
+    void testNoSearchingOptions() {
+        assertDoesNotThrow(
+                () ->
+                        ExperimentExecutor.checkLauncherNotSearching(
+                                new InputEnumerationOptions(), false, false));
+    }
+
+    /** A shard would otherwise be ignored, so every process executes every input. */
+    @Test
+    void testShardRejected() {
+        InputEnumerationOptions options = new InputEnumerationOptions();
+        options.setShard(Optional.of(InputShard.parse("1/4")));
+        assertRejectedNaming(options, "-ish");
+    }
+
+    /** A queue would otherwise be ignored, so every worker executes every input itself. */
+    @Test
+    void testQueueRejected() {
+        InputEnumerationOptions options = new InputEnumerationOptions();
+        options.setQueueDirectory(Optional.of(Path.of("queue")));
+        assertRejectedNaming(options, "-iq");
+    }
+
+    /** Each other option that requires the launcher to search is also named. */
+    @Test
+    void testOtherSearchingOptionsRejected() {
+        InputEnumerationOptions batches = new InputEnumerationOptions();
+        batches.setStreaming(true);
+        assertRejectedNaming(batches, "-ib");
+
+        InputEnumerationOptions threads = new InputEnumerationOptions();
+        threads.setSearchThreads(4);
+        assertRejectedNaming(threads, "-ist");
+
+        InputEnumerationOptions indexed = new InputEnumerationOptions();
+        indexed.setIndexed(true);
+        assertRejectedNaming(indexed, "-ix");
+
+        InputEnumerationOptions prefetch = new InputEnumerationOptions();
+        prefetch.setPrefetchDepth(InputEnumerationOptions.DEFAULT_PREFETCH_DEPTH);
+        assertRejectedNaming(prefetch, "-ipf");
+
+        InputEnumerationOptions order = new InputEnumerationOptions();
+        order.setOrder(Optional.of(InputOrder.SIZE_DESCENDING));
+        assertRejectedNaming(order, "-io");
+
+        InputEnumerationOptions sample = new InputEnumerationOptions();
+        sample.setSample(Optional.of(InputSample.parse("10", 0)));
+        assertRejectedNaming(sample, "-isd");
+    }
+
+    private static void assertRejectedNaming(InputEnumerationOptions options, String option) {
+        ExperimentExecutionException exception =
+                assertThrows(
+                        ExperimentExecutionException.class,
+                        () -> ExperimentExecutor.checkLauncherNotSearching(options, false, false));
+        assertTrue(exception.getMessage().contains(option), exception.getMessage());
+    }
+}
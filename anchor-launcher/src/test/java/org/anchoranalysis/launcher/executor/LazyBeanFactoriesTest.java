@@ -0,0 +1,147 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.anchoranalysis.bean.xml.exception.BeanXMLException;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link LazyBeanFactories}, counting registrations instead of registering the feature
+ * bean-factories.
+ *
+ * @author Owen Feehan
+ */
+class LazyBeanFactoriesTest {
+
+    /** A task that references no features. */
+    private static final String TASK_WITHOUT_FEATURES =
+            "<bean config-class=\"org.anchoranalysis.plugin.io.bean.task.SummarizePaths\"/>";
+
+    /** A task that references features. */
+    private static final String TASK_WITH_FEATURES =
+            "<bean config-class=\"org.anchoranalysis.plugin.image.task.bean.feature.ExportFeatures\">"
+                    + "<features config-factory=\"featureList\"/></bean>";
+
+    @TempDir Path directory;
+
+    /** How many times the feature bean-factories are registered. */
+    private AtomicInteger registrations;
+
+    /** How many times a bean is loaded. */
+    private AtomicInteger loads;
+
+    private LazyBeanFactories factories;
+
+    @BeforeEach
+    void setUp() {
+        registrations = new AtomicInteger();
+        loads = new AtomicInteger();
+        factories = new LazyBeanFactories(registrations::incrementAndGet);
+    }
+
+    @Test
+    void testWithoutFeatures() throws IOException, BeanXMLException {
+        assertEquals("bean", load(TASK_WITHOUT_FEATURES, () -> "bean"));
+        assertEquals(0, registrations.get());
+    }
+
+    @Test
+    void testWithFeatures() throws IOException, BeanXMLException {
+        // Registered before the bean is loaded
+        assertTrue(load(TASK_WITH_FEATURES, factories::isRegistered));
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void testRegisteredOnce() throws IOException, BeanXMLException {
+        load(TASK_WITH_FEATURES, () -> "bean");
+        load(TASK_WITH_FEATURES, () -> "bean");
+        assertEquals(1, registrations.get());
+    }
+
+    @Test
+    void testUnreadable() throws BeanXMLException {
+        factories.loadRegistering(directory.resolve("missing.xml"), () -> "bean");
+        assertEquals(1, registrations.get());
+    }
+
+    /** A factory missed by the scan is registered, and loading is attempted again. */
+    @Test
+    void testUnknownFactoryRetried() throws IOException, BeanXMLException {
+        String loaded =
+                load(
+                        TASK_WITHOUT_FEATURES,
+                        failFirst(new RuntimeException("Unknown bean factory: features")));
+        assertEquals("bean", loaded);
+        assertEquals(1, registrations.get());
+        assertEquals(2, loads.get());
+    }
+
+    /** Any other failure is reported as it first occurred. */
+    @Test
+    void testOtherErrorNotRetried() throws IOException {
+        CheckedSupplier<String, BeanXMLException> loader =
+                failFirst(new RuntimeException("The element type must be terminated"));
+        BeanXMLException exception =
+                assertThrows(BeanXMLException.class, () -> load(TASK_WITHOUT_FEATURES, loader));
+        assertEquals("The element type must be terminated", exception.getCause().getMessage());
+        assertEquals(0, registrations.get());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testIsUnknownFactory() {
+        RuntimeException unknown = new RuntimeException("Unknown bean factory: featureList");
+        assertTrue(LazyBeanFactories.isUnknownFactory(new RuntimeException("wrapped", unknown)));
+        assertFalse(LazyBeanFactories.isUnknownFactory(new RuntimeException("Unknown class")));
+        assertFalse(LazyBeanFactories.isUnknownFactory(new RuntimeException()));
+    }
+
+    private <T> T load(String xml, CheckedSupplier<T, BeanXMLException> loader)
+            throws IOException, BeanXMLException {
+        Path path = Files.writeString(directory.resolve("task.xml"), xml);
+        return factories.loadRegistering(path, loader);
+    }
+
+    /** A loader that fails with {@code cause} the first time, and afterwards loads a bean. */
+    private CheckedSupplier<String, BeanXMLException> failFirst(Throwable cause) {
+        return () -> {
+            if (loads.incrementAndGet() == 1) {
+                throw new BeanXMLException(cause);
+            }
+            return "bean";
+        };
+    }
+}
@@ -0,0 +1,98 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MemoryAdmission} and {@link MemoryBudget}.
+ *
+ * @author Owen Feehan
+ */
+class MemoryAdmissionTest {
+
+    private static final long MEGABYTE = 1024 * 1024;
+
+    private static final long BUDGET = 1000 * MEGABYTE;
+
+    @Test
+    void testAdmissible() {
+        assertEquals(16, MemoryAdmission.admissible(10 * MEGABYTE, BUDGET, 16));
+        assertEquals(8, MemoryAdmission.admissible(100 * MEGABYTE, BUDGET, 16));
+        assertEquals(1, MemoryAdmission.admissible(600 * MEGABYTE, BUDGET, 16));
+        assertEquals(1, MemoryAdmission.admissible(5000 * MEGABYTE, BUDGET, 16));
+        assertEquals(12, MemoryAdmission.admissible(0, BUDGET, 12));
+    }
+
+    @Test
+    void testPartition() {
+        Path small1 = Path.of("small1");
+        Path large = Path.of("large");
+        Path small2 = Path.of("small2");
+        Map<Path, Long> sizes =
+                Map.of(small1, 10 * MEGABYTE, large, 400 * MEGABYTE, small2, 20 * MEGABYTE);
+
+        List<MemoryAdmission.Group> groups =
+                MemoryAdmission.partition(List.of(small1, large, small2), sizes::get, BUDGET, 16);
+
+        assertEquals(2, groups.size());
+        assertEquals(new MemoryAdmission.Group(16, List.of(small1, small2)), groups.get(0));
+        assertEquals(new MemoryAdmission.Group(2, List.of(large)), groups.get(1));
+    }
+
+    /** When the largest inputs are first, e.g. with {@code -io sizeDesc}, so is their group. */
+    @Test
+    void testPartitionPreservesOrder() {
+        Path large = Path.of("large");
+        Path small1 = Path.of("small1");
+        Path small2 = Path.of("small2");
+        Map<Path, Long> sizes =
+                Map.of(large, 400 * MEGABYTE, small1, 20 * MEGABYTE, small2, 10 * MEGABYTE);
+
+        List<MemoryAdmission.Group> groups =
+                MemoryAdmission.partition(List.of(large, small1, small2), sizes::get, BUDGET, 16);
+
+        assertEquals(2, groups.size());
+        assertEquals(new MemoryAdmission.Group(2, List.of(large)), groups.get(0));
+        assertEquals(new MemoryAdmission.Group(16, List.of(small1, small2)), groups.get(1));
+    }
+
+    @Test
+    void testParseBudget() {
+        assertEquals(40L << 30, MemoryBudget.parse("40G", 4).getBytes());
+        assertEquals(512L << 20, MemoryBudget.parse("512m", 4).getBytes());
+        assertEquals(1536L << 20, MemoryBudget.parse("1.5G", 4).getBytes());
+        assertEquals(1000, MemoryBudget.parse("1000", 4).getBytes());
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("-1G", 4));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("lots", 4));
+        assertThrows(IllegalArgumentException.class, () -> MemoryBudget.parse("", 4));
+    }
+}
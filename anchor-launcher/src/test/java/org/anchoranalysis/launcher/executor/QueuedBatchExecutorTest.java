@@ -0,0 +1,166 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.anchoranalysis.core.functional.checked.CheckedSupplier;
+import org.anchoranalysis.core.log.Logger;
+import org.anchoranalysis.experiment.ExperimentExecutionException;
+import org.anchoranalysis.experiment.log.ConsoleMessageLogger;
+import org.anchoranalysis.launcher.executor.inputs.FileWalker;
+import org.anchoranalysis.launcher.executor.inputs.InputEnumerationOptions;
+import org.anchoranalysis.launcher.executor.inputs.InputFilter;
+import org.anchoranalysis.launcher.executor.inputs.InputQueue;
+import org.anchoranalysis.launcher.executor.inputs.InputStreamer;
+import org.anchoranalysis.launcher.instrumentation.LaunchMetrics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link QueuedBatchExecutor}, when a batch fails or the populator stops.
+ *
+ * @author Owen Feehan
+ */
+class QueuedBatchExecutorTest {
+
+    /** Long enough for any test to complete, so a test that would wait indefinitely fails. */
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final Path SEARCHED = Path.of("inputs").toAbsolutePath();
+
+    @TempDir Path directory;
+
+    /**
+     * When the populator's own batch fails while it is still searching, other processes stop
+     * waiting for further batches.
+     */
+    @Test
+    void testPopulatorBatchFails() {
+        assertTimeoutPreemptively(
+                TIMEOUT,
+                () -> {
+                    assertThrows(
+                            ExperimentExecutionException.class,
+                            () ->
+                                    execute(
+                                            createExecutor(
+                                                    QueuedBatchExecutor
+                                                            .DEFAULT_STALE_MILLISECONDS),
+                                            (inputs, name) -> {
+                                                throw new ExperimentExecutionException(
+                                                        "The batch failed");
+                                            }));
+
+                    AtomicInteger executed = new AtomicInteger();
+                    IOException exception =
+                            assertThrows(
+                                    IOException.class,
+                                    () ->
+                                            execute(
+                                                    createExecutor(
+                                                            QueuedBatchExecutor
+                                                                    .DEFAULT_STALE_MILLISECONDS),
+                                                    (inputs, name) -> executed.incrementAndGet()));
+                    assertTrue(exception.getMessage().contains("stopped"));
+                });
+    }
+
+    /** When the populator is killed, other processes stop waiting once its heartbeat is stale. */
+    @Test
+    void testPopulatorKilled() throws IOException {
+        InputQueue killed = new InputQueue(directory, "killed");
+        assertTrue(killed.tryBecomePopulator());
+        killed.add(SEARCHED, List.of(SEARCHED.resolve("a.tif")));
+
+        AtomicInteger executed = new AtomicInteger();
+        assertTimeoutPreemptively(
+                TIMEOUT,
+                () ->
+                        assertThrows(
+                                IOException.class,
+                                () ->
+                                        execute(
+                                                createExecutor(1000),
+                                                (inputs, name) -> executed.incrementAndGet())));
+        assertEquals(1, executed.get());
+    }
+
+    /** A queue already executed by an earlier run is rejected, rather than executing nothing. */
+    @Test
+    void testCompletedQueueRejected() throws IOException {
+        InputQueue earlier = new InputQueue(directory, "earlier");
+        assertTrue(earlier.tryBecomePopulator());
+        earlier.add(SEARCHED, List.of(SEARCHED.resolve("a.tif")));
+        earlier.markPopulated();
+        earlier.complete(earlier.claim(SEARCHED).get());
+
+        assertThrows(
+                ExperimentExecutionException.class,
+                () -> execute(createExecutor(1000), (inputs, name) -> fail("Nothing to execute")));
+    }
+
+    private QueuedBatchExecutor createExecutor(long staleMilliseconds) {
+        InputEnumerationOptions options = new InputEnumerationOptions();
+        options.setQueueBatchSize(1);
+        options.setLingerMillis(0);
+        return new QueuedBatchExecutor(
+                options,
+                new Logger(new ConsoleMessageLogger()),
+                new LaunchMetrics(),
+                staleMilliseconds);
+    }
+
+    private int execute(
+            QueuedBatchExecutor executor, QueuedBatchExecutor.ClaimedExecution execution)
+            throws ExperimentExecutionException, IOException, InterruptedException {
+        return executor.execute(directory, SEARCHED, searchIndefinitely(), execution, () -> {});
+    }
+
+    /** A search that finds a few inputs, and then continues until interrupted. */
+    private static CheckedSupplier<InputStreamer, IOException> searchIndefinitely() {
+        FileWalker walker =
+                (searched, filter, consumer) -> {
+                    for (String name : List.of("a.tif", "b.tif", "c.tif")) {
+                        consumer.accept(searched.resolve(name));
+                    }
+                    Thread.sleep(Long.MAX_VALUE);
+                };
+        return () ->
+                new InputStreamer(
+                        walker,
+                        SEARCHED,
+                        new InputFilter(Optional.empty(), Optional.empty()),
+                        path -> true,
+                        10);
+    }
+}
@@ -0,0 +1,65 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompletionJournalTest {
+
+    private static final String RUN = "experiment, inputs and outputs";
+
+    @TempDir Path directory;
+
+    @Test
+    void testResumeIdenticalRun() throws IOException {
+        Path first = directory.resolve("first.tif");
+        Path second = directory.resolve("second.tif");
+
+        CompletionJournal journal = CompletionJournal.open(directory, RUN);
+        assertEquals(0, journal.numberCompleted());
+        journal.recordCompleted(Arrays.asList(first));
+
+        CompletionJournal reopened = CompletionJournal.open(directory, RUN);
+        assertEquals(1, reopened.numberCompleted());
+        assertTrue(reopened.isCompleted(first));
+        assertFalse(reopened.isCompleted(second));
+    }
+
+    @Test
+    void testReplacedForDifferentRun() throws IOException {
+        CompletionJournal journal = CompletionJournal.open(directory, RUN);
+        journal.recordCompleted(Arrays.asList(directory.resolve("first.tif")));
+
+        CompletionJournal reopened = CompletionJournal.open(directory, "a different run");
+        assertEquals(0, reopened.numberCompleted());
+    }
+}
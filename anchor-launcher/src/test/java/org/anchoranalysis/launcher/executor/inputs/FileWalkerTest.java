@@ -0,0 +1,301 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.anchoranalysis.bean.primitive.StringSet;
+import org.anchoranalysis.core.collection.StringSetTrie;
+import org.anchoranalysis.io.input.InputReadFailedException;
+import org.anchoranalysis.io.input.bean.path.matcher.FilePathMatcher;
+import org.anchoranalysis.io.input.bean.path.matcher.MatchExtensions;
+import org.anchoranalysis.io.input.bean.path.matcher.MatchGlob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests that {@link SequentialFileWalker}, {@link ParallelFileWalker} and {@link
+ * IndexedFileWalker} accept the same files, and the same files as the input-manager's {@link
+ * MatchGlob} and {@link MatchExtensions}, and that {@link IndexedFileWalker} reuses only unchanged
+ * directories.
+ *
+ * @author Owen Feehan
+ */
+class FileWalkerTest {
+
+    /** Accepts all files, except hidden files. */
+    private static final InputFilter ALL = new InputFilter(Optional.empty(), Optional.empty());
+
+    /** A modification-time long ago, so an unchanged directory is safe to reuse from an index. */
+    private static final long OLD_MILLIS =
+            System.currentTimeMillis() - TimeUnit.HOURS.toMillis(1);
+
+    @TempDir Path directory;
+
+    @BeforeEach
+    void createTree() throws IOException {
+        createFiles(
+                "a.tif",
+                "b.png",
+                ".hidden.tif",
+                "one/c.tif",
+                "one/d.ome.tif",
+                "one/two/e.TIF",
+                "one/two/f.txt",
+                ".hiddenDirectory/g.tif",
+                "three/h.png");
+    }
+
+    @Test
+    void testAllFiles() throws IOException, InterruptedException {
+        assertWalkers(
+                new InputFilter(Optional.empty(), Optional.empty()),
+                "a.tif",
+                "b.png",
+                "one/c.tif",
+                "one/d.ome.tif",
+                "one/two/e.TIF",
+                "one/two/f.txt",
+                "three/h.png");
+    }
+
+    @Test
+    void testExtensions() throws IOException, InterruptedException {
+        StringSetTrie extensions = new StringSetTrie();
+        extensions.add("tif");
+        assertWalkers(
+                new InputFilter(Optional.empty(), Optional.of(extensions)),
+                "a.tif",
+                "one/c.tif",
+                "one/d.ome.tif");
+    }
+
+    @Test
+    void testGlobFileName() throws IOException, InterruptedException {
+        assertWalkers(
+                new InputFilter(Optional.of("*.png"), Optional.empty()), "b.png", "three/h.png");
+    }
+
+    /** A glob is matched against the file-name only, as by the input-manager. */
+    @Test
+    void testGlobWithDirectory() throws IOException, InterruptedException {
+        assertWalkers(new InputFilter(Optional.of("one/*/*"), Optional.empty()));
+    }
+
+    /**
+     * A glob selects the same files as the input-manager's recursive search with {@link MatchGlob},
+     * including ignoring hidden files and directories.
+     */
+    @Test
+    void testGlobSameAsInputManager()
+            throws IOException, InterruptedException, InputReadFailedException {
+        for (String glob :
+                List.of("*", "*.tif", "*.TIF", "*.png", "?.tif", "*.ome.*", "one/*/*")) {
+            InputFilter filter = new InputFilter(Optional.of(glob), Optional.empty());
+            assertEquals(
+                    matchingFiles(new MatchGlob(glob)),
+                    walk(new SequentialFileWalker(), directory, filter),
+                    glob);
+        }
+    }
+
+    /**
+     * Extensions select the same files as the input-manager's recursive search with {@link
+     * MatchExtensions}, including matching case-sensitively.
+     */
+    @Test
+    void testExtensionsSameAsInputManager()
+            throws IOException, InterruptedException, InputReadFailedException {
+        for (String extension : List.of("tif", "TIF", "png", "txt")) {
+            MatchExtensions matcher = new MatchExtensions();
+            matcher.setExtensions(new StringSet(Set.of(extension)));
+
+            StringSetTrie extensions = new StringSetTrie();
+            extensions.add(extension);
+            InputFilter filter = new InputFilter(Optional.empty(), Optional.of(extensions));
+            assertEquals(
+                    matchingFiles(matcher),
+                    walk(new SequentialFileWalker(), directory, filter),
+                    extension);
+        }
+    }
+
+    @Test
+    void testMissingDirectory() {
+        Path missing = directory.resolve("missing");
+        InputFilter filter = new InputFilter(Optional.empty(), Optional.empty());
+        assertThrows(IOException.class, () -> walk(new SequentialFileWalker(), missing, filter));
+        assertThrows(IOException.class, () -> walk(new ParallelFileWalker(4), missing, filter));
+        assertThrows(
+                IOException.class,
+                () -> walk(new IndexedFileWalker(directory.resolve(".index")), missing, filter));
+    }
+
+    /** An unchanged directory, last modified long ago, is reused from the index. */
+    @Test
+    void testIndexReused() throws IOException, InterruptedException {
+        IndexedFileWalker walker = createIndexedWalker();
+        List<Path> first = walk(walker, directory, ALL);
+        assertEquals(first, walk(walker, directory, ALL));
+        assertUsage(walker, 4, 0);
+    }
+
+    /** A directory modified shortly before it was listed, is listed afresh. */
+    @Test
+    void testIndexNotReusedWhenRecent() throws IOException, InterruptedException {
+        IndexedFileWalker walker = new IndexedFileWalker(directory.resolve(".index"));
+        walk(walker, directory, ALL);
+        walk(walker, directory, ALL);
+        assertUsage(walker, 0, 4);
+    }
+
+    @Test
+    void testIndexFileAdded() throws IOException, InterruptedException {
+        IndexedFileWalker walker = createIndexedWalker();
+        List<Path> expected = walk(walker, directory, ALL);
+
+        createFiles("one/added.tif");
+        ageDirectory(directory.resolve("one"), OLD_MILLIS + 1000);
+        expected.add(directory.resolve("one/added.tif"));
+
+        assertEquals(sorted(expected), sorted(walk(walker, directory, ALL)));
+        assertUsage(walker, 3, 1);
+    }
+
+    @Test
+    void testIndexFileRemoved() throws IOException, InterruptedException {
+        IndexedFileWalker walker = createIndexedWalker();
+        List<Path> expected = walk(walker, directory, ALL);
+
+        Path removed = directory.resolve("one/c.tif");
+        Files.delete(removed);
+        ageDirectory(directory.resolve("one"), OLD_MILLIS + 1000);
+        expected.remove(removed);
+
+        assertEquals(sorted(expected), sorted(walk(walker, directory, ALL)));
+        assertUsage(walker, 3, 1);
+    }
+
+    /**
+     * Creates a walker whose index is in a hidden subdirectory, after which every directory is
+     * given a modification-time long ago, so that listings can be reused.
+     */
+    private IndexedFileWalker createIndexedWalker() throws IOException {
+        Path indexDirectory = directory.resolve(".index");
+        Files.createDirectories(indexDirectory);
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (Files.isDirectory(path)) {
+                    ageDirectory(path, OLD_MILLIS);
+                }
+            }
+        }
+        return new IndexedFileWalker(indexDirectory);
+    }
+
+    private static void ageDirectory(Path path, long millis) throws IOException {
+        Files.setLastModifiedTime(path, FileTime.fromMillis(millis));
+    }
+
+    private static void assertUsage(IndexedFileWalker walker, int reused, int listed) {
+        assertEquals(
+                Optional.of(
+                        String.format(
+                                "Input index: %d directories reused, %d directories listed afresh.",
+                                reused, listed)),
+                walker.describeUsage());
+    }
+
+    /** The files found by the input-manager's recursive search with {@code matcher}, sorted. */
+    private List<Path> matchingFiles(FilePathMatcher matcher) throws InputReadFailedException {
+        List<Path> paths = new ArrayList<>();
+        for (File file :
+                matcher.matchingFiles(
+                        directory, true, true, true, Optional.empty(), Optional.empty())) {
+            paths.add(file.toPath());
+        }
+        return sorted(paths);
+    }
+
+    private static List<Path> sorted(List<Path> paths) {
+        List<Path> out = new ArrayList<>(paths);
+        Collections.sort(out);
+        return out;
+    }
+
+    /** Asserts both walkers find exactly {@code expected}, as paths relative to the directory. */
+    private void assertWalkers(InputFilter filter, String... expected)
+            throws IOException, InterruptedException {
+        List<Path> expectedPaths = new ArrayList<>();
+        for (String path : expected) {
+            expectedPaths.add(directory.resolve(path));
+        }
+        Collections.sort(expectedPaths);
+
+        assertEquals(expectedPaths, walk(new SequentialFileWalker(), directory, filter));
+
+        List<Path> parallel = walk(new ParallelFileWalker(4), directory, filter);
+        Collections.sort(parallel);
+        assertEquals(expectedPaths, parallel);
+
+        // The index is placed in a hidden directory, so it is not itself found as an input.
+        // Searching twice, checks both creating and reading the index.
+        FileWalker indexed = new IndexedFileWalker(directory.resolve(".index"));
+        for (int i = 0; i < 2; i++) {
+            List<Path> found = walk(indexed, directory, filter);
+            Collections.sort(found);
+            assertEquals(expectedPaths, found);
+        }
+    }
+
+    private static List<Path> walk(FileWalker walker, Path directory, InputFilter filter)
+            throws IOException, InterruptedException {
+        List<Path> found = Collections.synchronizedList(new ArrayList<>());
+        walker.walk(directory, filter, found::add);
+        return new ArrayList<>(found);
+    }
+
+    private void createFiles(String... paths) throws IOException {
+        for (String path : paths) {
+            Path file = directory.resolve(path);
+            Files.createDirectories(file.getParent());
+            Files.createFile(file);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link FootprintEstimator}.
+ *
+ * @author Owen Feehan
+ */
+class FootprintEstimatorTest {
+
+    private static final int WIDTH = 300;
+
+    private static final int HEIGHT = 200;
+
+    @TempDir Path directory;
+
+    @Test
+    void testPng() throws IOException {
+        assertEquals(WIDTH * HEIGHT * 3, FootprintEstimator.estimate(writeRgb("png")));
+    }
+
+    @Test
+    void testJpeg() throws IOException {
+        assertEquals(WIDTH * HEIGHT * 3, FootprintEstimator.estimate(writeRgb("jpeg")));
+    }
+
+    @Test
+    void testTiff() throws IOException {
+        assertEquals(WIDTH * HEIGHT * 3, FootprintEstimator.estimate(writeRgb("tiff")));
+    }
+
+    @Test
+    void testFallback() throws IOException {
+        Path file = directory.resolve("unknown.dat");
+        Files.write(file, new byte[100]);
+        assertEquals(
+                100 * FootprintEstimator.FALLBACK_EXPANSION, FootprintEstimator.estimate(file));
+    }
+
+    @Test
+    void testMissing() {
+        assertEquals(0, FootprintEstimator.estimate(directory.resolve("missing.png")));
+    }
+
+    /** Writes an RGB image, with a format name understood by {@link ImageIO}. */
+    private Path writeRgb(String format) throws IOException {
+        BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Path file = directory.resolve("image." + format);
+        assertTrue(ImageIO.write(image, format, file.toFile()));
+        return file;
+    }
+}
@@ -0,0 +1,91 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link InputOrder}.
+ *
+ * @author Owen Feehan
+ */
+class InputOrderTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testSizeDescending() throws IOException {
+        List<Path> inputs = createInputs();
+        InputOrder.SIZE_DESCENDING.sort(inputs);
+        assertEquals(List.of("c", "a", "b", "d"), names(inputs));
+    }
+
+    @Test
+    void testSizeAscending() throws IOException {
+        List<Path> inputs = createInputs();
+        InputOrder.SIZE_ASCENDING.sort(inputs);
+        assertEquals(List.of("b", "d", "a", "c"), names(inputs));
+    }
+
+    @Test
+    void testParse() {
+        assertEquals(InputOrder.SIZE_DESCENDING, InputOrder.parse("sizeDesc"));
+        assertEquals(InputOrder.FOOTPRINT_DESCENDING, InputOrder.parse("footprintDesc"));
+        assertThrows(IllegalArgumentException.class, () -> InputOrder.parse("random"));
+    }
+
+    /** Creates inputs named a to d, of sizes 20, 10, 30 and 10 bytes, in a shuffled order. */
+    private List<Path> createInputs() throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        inputs.add(create("d", 10));
+        inputs.add(create("a", 20));
+        inputs.add(create("c", 30));
+        inputs.add(create("b", 10));
+        return inputs;
+    }
+
+    private Path create(String name, int size) throws IOException {
+        Path path = directory.resolve(name);
+        Files.write(path, new byte[size]);
+        return path;
+    }
+
+    private static List<String> names(List<Path> inputs) {
+        List<String> names = new ArrayList<>();
+        for (Path input : inputs) {
+            names.add(input.getFileName().toString());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,151 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link InputPrefetcher}.
+ *
+ * @author Owen Feehan
+ */
+class InputPrefetcherTest {
+
+    private static final int FILE_SIZE = 1000;
+
+    /** How long to wait for the background thread to read inputs. */
+    private static final long TIMEOUT_MILLIS = 10000;
+
+    @TempDir Path directory;
+
+    @Test
+    void testLimitedByDepth() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(5);
+        try (InputPrefetcher prefetcher = create(3, Long.MAX_VALUE)) {
+            prefetcher.prefetch(inputs, 0);
+            assertEquals(3, awaitRead(prefetcher, 3));
+        }
+    }
+
+    @Test
+    void testLimitedByCeiling() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(5);
+        try (InputPrefetcher prefetcher = create(5, 2 * FILE_SIZE)) {
+            prefetcher.prefetch(inputs, 0);
+            assertEquals(2, awaitRead(prefetcher, 2));
+        }
+    }
+
+    /** Inputs already read in the previous window are not read again. */
+    @Test
+    void testOverlappingWindows() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(4);
+        try (InputPrefetcher prefetcher = create(3, Long.MAX_VALUE)) {
+            prefetcher.prefetch(inputs.subList(0, 3), 0);
+            awaitRead(prefetcher, 3);
+            prefetcher.prefetch(inputs.subList(1, 4), 0);
+            assertEquals(4, awaitRead(prefetcher, 4));
+        }
+    }
+
+    /** The inputs the jobs open as they start are skipped, and the window follows them. */
+    @Test
+    void testSkipped() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(6);
+        try (InputPrefetcher prefetcher = create(3, Long.MAX_VALUE)) {
+            prefetcher.prefetch(inputs, 2);
+            assertEquals(3, awaitRead(prefetcher, 3));
+        }
+    }
+
+    /** As the jobs open later inputs, further inputs are read ahead of them. */
+    @Test
+    void testSlidesWithJobs() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(8);
+        AtomicReference<Collection<Path>> open = new AtomicReference<>(List.of());
+        try (InputPrefetcher prefetcher =
+                new InputPrefetcher(2, Long.MAX_VALUE, Optional.of(open::get))) {
+            prefetcher.prefetch(inputs, 1);
+            assertEquals(2, awaitRead(prefetcher, 2));
+
+            // The job opens the third input, so the window is now the fourth and fifth
+            open.set(List.of(inputs.get(2)));
+            assertEquals(4, awaitRead(prefetcher, 4));
+
+            // Inputs the jobs have opened are not read, when they move past the window
+            open.set(List.of(inputs.get(0), inputs.get(6)));
+            assertEquals(5, awaitRead(prefetcher, 5));
+        }
+    }
+
+    /** The window does not slide when the open files cannot be listed. */
+    @Test
+    void testNotFollowing() throws IOException, InterruptedException {
+        List<Path> inputs = createInputs(6);
+        try (InputPrefetcher prefetcher = create(2, Long.MAX_VALUE)) {
+            prefetcher.prefetch(inputs, 1);
+            assertEquals(2, awaitRead(prefetcher, 2));
+        }
+    }
+
+    /** Does not follow the jobs, so the window is fixed when the prefetch starts. */
+    private static InputPrefetcher create(int depth, long ceilingBytes) {
+        return new InputPrefetcher(depth, ceilingBytes, Optional.empty());
+    }
+
+    /** Waits until {@code expected} inputs are read, then briefly longer, in case of excess. */
+    private static int awaitRead(InputPrefetcher prefetcher, int expected)
+            throws InterruptedException {
+        long start = System.currentTimeMillis();
+        while (prefetcher.numberRead() < expected
+                && System.currentTimeMillis() - start < TIMEOUT_MILLIS) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(100);
+        return prefetcher.numberRead();
+    }
+
+    private List<Path> createInputs(int number) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < number; i++) {
+            Path input = directory.resolve(String.format("image%02d.tif", i));
+            Files.write(input, new byte[FILE_SIZE]);
+            inputs.add(input);
+        }
+        return inputs;
+    }
+}
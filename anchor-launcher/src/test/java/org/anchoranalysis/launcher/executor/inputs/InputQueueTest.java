@@ -0,0 +1,120 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.anchoranalysis.launcher.executor.inputs.InputQueue.ClaimedBatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link InputQueue}, with several workers sharing a queue, as several processes would.
+ *
+ * @author Owen Feehan
+ */
+class InputQueueTest {
+
+    private static final int NUMBER_WORKERS = 4;
+
+    private static final int NUMBER_BATCHES = 200;
+
+    @TempDir Path directory;
+
+    private final Path searched = Path.of("inputs").toAbsolutePath();
+
+    @Test
+    void testOnlyOnePopulator() throws IOException {
+        assertTrue(new InputQueue(directory, "first").tryBecomePopulator());
+        assertFalse(new InputQueue(directory, "second").tryBecomePopulator());
+    }
+
+    /** Every batch is claimed by exactly one worker, and the queue is then exhausted. */
+    @Test
+    void testEachBatchClaimedOnce() throws Exception {
+        InputQueue populator = new InputQueue(directory, "populator");
+        for (int i = 0; i < NUMBER_BATCHES; i++) {
+            populator.add(searched, List.of(searched.resolve(String.format("image%03d.tif", i))));
+        }
+        populator.markPopulated();
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_WORKERS);
+        try {
+            List<Future<List<Path>>> futures = new ArrayList<>();
+            for (int worker = 0; worker < NUMBER_WORKERS; worker++) {
+                InputQueue queue = new InputQueue(directory, "worker" + worker);
+                futures.add(executor.submit(() -> claimAll(queue)));
+            }
+
+            List<Path> claimed = new ArrayList<>();
+            for (Future<List<Path>> future : futures) {
+                claimed.addAll(future.get());
+            }
+            Collections.sort(claimed);
+
+            assertEquals(NUMBER_BATCHES, claimed.size());
+            assertEquals(NUMBER_BATCHES, claimed.stream().distinct().count());
+            assertTrue(populator.isExhausted());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testNotExhaustedUntilPopulated() throws IOException {
+        InputQueue queue = new InputQueue(directory, "worker");
+        assertFalse(queue.isExhausted());
+        queue.markPopulated();
+        assertTrue(queue.isExhausted());
+    }
+
+    @Test
+    void testPopulationFailed() throws IOException {
+        InputQueue queue = new InputQueue(directory, "worker");
+        queue.markPopulationFailed("the input directory does not exist");
+        assertThrows(IOException.class, queue::isExhausted);
+    }
+
+    private List<Path> claimAll(InputQueue queue) throws IOException {
+        List<Path> claimed = new ArrayList<>();
+        Optional<ClaimedBatch> batch = queue.claim(searched);
+        while (batch.isPresent()) {
+            claimed.addAll(batch.get().getInputs());
+            queue.complete(batch.get());
+            batch = queue.claim(searched);
+        }
+        return claimed;
+    }
+}
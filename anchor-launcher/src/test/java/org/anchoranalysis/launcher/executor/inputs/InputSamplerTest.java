@@ -0,0 +1,101 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link InputSampler} and {@link InputSample}.
+ *
+ * @author Owen Feehan
+ */
+class InputSamplerTest {
+
+    private static final Path DIRECTORY = Path.of("/searched");
+
+    private static final int NUMBER_INPUTS = 10000;
+
+    @Test
+    void testFixedCountIndependentOfOrder() {
+        List<Path> inputs = createInputs();
+        List<Path> sample = sampleFixed(inputs, 42);
+        assertEquals(100, sample.size());
+
+        Collections.shuffle(inputs, new Random(7));
+        assertEquals(sample, sampleFixed(inputs, 42));
+    }
+
+    @Test
+    void testFixedCountDependsOnSeed() {
+        List<Path> inputs = createInputs();
+        assertNotEquals(sampleFixed(inputs, 42), sampleFixed(inputs, 43));
+    }
+
+    @Test
+    void testFixedCountMoreThanInputs() {
+        InputSampler sampler = new InputSampler(DIRECTORY, new InputSample(5, 0.0, 1));
+        sampler.offer(DIRECTORY.resolve("a.tif"));
+        sampler.offer(DIRECTORY.resolve("b.tif"));
+        assertEquals(2, sampler.takeReservoir().size());
+    }
+
+    @Test
+    void testRatio() {
+        InputSampler sampler = new InputSampler(DIRECTORY, InputSample.parse("0.1", 42));
+        long kept = createInputs().stream().filter(sampler).count();
+        assertEquals(NUMBER_INPUTS * 0.1, kept, NUMBER_INPUTS * 0.02);
+    }
+
+    @Test
+    void testParse() {
+        assertTrue(InputSample.parse("100", 1).isFixedCount());
+        assertFalse(InputSample.parse("0.5", 1).isFixedCount());
+        assertThrows(IllegalArgumentException.class, () -> InputSample.parse("0", 1));
+        assertThrows(IllegalArgumentException.class, () -> InputSample.parse("1.5", 1));
+        assertThrows(IllegalArgumentException.class, () -> InputSample.parse("many", 1));
+    }
+
+    private static List<Path> sampleFixed(List<Path> inputs, long seed) {
+        InputSampler sampler = new InputSampler(DIRECTORY, InputSample.parse("100", seed));
+        inputs.forEach(sampler::offer);
+        return sampler.takeReservoir();
+    }
+
+    private static List<Path> createInputs() {
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 0; i < NUMBER_INPUTS; i++) {
+            inputs.add(DIRECTORY.resolve(String.format("plate%02d/image%05d.tif", i % 10, i)));
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,80 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+
+class InputShardTest {
+
+    private static final int NUMBER_SHARDS = 40;
+
+    private static final int NUMBER_INPUTS = 100_000;
+
+    @Test
+    void testParse() {
+        assertEquals(new InputShard(3, 40), InputShard.parse("3/40"));
+        assertThrows(IllegalArgumentException.class, () -> InputShard.parse("0/40"));
+        assertThrows(IllegalArgumentException.class, () -> InputShard.parse("41/40"));
+        assertThrows(IllegalArgumentException.class, () -> InputShard.parse("3"));
+        assertThrows(IllegalArgumentException.class, () -> InputShard.parse("a/b"));
+    }
+
+    /** Every input belongs to exactly one shard, and each shard has close to an equal share. */
+    @Test
+    void testDisjointAndBalanced() {
+        int[] counts = new int[NUMBER_SHARDS];
+        for (int i = 0; i < NUMBER_INPUTS; i++) {
+            Path input = Path.of(String.format("plate%02d/image%06d.tif", i % 7, i));
+            int matches = 0;
+            for (int k = 1; k <= NUMBER_SHARDS; k++) {
+                if (new InputShard(k, NUMBER_SHARDS).includes(input)) {
+                    counts[k - 1]++;
+                    matches++;
+                }
+            }
+            assertEquals(1, matches);
+        }
+
+        double expected = (double) NUMBER_INPUTS / NUMBER_SHARDS;
+        for (int count : counts) {
+            assertEquals(expected, count, expected * 0.1);
+        }
+    }
+
+    /** Inputs with the same identifier, but different extensions, belong to the same shard. */
+    @Test
+    void testIgnoresExtension() {
+        for (int k = 1; k <= NUMBER_SHARDS; k++) {
+            InputShard shard = new InputShard(k, NUMBER_SHARDS);
+            assertEquals(
+                    shard.includes(Path.of("a/b/image.tif")),
+                    shard.includes(Path.of("a/b/image.xml")));
+        }
+    }
+}
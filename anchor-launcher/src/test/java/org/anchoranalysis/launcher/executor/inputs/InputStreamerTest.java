@@ -0,0 +1,102 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.inputs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link InputStreamer}.
+ *
+ * @author Owen Feehan
+ */
+class InputStreamerTest {
+
+    private static final Path DIRECTORY = Path.of("inputs").toAbsolutePath();
+
+    private static final List<Path> FOUND =
+            List.of(DIRECTORY.resolve("a.tif"), DIRECTORY.resolve("b.tif"));
+
+    /** Walks by passing {@link #FOUND} to the consumer. */
+    private static final FileWalker WALKER =
+            (directory, filter, consumer) -> {
+                for (Path path : FOUND) {
+                    consumer.accept(path);
+                }
+            };
+
+    @Test
+    void testBatches() throws IOException, InterruptedException {
+        try (InputStreamer streamer = create(WALKER, path -> true)) {
+            assertEquals(Optional.of(FOUND), streamer.nextBatch(10, Long.MAX_VALUE));
+            assertEquals(Optional.empty(), streamer.nextBatch(10, Long.MAX_VALUE));
+        }
+    }
+
+    /** An unchecked exception in the search is reported, rather than ending the search silently. */
+    @Test
+    void testWalkerThrowsUnchecked() {
+        FileWalker failing =
+                (directory, filter, consumer) -> {
+                    throw new IllegalStateException("walker failed");
+                };
+        assertFailsWith(failing, path -> true, "walker failed");
+    }
+
+    @Test
+    void testIncludeThrowsUnchecked() {
+        assertFailsWith(
+                WALKER,
+                path -> {
+                    throw new IllegalArgumentException("include failed");
+                },
+                "include failed");
+    }
+
+    private static void assertFailsWith(
+            FileWalker walker, Predicate<Path> include, String expectedMessage) {
+        try (InputStreamer streamer = create(walker, include)) {
+            IOException exception =
+                    assertThrows(IOException.class, () -> streamer.nextBatch(10, 0));
+            assertEquals(expectedMessage, exception.getCause().getMessage());
+        }
+    }
+
+    private static InputStreamer create(FileWalker walker, Predicate<Path> include) {
+        return new InputStreamer(
+                walker,
+                DIRECTORY,
+                new InputFilter(Optional.empty(), Optional.empty()),
+                include,
+                10);
+    }
+}
@@ -0,0 +1,115 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.executor.selectparam.path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.anchoranalysis.launcher.options.CommandLineOptions;
+import org.apache.commons.cli.Options;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link WorkingDirectoryArguments}.
+ *
+ * @author Owen Feehan
+ */
+class WorkingDirectoryArgumentsTest {
+
+    private static final Path WORKING_DIRECTORY = Paths.get("/home/someone/images");
+
+    private static final Options OPTIONS = createOptions();
+
+    @Test
+    void testRelativePathsResolved() {
+        assertResolved(
+                new String[] {"experiment.xml", "-i", "small", "-o", "../outputs", "-l=log.txt"},
+                "/home/someone/images/experiment.xml",
+                "-i",
+                "/home/someone/images/small",
+                "-o",
+                "/home/someone/images/../outputs",
+                "-l=/home/someone/images/log.txt");
+    }
+
+    @Test
+    void testOtherArgumentsUnchanged() {
+        assertResolved(
+                new String[] {"/tmp/experiment.xml", "-i", ".tif", "-t", "resize", "-tp", "4"},
+                "/tmp/experiment.xml",
+                "-i",
+                ".tif",
+                "-t",
+                "resize",
+                "-tp",
+                "4");
+    }
+
+    @Test
+    void testTaskPathResolved() {
+        assertResolved(
+                new String[] {"-t", "tasks/resize.xml"},
+                "-t",
+                "/home/someone/images/tasks/resize.xml");
+    }
+
+    @Test
+    void testOptionalArgumentFollowedByOption() {
+        // -ix takes an optional directory, so -i is not treated as its argument
+        assertResolved(
+                new String[] {"-ix", "-i", "small"},
+                "-ix",
+                "-i",
+                "/home/someone/images/small");
+    }
+
+    @Test
+    void testSearchesWorkingDirectory() {
+        assertTrue(searches());
+        assertTrue(searches("-i", ".tif"));
+        assertTrue(searches("-o", "outputs"));
+        assertFalse(searches("-i", "small"));
+        assertFalse(searches("-i", ".tif", "-h"));
+        assertFalse(searches("-gtc", "tasks"));
+    }
+
+    private static void assertResolved(String[] arguments, String... expected) {
+        assertArrayEquals(
+                expected, WorkingDirectoryArguments.resolve(arguments, WORKING_DIRECTORY, OPTIONS));
+    }
+
+    private static Options createOptions() {
+        Options options = new Options();
+        CommandLineOptions.addBasicOptions(options);
+        CommandLineOptions.addAdditionalOptions(options);
+        return options;
+    }
+
+    private static boolean searches(String... arguments) {
+        return WorkingDirectoryArguments.searchesWorkingDirectory(arguments, OPTIONS);
+    }
+}
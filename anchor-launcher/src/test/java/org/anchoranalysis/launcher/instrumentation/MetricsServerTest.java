@@ -0,0 +1,66 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class MetricsServerTest {
+
+    @Test
+    void testServesMetrics() throws IOException {
+        LaunchMetrics metrics = new LaunchMetrics();
+        metrics.recordBatchCompleted(3);
+        metrics.recordBatchCompleted(2);
+        metrics.recordBatchFailed(4);
+        metrics.assignInputsWaiting(() -> 7);
+
+        try (MetricsServer server = new MetricsServer(metrics, 0)) {
+            URL url = new URL("http://localhost:" + server.getPort() + MetricsServer.PATH);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(LaunchMetrics.contentType(), connection.getContentType());
+
+            String body;
+            try (InputStream stream = connection.getInputStream()) {
+                body = new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("\nanchor_batches_completed_total 2\n"));
+            assertTrue(body.contains("\nanchor_inputs_completed_total 5\n"));
+            assertTrue(body.contains("\nanchor_batches_failed_total 1\n"));
+            assertTrue(body.contains("\nanchor_inputs_failed_total 4\n"));
+            assertTrue(body.contains("\nanchor_inputs_waiting 7\n"));
+            assertTrue(body.contains("# TYPE jvm_memory_heap_used_bytes gauge"));
+            assertFalse(body.contains("anchor_queue_batches_pending"));
+        }
+    }
+}
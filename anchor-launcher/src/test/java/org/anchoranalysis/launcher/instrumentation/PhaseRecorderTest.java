@@ -0,0 +1,100 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.instrumentation;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PhaseRecorderTest {
+
+    @TempDir Path directory;
+
+    @Test
+    void testMeasuresPhase() {
+        PhaseRecorder recorder = new PhaseRecorder();
+        PhaseMeasurement measurement = recorder.start("sleep").end(10);
+
+        assertEquals("sleep", measurement.getPhase());
+        assertEquals(10, measurement.getNumberInputs());
+        assertTrue(measurement.getWallNanos() >= 0);
+        assertEquals(List.of(measurement), recorder.measurements());
+    }
+
+    /** A phase is recorded when closed, even if an exception is thrown during it. */
+    @Test
+    void testClosedAfterException() {
+        PhaseRecorder recorder = new PhaseRecorder();
+        assertThrows(
+                IllegalStateException.class,
+                () -> {
+                    try (PhaseRecorder.Started phase = recorder.start("failing")) {
+                        throw new IllegalStateException();
+                    }
+                });
+
+        List<PhaseMeasurement> measurements = recorder.measurements();
+        assertEquals(1, measurements.size());
+        assertEquals("failing", measurements.get(0).getPhase());
+        assertEquals(0, measurements.get(0).getNumberInputs());
+    }
+
+    /** Closing a phase that has already ended does not record it again. */
+    @Test
+    void testClosedAfterEnd() {
+        PhaseRecorder recorder = new PhaseRecorder();
+        try (PhaseRecorder.Started phase = recorder.start("batch")) {
+            phase.end(3);
+        }
+
+        List<PhaseMeasurement> measurements = recorder.measurements();
+        assertEquals(1, measurements.size());
+        assertEquals(3, measurements.get(0).getNumberInputs());
+    }
+
+    /** A row is written for each phase, in order, with any comma in a phase-name quoted. */
+    @Test
+    void testWriteCsv() throws IOException {
+        PhaseRecorder recorder = new PhaseRecorder();
+        recorder.record(new PhaseMeasurement("loadExperiment", 0, 2_000_000, 1_000_000, -1, 512));
+        recorder.record(new PhaseMeasurement("batch,1", 4, 2_000_000_000L, -1, -1, -1));
+
+        Path path = directory.resolve("nested").resolve("timing.csv");
+        recorder.writeCsv(path);
+
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(0).startsWith("phase,inputs,wallMillis"));
+        assertEquals("loadExperiment,0,2.000,1.000,-1.000,512,0.000", lines.get(1));
+        assertEquals("\"batch,1\",4,2000.000,-1.000,-1.000,-1,2.000", lines.get(2));
+    }
+}
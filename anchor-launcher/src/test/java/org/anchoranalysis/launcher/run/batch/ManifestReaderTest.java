@@ -0,0 +1,83 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.batch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ManifestReaderTest {
+
+    @Test
+    void testWhitespaceSeparated() throws IOException {
+        assertArguments(
+                "-i \"small images/\" -t 'a \"b\"' c\\ d",
+                "-i",
+                "small images/",
+                "-t",
+                "a \"b\"",
+                "c d");
+    }
+
+    @Test
+    void testJsonArray() throws IOException {
+        assertArguments(
+                "[\"-i\", \"small images/\", \"tab\\there\", \"\\u0041\"]",
+                "-i",
+                "small images/",
+                "tab\there",
+                "A");
+    }
+
+    @Test
+    void testSkipsCommentsAndEmptyLines() throws IOException {
+        List<BatchRecord> records =
+                ManifestReader.parse(Arrays.asList("# a comment", "", "-t resize", "  "));
+        assertEquals(1, records.size());
+        assertEquals(3, records.get(0).getLineNumber());
+    }
+
+    @Test
+    void testUnclosedQuote() {
+        List<String> lines = Arrays.asList("-i \"unclosed");
+        assertThrows(IOException.class, () -> ManifestReader.parse(lines));
+    }
+
+    @Test
+    void testJsonNotStrings() {
+        List<String> lines = Arrays.asList("[\"-tp\", 4]");
+        assertThrows(IOException.class, () -> ManifestReader.parse(lines));
+    }
+
+    private static void assertArguments(String line, String... expected) throws IOException {
+        List<BatchRecord> records = ManifestReader.parse(Arrays.asList(line));
+        assertEquals(1, records.size());
+        assertArrayEquals(expected, records.get(0).getArguments());
+    }
+}
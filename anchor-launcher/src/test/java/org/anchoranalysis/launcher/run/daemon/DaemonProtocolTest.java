@@ -0,0 +1,99 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.daemon;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DaemonProtocolTest {
+
+    private static final String WORKING_DIRECTORY = "/home/someone/images";
+
+    @Test
+    void testRoundTrip() {
+        String[] arguments = {"-i", "small images/", "-t", "resize", ""};
+        List<String> decoded =
+                DaemonProtocol.decode(DaemonProtocol.encode(WORKING_DIRECTORY, arguments));
+        assertEquals(WORKING_DIRECTORY, decoded.get(0));
+        assertEquals(Arrays.asList(arguments), decoded.subList(1, decoded.size()));
+    }
+
+    @Test
+    void testNoArguments() {
+        List<String> decoded =
+                DaemonProtocol.decode(DaemonProtocol.encode(WORKING_DIRECTORY, new String[] {}));
+        assertEquals(List.of(WORKING_DIRECTORY), decoded);
+    }
+
+    @Test
+    void testMissingFinalTerminator() {
+        byte[] bytes = (WORKING_DIRECTORY + "\0-h").getBytes(StandardCharsets.UTF_8);
+        assertEquals(List.of(WORKING_DIRECTORY, "-h"), DaemonProtocol.decode(bytes));
+    }
+
+    @Test
+    void testResponseSucceeded() throws IOException {
+        assertResponse("some output", true, DaemonProtocol.STATUS_SUCCESS);
+    }
+
+    @Test
+    void testResponseFailed() throws IOException {
+        assertResponse("", false, DaemonProtocol.STATUS_FAILURE);
+    }
+
+    @Test
+    void testResponseWithoutStatus() throws IOException {
+        // e.g. if the daemon is terminated while executing a command-line
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        byte[] response = "partial output".getBytes(StandardCharsets.UTF_8);
+        int status = DaemonProtocol.copyResponse(input(response), output);
+        assertEquals(DaemonProtocol.STATUS_FAILURE, status);
+        assertEquals("partial output", output.toString(StandardCharsets.UTF_8));
+    }
+
+    private static void assertResponse(String text, boolean succeeded, int expectedStatus)
+            throws IOException {
+        ByteArrayOutputStream response = new ByteArrayOutputStream();
+        response.write(text.getBytes(StandardCharsets.UTF_8));
+        response.write(DaemonProtocol.encodeStatus(succeeded));
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int status = DaemonProtocol.copyResponse(input(response.toByteArray()), output);
+        assertEquals(expectedStatus, status);
+        assertEquals(text, output.toString(StandardCharsets.UTF_8));
+    }
+
+    private static ByteArrayInputStream input(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+}
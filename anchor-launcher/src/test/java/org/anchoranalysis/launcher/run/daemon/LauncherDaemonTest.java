@@ -0,0 +1,122 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.daemon;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import org.anchoranalysis.experiment.log.ConsoleMessageLogger;
+import org.apache.commons.cli.Options;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link LauncherDaemon}, by sending requests to it via a socket.
+ *
+ * @author Owen Feehan
+ */
+class LauncherDaemonTest {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMillis(200);
+
+    @TempDir Path directory;
+
+    @Test
+    void testStatusReturned() throws IOException, InterruptedException {
+        Path socket = startDaemon();
+        assertEquals(DaemonProtocol.STATUS_SUCCESS, request(socket, "succeed"));
+        assertEquals(DaemonProtocol.STATUS_FAILURE, request(socket, "fail"));
+    }
+
+    @Test
+    void testStalledClientDisconnected() throws IOException, InterruptedException {
+        Path socket = startDaemon();
+        try (SocketChannel stalled = connect(socket)) {
+            // Sends part of a request, but never ends its output
+            stalled.write(ByteBuffer.wrap("/".getBytes(StandardCharsets.UTF_8)));
+
+            // A later request is still served, once the stalled client is disconnected
+            assertEquals(DaemonProtocol.STATUS_SUCCESS, request(socket, "succeed"));
+            assertEquals(
+                    DaemonProtocol.STATUS_FAILURE,
+                    DaemonProtocol.copyResponse(
+                            Channels.newInputStream(stalled), new ByteArrayOutputStream()));
+        }
+    }
+
+    /** Starts a daemon, which succeeds if the first argument is {@code succeed}. */
+    private Path startDaemon() throws InterruptedException {
+        Path socket = directory.resolve("daemon.socket");
+        LauncherDaemon daemon =
+                new LauncherDaemon(
+                        socket, new Options(), new ConsoleMessageLogger(), REQUEST_TIMEOUT);
+        Thread thread =
+                new Thread(
+                        () -> {
+                            try {
+                                daemon.serve(arguments -> arguments[0].equals("succeed"));
+                            } catch (IOException e) {
+                                // The test fails as no request is served
+                            }
+                        });
+        thread.setDaemon(true);
+        thread.start();
+        while (!Files.exists(socket)) {
+            Thread.sleep(10);
+        }
+        return socket;
+    }
+
+    /** Sends a request from the daemon's working-directory, and returns the status. */
+    private static int request(Path socket, String argument) throws IOException {
+        try (SocketChannel channel = connect(socket)) {
+            String workingDirectory = Paths.get("").toAbsolutePath().normalize().toString();
+            channel.write(
+                    ByteBuffer.wrap(
+                            DaemonProtocol.encode(workingDirectory, new String[] {argument})));
+            channel.shutdownOutput();
+            return DaemonProtocol.copyResponse(
+                    Channels.newInputStream(channel), new ByteArrayOutputStream());
+        }
+    }
+
+    private static SocketChannel connect(Path socket) throws IOException {
+        SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        channel.connect(UnixDomainSocketAddress.of(socket));
+        return channel;
+    }
+}
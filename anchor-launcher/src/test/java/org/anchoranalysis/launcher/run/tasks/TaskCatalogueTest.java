@@ -0,0 +1,117 @@
+/*-
+ * #%L
+ * anchor-launcher
+ * %%
+ * Copyright (C) 2010 - 2022 Owen Feehan, ETH Zurich, University of Zurich, Hoffmann-La Roche
+ * %%
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * #L%
+ */
+package org.anchoranalysis.launcher.run.tasks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.anchoranalysis.io.input.InputReadFailedException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TaskCatalogueTest {
+
+    private static final String TASK_XML =
+            "<?xml version=\"1.0\"?>\n"
+                    + "<!-- Segments\ttext   in images -->\n"
+                    + "<bean><input config-class=\"org.anchoranalysis.image.InputManager\"/>"
+                    + "</bean>";
+
+    @TempDir Path directory;
+
+    @BeforeEach
+    void createTasks() throws IOException {
+        Files.createDirectories(directory.resolve("segment"));
+        Files.createDirectories(directory.resolve("include"));
+        Files.writeString(directory.resolve("resize.xml"), "<bean/>");
+        Files.writeString(directory.resolve("segment/text.xml"), TASK_XML);
+        Files.writeString(directory.resolve("include/shared.xml"), "<bean/>");
+    }
+
+    @Test
+    void testWriteAndLoad() throws InputReadFailedException, IOException {
+        TaskCatalogue.write(directory);
+
+        Optional<TaskCatalogue> catalogue = TaskCatalogue.loadIfFresh(directory);
+        assertTrue(catalogue.isPresent());
+        assertEquals(
+                Arrays.asList("resize", "segment/text"),
+                catalogue.get().taskNames().collect(Collectors.toList()));
+
+        TaskCatalogue.Task task = catalogue.get().getTasks().get(1);
+        assertEquals("InputManager", task.getInputType());
+        assertEquals("Segments text in images", task.getDescription());
+    }
+
+    @Test
+    void testStaleWhenSubdirectoryModified() throws InputReadFailedException, IOException {
+        TaskCatalogue.write(directory);
+
+        Path subdirectory = directory.resolve("segment");
+        long catalogueModified =
+                Files.getLastModifiedTime(directory.resolve(TaskCatalogue.FILENAME)).toMillis();
+        Files.setLastModifiedTime(subdirectory, FileTime.fromMillis(catalogueModified + 10000));
+        assertFalse(TaskCatalogue.loadIfFresh(directory).isPresent());
+    }
+
+    /** Editing a task in place leaves its directory unmodified, but still makes it stale. */
+    @Test
+    void testStaleWhenTaskModified() throws InputReadFailedException, IOException {
+        TaskCatalogue.write(directory);
+
+        Path task = directory.resolve("segment/text.xml");
+        long catalogueModified =
+                Files.getLastModifiedTime(directory.resolve(TaskCatalogue.FILENAME)).toMillis();
+        Files.writeString(task, "<bean/>");
+        Files.setLastModifiedTime(task, FileTime.fromMillis(catalogueModified + 10000));
+        Files.setLastModifiedTime(
+                directory.resolve("segment"), FileTime.fromMillis(catalogueModified));
+        assertFalse(TaskCatalogue.loadIfFresh(directory).isPresent());
+    }
+
+    @Test
+    void testAbsent() {
+        assertFalse(TaskCatalogue.loadIfFresh(directory).isPresent());
+    }
+
+    @Test
+    void testSimilarTaskNames() {
+        List<String> names = Arrays.asList("resize", "segment/text", "montage/reorder");
+        assertEquals(
+                Arrays.asList("segment/text"),
+                SimilarTaskNames.mostSimilar("segmnt/txt", names.stream(), 3));
+        assertTrue(SimilarTaskNames.mostSimilar("unrelated", names.stream(), 3).isEmpty());
+        assertEquals(3, SimilarTaskNames.distance("kitten", "sitting"));
+    }
+}